@@ -0,0 +1,245 @@
+package benchmark;
+
+import benchmark.block.AdaptiveBlockCompressor;
+import benchmark.block.AdaptiveBlockCompressor.Choice;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compresses a sequence of independent payloads with {@link AdaptiveBlockCompressor} under a CPU budget of
+ * {@code targetMbPerSecond} (0 for none), with the same compressor forced to each of its {@code choice}s without
+ * probing ({@code fixedChoice}), and with a new stream per payload of each fixed codec of
+ * {@link CompressionBenchmark} ({@code fixed}). {@code fixedChoice} shares the block format and reused contexts of
+ * {@code adaptive}, so the difference between the two is the cost of probing and what the choices gain, while
+ * {@code fixed} also includes the setup of a stream per payload. Payloads add up to at least {@code corpusSize} bytes of one of these mixes:
+ * <ul>
+ * <li>{@code json}: consecutive {@code blockSize} slices of the corpus</li>
+ * <li>{@code binary}: {@code blockSize} random bytes, standing in for already compressed attachments</li>
+ * <li>{@code short}: single corpus records</li>
+ * <li>{@code mixed}: the three interleaved in equal shares by size</li>
+ * </ul>
+ * {@code adaptive} also counts how many payloads were written with each choice.
+ */
+public class AdaptiveCompressionBenchmark {
+    private static final int HIGH_LEVEL = 19;
+    private static final long BINARY_SEED = 0x62696e617279L;
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+        @Param({"1KB", "64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        @Param({"json", "binary", "short", "mixed"})
+        public String mix;
+
+        @Param({"16384"})
+        public int blockSize;
+
+        private byte[] corpus;
+        private byte[][] records;
+        private final Random random = new Random(BINARY_SEED);
+        private int jsonOffset;
+        private int record;
+
+        private final List<byte[]> payloads = new ArrayList<>();
+        private long totalBytes;
+
+        @Setup
+        public void setup() throws IOException {
+            corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+            records = Corpus.records(corpus);
+
+            while (totalBytes < corpus.length) {
+                switch (mix) {
+                    case "json":
+                        add(nextJson());
+                        break;
+                    case "binary":
+                        add(nextBinary());
+                        break;
+                    case "short":
+                        add(nextRecord());
+                        break;
+                    case "mixed":
+                        add(nextJson());
+                        add(nextBinary());
+                        for (long shortBytes = 0; shortBytes < blockSize; shortBytes += add(nextRecord())) {
+                            // records until their share matches the others
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown mix " + mix);
+                }
+            }
+        }
+
+        private int add(byte[] payload) {
+            payloads.add(payload);
+            totalBytes += payload.length;
+            return payload.length;
+        }
+
+        private byte[] nextJson() {
+            final int end = Math.min(corpus.length, jsonOffset + blockSize);
+            final byte[] slice = Arrays.copyOfRange(corpus, jsonOffset, end);
+            jsonOffset = end == corpus.length ? 0 : end;
+            return slice;
+        }
+
+        private byte[] nextBinary() {
+            final byte[] bytes = new byte[blockSize];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+
+        private byte[] nextRecord() {
+            return records[record++ % records.length];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Adaptive {
+        @Param({"0", "50", "200", "1000"})
+        public int targetMbPerSecond;
+
+        private AdaptiveBlockCompressor compressor;
+        private byte[] destination;
+
+        @Setup
+        public void setup(Payloads payloads) {
+            compressor = new AdaptiveBlockCompressor(HIGH_LEVEL, targetMbPerSecond);
+            destination = new byte[compressor.maxCompressedLength(payloads.payloads.stream().mapToInt(p -> p.length).max().orElse(0))];
+
+            for (byte[] payload : payloads.payloads) {
+                final int length = compressor.compress(payload, destination);
+                final byte[] restored = new byte[payload.length];
+                if (compressor.decompress(Arrays.copyOf(destination, length), restored) != payload.length
+                        || !Arrays.equals(payload, restored)) {
+                    throw new IllegalStateException("Adaptive compression does not round-trip");
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FixedChoice {
+        @Param({"STORED", "LZ4", "ZSTD_FAST", "ZSTD_HIGH"})
+        public Choice choice;
+
+        private AdaptiveBlockCompressor compressor;
+        private byte[] destination;
+
+        @Setup
+        public void setup(Payloads payloads) {
+            compressor = AdaptiveBlockCompressor.fixed(choice, HIGH_LEVEL);
+            destination = new byte[compressor.maxCompressedLength(payloads.payloads.stream().mapToInt(p -> p.length).max().orElse(0))];
+
+            for (byte[] payload : payloads.payloads) {
+                final int length = compressor.compress(payload, destination);
+                final byte[] restored = new byte[payload.length];
+                if (compressor.decompress(Arrays.copyOf(destination, length), restored) != payload.length
+                        || !Arrays.equals(payload, restored)) {
+                    throw new IllegalStateException("Compression with " + choice + " does not round-trip");
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fixed {
+        @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+                "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+        public String codec;
+
+        private Codec compressor;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup(Payloads payloads) {
+            compressor = Codecs.get(codec);
+            sink = new ByteArraySink(ByteArraySink.capacityFor(payloads.blockSize));
+        }
+    }
+
+    /**
+     * Payloads written with each {@link Choice}, totals over all operations like the {@link CodecCounters}, so each
+     * divided by their sum is the share of that choice.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Choices {
+        public long stored;
+        public long lz4;
+        public long zstdFast;
+        public long zstdHigh;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            stored = 0;
+            lz4 = 0;
+            zstdFast = 0;
+            zstdHigh = 0;
+        }
+    }
+
+    @Benchmark
+    public void adaptive(Payloads payloads, Adaptive adaptive, CodecCounters counters, Choices choices) {
+        final AdaptiveBlockCompressor compressor = adaptive.compressor;
+        final long stored = compressor.chosen(Choice.STORED);
+        final long lz4 = compressor.chosen(Choice.LZ4);
+        final long zstdFast = compressor.chosen(Choice.ZSTD_FAST);
+        final long zstdHigh = compressor.chosen(Choice.ZSTD_HIGH);
+
+        long compressedBytes = 0;
+        for (byte[] payload : payloads.payloads) {
+            compressedBytes += compressor.compress(payload, adaptive.destination);
+        }
+
+        counters.compressed(payloads.totalBytes, compressedBytes);
+        choices.stored += compressor.chosen(Choice.STORED) - stored;
+        choices.lz4 += compressor.chosen(Choice.LZ4) - lz4;
+        choices.zstdFast += compressor.chosen(Choice.ZSTD_FAST) - zstdFast;
+        choices.zstdHigh += compressor.chosen(Choice.ZSTD_HIGH) - zstdHigh;
+    }
+
+    @Benchmark
+    public void fixedChoice(Payloads payloads, FixedChoice fixedChoice, CodecCounters counters) {
+        long compressedBytes = 0;
+        for (byte[] payload : payloads.payloads) {
+            compressedBytes += fixedChoice.compressor.compress(payload, fixedChoice.destination);
+        }
+
+        counters.compressed(payloads.totalBytes, compressedBytes);
+    }
+
+    @Benchmark
+    public void fixed(Payloads payloads, Fixed fixed, CodecCounters counters) throws IOException {
+        long compressedBytes = 0;
+        for (byte[] payload : payloads.payloads) {
+            fixed.sink.reset();
+            try (final OutputStream outputStream = fixed.compressor.compress(fixed.sink, Codec.DEFAULT, Codec.DEFAULT)) {
+                outputStream.write(payload);
+            }
+            compressedBytes += fixed.sink.size();
+        }
+
+        counters.compressed(payloads.totalBytes, compressedBytes);
+    }
+}
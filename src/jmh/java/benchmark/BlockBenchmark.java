@@ -0,0 +1,159 @@
+package benchmark;
+
+import benchmark.block.BlockCodec;
+import benchmark.block.BlockCodecs;
+import benchmark.block.BlockCompressor;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.Streams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compresses the corpus as independent blocks of {@code blockSize} bytes, once through the codec's raw block API
+ * into preallocated buffers and once through a new instance of the matching stream wrapper per block, to show the
+ * cost of stream framing for small payloads. Every block is verified to round-trip exactly before measuring.
+ */
+@State(Scope.Benchmark)
+public class BlockBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"512", "4096", "65536", "1048576", "4194304"})
+    public int blockSize;
+
+    @Param({"deflate", "lz4-native", "lz4-unsafe", "lz4-safe", "zstd"})
+    public String codec;
+
+    private BlockCompressor compressor;
+    private Codec streamCodec;
+
+    private byte[][] blocks;
+    private byte[][] compressedBlocks;
+    private byte[][] streamCompressedBlocks;
+    private byte[][] restoredBlocks;
+    private long totalBytes;
+    private long totalCompressedBytes;
+    private long totalStreamCompressedBytes;
+
+    private byte[] destination;
+    private ByteArraySink sink;
+    private final byte[] copyBuffer = new byte[8192];
+
+    @Setup
+    public void setup() throws IOException {
+        compressor = BlockCodecs.get(codec).create(BlockCodec.DEFAULT_LEVEL);
+        streamCodec = Codecs.get(streamCodecName(codec));
+
+        blocks = BlockCodecs.split(Resources.toByteArray(Corpus.plaintext(corpusSize)), blockSize);
+        compressedBlocks = new byte[blocks.length][];
+        streamCompressedBlocks = new byte[blocks.length][];
+        restoredBlocks = new byte[blocks.length][];
+        destination = new byte[compressor.maxCompressedLength(blockSize)];
+        sink = new ByteArraySink(ByteArraySink.capacityFor(blockSize));
+
+        for (int i = 0; i < blocks.length; i++) {
+            final int compressedLength = compressor.compress(blocks[i], destination);
+            compressedBlocks[i] = Arrays.copyOf(destination, compressedLength);
+            restoredBlocks[i] = new byte[blocks[i].length];
+            totalBytes += blocks[i].length;
+            totalCompressedBytes += compressedLength;
+
+            streamCompress(blocks[i]);
+            streamCompressedBlocks[i] = sink.toByteArray();
+            totalStreamCompressedBytes += sink.size();
+
+            if (compressor.decompress(compressedBlocks[i], restoredBlocks[i]) != blocks[i].length
+                    || !Arrays.equals(blocks[i], restoredBlocks[i])) {
+                throw new IllegalStateException(codec + " block API does not round-trip block " + i);
+            }
+            streamDecompress(streamCompressedBlocks[i]);
+            if (!Arrays.equals(blocks[i], sink.toByteArray())) {
+                throw new IllegalStateException(streamCodec.name() + " stream does not round-trip block " + i);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        compressor.close();
+    }
+
+    private static String streamCodecName(String blockCodec) {
+        switch (blockCodec) {
+            case "deflate":
+                return "gzip";
+            case "lz4-native":
+            case "lz4-unsafe":
+            case "lz4-safe":
+            case "zstd":
+                return blockCodec;
+            default:
+                throw new IllegalArgumentException("No stream codec for block codec " + blockCodec);
+        }
+    }
+
+    private void streamCompress(byte[] block) throws IOException {
+        sink.reset();
+        try (final OutputStream outputStream = streamCodec.compress(sink, Codec.DEFAULT, Codec.DEFAULT)) {
+            outputStream.write(block);
+        }
+    }
+
+    private void streamDecompress(byte[] compressedBlock) throws IOException {
+        sink.reset();
+        try (final InputStream inputStream = streamCodec.decompress(new ByteArrayInputStream(compressedBlock), Codec.DEFAULT)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+        }
+    }
+
+    @Benchmark
+    public void blockCompress(CodecCounters counters, Blackhole bh) {
+        for (byte[] block : blocks) {
+            bh.consume(compressor.compress(block, destination));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void blockDecompress(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < compressedBlocks.length; i++) {
+            bh.consume(compressor.decompress(compressedBlocks[i], restoredBlocks[i]));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+
+    @Benchmark
+    public void streamCompress(CodecCounters counters) throws IOException {
+        for (byte[] block : blocks) {
+            streamCompress(block);
+        }
+
+        counters.compressed(totalBytes, totalStreamCompressedBytes);
+    }
+
+    @Benchmark
+    public void streamDecompress(CodecCounters counters) throws IOException {
+        for (byte[] compressedBlock : streamCompressedBlocks) {
+            streamDecompress(compressedBlock);
+        }
+
+        counters.decompressed(totalStreamCompressedBytes, totalBytes);
+    }
+}
@@ -0,0 +1,204 @@
+package benchmark;
+
+import benchmark.block.BlockCodec;
+import benchmark.block.BlockCodecs;
+import benchmark.block.BlockCompressor;
+import benchmark.corpus.Corpus;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compresses and decompresses blocks of {@code blockSize} bytes between off-heap buffers, once through the codec's
+ * {@link ByteBuffer} entry point and once by copying each block onto the heap, running the {@code byte[]} API and
+ * copying the result back into a direct buffer. The {@code input} parameter selects whether the plaintext (for
+ * compression) and the compressed blocks (for decompression) live in a direct buffer or in a read-only memory
+ * mapped file.
+ * <p>
+ * Only codecs with a {@link ByteBuffer} entry point on Java 8 are included. {@code Deflater.setInput(ByteBuffer)}
+ * was added in Java 11, deflate has to go through the heap here.
+ */
+@State(Scope.Benchmark)
+public class ByteBufferBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"65536"})
+    public int blockSize;
+
+    @Param({"lz4-native", "lz4-unsafe", "lz4-safe", "zstd"})
+    public String codec;
+
+    @Param({"direct", "mapped"})
+    public String input;
+
+    private BlockCompressor compressor;
+
+    private ByteBuffer plaintext;
+    private ByteBuffer compressed;
+    private int[] offsets;
+    private int[] lengths;
+    private int[] compressedOffsets;
+    private int[] compressedLengths;
+    private long totalBytes;
+    private long totalCompressedBytes;
+
+    private ByteBuffer destination;
+    private ByteBuffer restored;
+
+    private byte[][] heapBlocks;
+    private byte[][] heapCompressedBlocks;
+    private byte[][] heapRestoredBlocks;
+    private byte[] heapDestination;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        compressor = BlockCodecs.get(codec).create(BlockCodec.DEFAULT_LEVEL);
+        if (!compressor.supportsByteBuffers()) {
+            throw new IllegalArgumentException(codec + " has no ByteBuffer entry point");
+        }
+
+        final byte[] corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+        final Path corpusFile = Paths.get(Corpus.plaintext(corpusSize).toURI());
+        plaintext = load(corpus, corpusFile);
+
+        final int blocks = (corpus.length + blockSize - 1) / blockSize;
+        final int maxCompressedLength = compressor.maxCompressedLength(blockSize);
+        offsets = new int[blocks];
+        lengths = new int[blocks];
+        compressedOffsets = new int[blocks];
+        compressedLengths = new int[blocks];
+        heapBlocks = new byte[blocks][];
+        heapCompressedBlocks = new byte[blocks][];
+        heapRestoredBlocks = new byte[blocks][];
+        destination = ByteBuffer.allocateDirect(maxCompressedLength);
+        restored = ByteBuffer.allocateDirect(blockSize);
+        heapDestination = new byte[maxCompressedLength];
+
+        final ByteBuffer compressedBlocks = ByteBuffer.allocateDirect(blocks * maxCompressedLength);
+        for (int i = 0; i < blocks; i++) {
+            offsets[i] = i * blockSize;
+            lengths[i] = Math.min(blockSize, corpus.length - offsets[i]);
+            compressedOffsets[i] = (int) totalCompressedBytes;
+            compressedLengths[i] = compressor.compress(plaintext, offsets[i], lengths[i],
+                    compressedBlocks, compressedOffsets[i], maxCompressedLength);
+            heapBlocks[i] = new byte[lengths[i]];
+            heapCompressedBlocks[i] = new byte[compressedLengths[i]];
+            heapRestoredBlocks[i] = new byte[lengths[i]];
+            totalBytes += lengths[i];
+            totalCompressedBytes += compressedLengths[i];
+        }
+
+        final byte[] compressedCorpus = new byte[(int) totalCompressedBytes];
+        compressedBlocks.get(compressedCorpus);
+        final Path compressedFile = Files.createTempFile(Corpus.directory(), corpusFile.getFileName() + "." + codec, ".blocks");
+        compressedFile.toFile().deleteOnExit();
+        Files.write(compressedFile, compressedCorpus);
+        compressed = load(compressedCorpus, compressedFile);
+
+        for (int i = 0; i < blocks; i++) {
+            final ByteBuffer block = ByteBuffer.wrap(corpus, offsets[i], lengths[i]);
+            if (decompressDirect(i) != lengths[i] || !restored(lengths[i]).equals(block)) {
+                throw new IllegalStateException(codec + " ByteBuffer API does not round-trip block " + i);
+            }
+            if (decompressViaHeap(i) != lengths[i] || !restored(lengths[i]).equals(block)) {
+                throw new IllegalStateException(codec + " byte[] API does not round-trip block " + i);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        compressor.close();
+    }
+
+    private ByteBuffer load(byte[] data, Path file) throws IOException {
+        switch (input) {
+            case "direct":
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+                buffer.put(data).flip();
+                return buffer;
+            case "mapped":
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).load();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown input " + input);
+        }
+    }
+
+    private ByteBuffer restored(int length) {
+        final ByteBuffer view = restored.duplicate();
+        view.clear();
+        view.limit(length);
+        return view;
+    }
+
+    private int decompressDirect(int block) {
+        return compressor.decompress(compressed, compressedOffsets[block], compressedLengths[block], restored, 0, lengths[block]);
+    }
+
+    private int decompressViaHeap(int block) {
+        compressed.position(compressedOffsets[block]);
+        compressed.get(heapCompressedBlocks[block]);
+        final int length = compressor.decompress(heapCompressedBlocks[block], heapRestoredBlocks[block]);
+        restored.clear();
+        restored.put(heapRestoredBlocks[block], 0, length);
+        return length;
+    }
+
+    @Benchmark
+    public void compressDirect(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < offsets.length; i++) {
+            bh.consume(compressor.compress(plaintext, offsets[i], lengths[i], destination, 0, destination.capacity()));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void compressViaHeap(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < offsets.length; i++) {
+            plaintext.position(offsets[i]);
+            plaintext.get(heapBlocks[i]);
+            final int length = compressor.compress(heapBlocks[i], heapDestination);
+            destination.clear();
+            destination.put(heapDestination, 0, length);
+            bh.consume(length);
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void decompressDirect(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < offsets.length; i++) {
+            bh.consume(decompressDirect(i));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+
+    @Benchmark
+    public void decompressViaHeap(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < offsets.length; i++) {
+            bh.consume(decompressViaHeap(i));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+}
@@ -0,0 +1,196 @@
+package benchmark;
+
+import benchmark.chunked.ChunkedFile;
+import benchmark.chunked.ChunkedInputStream;
+import benchmark.chunked.ChunkedOutputStream;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.Streams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Reads record aligned {@link ChunkedOutputStream} containers of the corpus, {@code chunkSize} bytes per frame:
+ * <ul>
+ * <li>{@code decompressSequential}: the whole container, frame by frame on the calling thread</li>
+ * <li>{@code decompressParallel}: the whole container, frames decompressed on {@code threads} workers</li>
+ * <li>{@code readRecord}: one random record through an already opened index, decompressing a single frame</li>
+ * <li>{@code openAndReadRecord}: the same including reading the trailer and index, the time to first record of a
+ * segment that is not open yet</li>
+ * <li>{@code readRecordFromStream}: one random record from the regular single stream fixture of the codec, which has
+ * to be decompressed up to that record</li>
+ * </ul>
+ * Containers are written to the corpus directory on first use, reads go through the page cache.
+ */
+public class ChunkedDecompressionBenchmark {
+    private static final byte DELIMITER = '\n';
+
+    @State(Scope.Benchmark)
+    public static class Container {
+        @Param({"1KB", "64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        @Param({"zstd", "lz4-native", "gzip", "xz"})
+        public String codec;
+
+        @Param({"65536", "1048576"})
+        public int chunkSize;
+
+        private Codec decompressor;
+        private Path path;
+        private URL stream;
+        private FileChannel channel;
+        private ChunkedFile file;
+        private long compressedLength;
+        private long uncompressedLength;
+
+        private ByteArraySink sink;
+        private final byte[] copyBuffer = new byte[8192];
+
+        @Setup
+        public void setup() throws IOException, URISyntaxException {
+            decompressor = Codecs.get(codec);
+            final URL plaintext = Corpus.plaintext(corpusSize);
+            path = Paths.get(Corpus.derived(corpusSize, codec + ".chunked-" + chunkSize, outputStream -> {
+                final ForkJoinPool pool = new ForkJoinPool();
+                try (final OutputStream chunkedOutputStream = new ChunkedOutputStream(outputStream, decompressor,
+                        Codec.DEFAULT, pool, chunkSize, 2 * pool.getParallelism(), DELIMITER)) {
+                    Resources.copy(plaintext, chunkedOutputStream);
+                } finally {
+                    pool.shutdown();
+                }
+            }).toURI());
+            stream = Corpus.fixture(corpusSize, decompressor, Codec.DEFAULT, Codec.DEFAULT);
+
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            file = ChunkedFile.open(channel, decompressor);
+            compressedLength = channel.size();
+            uncompressedLength = file.uncompressedLength();
+            sink = new ByteArraySink((int) uncompressedLength);
+
+            final byte[] corpus = Resources.toByteArray(plaintext);
+            final byte[][] records = Corpus.records(corpus);
+            final long lines = IntStream.range(0, corpus.length).filter(i -> corpus[i] == DELIMITER).count();
+            if (file.records() != lines) {
+                throw new IllegalStateException("Container holds " + file.records() + " records instead of " + lines);
+            }
+            for (long record : new long[]{0, records.length / 2, records.length - 1}) {
+                if (!Arrays.equals(records[(int) record], file.record(record, DELIMITER))
+                        || !Arrays.equals(records[(int) record], readRecordFromStream(record))) {
+                    throw new IllegalStateException("Record " + record + " does not round-trip");
+                }
+            }
+            decompressSequential();
+            if (!Arrays.equals(corpus, sink.toByteArray())) {
+                throw new IllegalStateException("Chunked " + codec + " container does not round-trip");
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            channel.close();
+        }
+
+        private long randomRecord() {
+            return ThreadLocalRandom.current().nextLong(file.records());
+        }
+
+        private void decompressSequential() throws IOException {
+            sink.reset();
+            try (final InputStream inputStream = new ChunkedInputStream(new BufferedInputStream(Files.newInputStream(path)), decompressor)) {
+                Streams.copy(inputStream, sink, copyBuffer);
+            }
+        }
+
+        private byte[] readRecordFromStream(long record) throws IOException {
+            sink.reset();
+            try (final InputStream inputStream = decompressor.decompress(stream.openStream(), Codec.DEFAULT)) {
+                long delimiters = 0;
+                int read;
+                while ((read = inputStream.read(copyBuffer)) != -1) {
+                    for (int i = 0; i < read; i++) {
+                        if (copyBuffer[i] == DELIMITER) {
+                            if (delimiters++ == record) {
+                                return sink.toByteArray();
+                            }
+                        } else if (delimiters == record) {
+                            sink.write(copyBuffer[i]);
+                        }
+                    }
+                }
+            }
+            return sink.toByteArray();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Workers {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void decompressSequential(Container container, CodecCounters counters) throws IOException {
+        container.decompressSequential();
+
+        counters.decompressed(container.compressedLength, container.sink.size());
+    }
+
+    @Benchmark
+    public void decompressParallel(Container container, Workers workers, CodecCounters counters) throws IOException {
+        container.sink.reset();
+        container.file.decompress(workers.pool, 2 * workers.threads, container.sink);
+
+        counters.decompressed(container.compressedLength, container.sink.size());
+    }
+
+    @Benchmark
+    public byte[] readRecord(Container container) throws IOException {
+        return container.file.record(container.randomRecord(), DELIMITER);
+    }
+
+    @Benchmark
+    public byte[] openAndReadRecord(Container container) throws IOException {
+        return ChunkedFile.open(container.channel, container.decompressor).record(container.randomRecord(), DELIMITER);
+    }
+
+    @Benchmark
+    public byte[] readRecordFromStream(Container container) throws IOException {
+        return container.readRecordFromStream(container.randomRecord());
+    }
+}
@@ -0,0 +1,82 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Secondary metrics reported next to the timing of each compression and decompression benchmark:
+ * <ul>
+ * <li>{@code uncompressedBytes}, {@code compressedBytes}: uncompressed and compressed size of the data of all
+ * operations</li>
+ * <li>{@code operations}: the operations counted</li>
+ * <li>{@code elapsedNanos}: time from the start to the end of the iterations</li>
+ * </ul>
+ * JMH sums event counters over threads, iterations and forks, so all of them are totals. {@code CodecMetricsReport}
+ * derives the ratio, the size per operation and the throughput in MB/s (10^6 uncompressed bytes) from them into
+ * {@code codec-metrics.json} next to the results, values that stay the same whatever the number of iterations and
+ * forks. {@link Throughput} also has JMH itself report the uncompressed bytes per time unit.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class CodecCounters {
+    public long uncompressedBytes;
+    public long compressedBytes;
+    public long operations;
+    public long elapsedNanos;
+
+    private long startNanos;
+    private Throughput throughput;
+
+    @Setup
+    public void attach(Throughput throughput) {
+        this.throughput = throughput;
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+        uncompressedBytes = 0;
+        compressedBytes = 0;
+        operations = 0;
+        elapsedNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public void compressed(long uncompressed, long compressed) {
+        record(uncompressed, compressed);
+    }
+
+    public void decompressed(long compressed, long uncompressed) {
+        record(uncompressed, compressed);
+    }
+
+    private void record(long uncompressed, long compressed) {
+        uncompressedBytes += uncompressed;
+        compressedBytes += compressed;
+        operations++;
+        throughput.uncompressedByteRate += uncompressed;
+    }
+
+    /**
+     * {@code uncompressedByteRate}, the uncompressed bytes as an operations counter, which JMH divides by the
+     * measured time itself: uncompressed bytes per time unit in throughput mode, time units per byte in average time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long uncompressedByteRate;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uncompressedByteRate = 0;
+        }
+    }
+}
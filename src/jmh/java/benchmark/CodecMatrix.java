@@ -0,0 +1,72 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link CompressionBenchmark} and {@link DecompressionBenchmark} over the cross-product of every level and
+ * block size each registered codec supports. A plain JMH run can only take the cross-product of all parameter
+ * values, which would combine codecs with levels they do not have, so this runs one JMH session per codec and
+ * writes all results into a single file.
+ * <p>
+ * Arguments are regular JMH command line options, the {@code codecs} system property optionally restricts the
+ * sweep to a comma separated list of codec names. Only the default corpus is swept unless {@code -p corpus=...}
+ * selects others.
+ */
+public class CodecMatrix {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final CommandLineOptions runOptions = Sweeps.withoutResultOptions(args);
+        final Set<String> selectedCodecs = new HashSet<>();
+        if (!System.getProperty("codecs", "").isEmpty()) {
+            selectedCodecs.addAll(Arrays.asList(System.getProperty("codecs").split(",")));
+        }
+
+        final List<RunResult> results = new ArrayList<>();
+        for (Codec codec : Codecs.all()) {
+            if (!selectedCodecs.isEmpty() && !selectedCodecs.contains(codec.name())) {
+                continue;
+            }
+
+            final ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(runOptions)
+                    .include(CompressionBenchmark.class.getName() + ".compress(InMemory)?$")
+                    .include(DecompressionBenchmark.class.getName() + ".decompress(InMemory)?$")
+                    .param("codec", codec.name())
+                    .param("level", values(codec.levels()))
+                    .param("blockSize", values(codec.blockSizes()));
+            if (!runOptions.getParameter("corpus").hasValue()) {
+                options.param("corpus", Corpus.DEFAULT);
+            }
+
+            results.addAll(new Runner(options.build()).run());
+        }
+
+        Sweeps.writeResults(commandLineOptions, "codec-matrix", results);
+    }
+
+    private static String[] values(Collection<Integer> values) {
+        if (values.isEmpty()) {
+            return new String[]{"default"};
+        }
+        final List<String> strings = values.stream().map(String::valueOf).collect(Collectors.toList());
+        strings.add(0, "default");
+        return strings.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.io.Streams;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first uses of a codec in a fresh JVM, as in a short-lived batch job or a restarted pod. Every fork
+ * starts without the codec's classes or native library loaded, the setup only reads the data and looks up the codec,
+ * so the first of the single-shot iterations includes class loading, native library loading (LZ4's JNI binding,
+ * zstd-jni's extraction to a temporary file) and interpreted execution, and the following iterations show how quickly
+ * the JIT brings the codec up to speed:
+ * <ul>
+ * <li>{@code open}: opens and closes a compressing stream without data, library initialization alone</li>
+ * <li>{@code compress}: compresses the {@code payloadSize} corpus into a reused buffer</li>
+ * <li>{@code decompress}: decompresses its fixture, which has to exist already, generating it would use the codec
+ * before the first measurement</li>
+ * </ul>
+ * The {@code jmhColdStart} Gradle task runs this in {@link Mode#SingleShotTime} and summarizes the warm-up curves, the
+ * {@code jmh} task leaves it out.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 30)
+public class ColdStartBenchmark {
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param({"1MB"})
+        public String payloadSize;
+
+        @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+                "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+        public String codec;
+
+        private Codec compressor;
+        private byte[] payload;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup() throws IOException {
+            compressor = Codecs.get(codec);
+            payload = Resources.toByteArray(Corpus.plaintext(payloadSize));
+            sink = new ByteArraySink(ByteArraySink.capacityFor(payload.length));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fixture {
+        private byte[] compressed;
+        private ByteArraySource compressedInput;
+        private ByteArraySink sink;
+        private final byte[] copyBuffer = new byte[8192];
+
+        @Setup
+        public void setup(Payload payload) throws IOException {
+            if (!Corpus.hasFixture(Corpus.DEFAULT, payload.payloadSize, payload.compressor, Codec.DEFAULT, Codec.DEFAULT)) {
+                throw new IllegalStateException("No " + payload.codec + " fixture of " + payload.payloadSize + " in "
+                        + Corpus.directory() + ", generate it with CorpusFixtures before the cold start runs");
+            }
+            compressed = Resources.toByteArray(Corpus.fixture(payload.payloadSize, payload.compressor, Codec.DEFAULT, Codec.DEFAULT));
+            compressedInput = new ByteArraySource(compressed);
+            sink = new ByteArraySink(payload.payload.length);
+        }
+    }
+
+    @Benchmark
+    public void open(Payload payload) throws IOException {
+        payload.compressor.compress(ByteStreams.nullOutputStream(), Codec.DEFAULT, Codec.DEFAULT).close();
+    }
+
+    @Benchmark
+    public void compress(Payload payload, CodecCounters counters) throws IOException {
+        payload.sink.reset();
+        try (final OutputStream outputStream = payload.compressor.compress(payload.sink, Codec.DEFAULT, Codec.DEFAULT)) {
+            outputStream.write(payload.payload);
+        }
+
+        counters.compressed(payload.payload.length, payload.sink.size());
+    }
+
+    @Benchmark
+    public void decompress(Payload payload, Fixture fixture, CodecCounters counters, Blackhole bh) throws IOException {
+        fixture.compressedInput.rewind();
+        fixture.sink.reset();
+        try (final InputStream inputStream = payload.compressor.decompress(fixture.compressedInput, Codec.DEFAULT)) {
+            Streams.copy(inputStream, fixture.sink, fixture.copyBuffer);
+        }
+
+        counters.decompressed(fixture.compressed.length, fixture.sink.size());
+        bh.consume(fixture.sink);
+    }
+}
@@ -0,0 +1,191 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.columnar.ColumnarJson;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.io.Streams;
+import benchmark.pool.CodecContexts;
+import benchmark.pool.PooledCodecs;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compares field-wise compression of the JSON corpora with {@link ColumnarJson}, which compresses every column with
+ * {@code columnCodec}, against compressing the same document whole with {@code documentCodec}, the strongest general
+ * purpose settings measured elsewhere. Both parameters are a codec name and one of its levels, separated by a colon.
+ * All methods work from memory into reused buffers and on the same reused codec contexts from
+ * {@link PooledCodecs#contexts(Codec, int)}, {@code CodecCounters} reports the ratio and throughput to compare.
+ * {@code splitFieldWise} splits the document into its columns without compressing them, the share of
+ * {@code compressFieldWise} that does not depend on the codec, its ratio is that of the split alone.
+ * <p>
+ * Setup checks that both restore the identical document. The field-wise layout pays off where records share their
+ * fields: the {@code json} corpus has one record per line, {@code gelf} a batch of records per line, so its shapes
+ * repeat less.
+ */
+public class ColumnarJsonBenchmark {
+    @State(Scope.Benchmark)
+    public static class Document {
+        @Param({"64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        @Param({"json", "gelf"})
+        public String corpus;
+
+        private byte[] document;
+
+        @Setup
+        public void setup() throws IOException {
+            document = Resources.toByteArray(Corpus.plaintext(corpus, corpusSize));
+        }
+
+        void verify(String configuration, ByteArraySink restored) {
+            if (!Arrays.equals(document, restored.toByteArray())) {
+                throw new IllegalStateException(configuration + " does not restore the " + corpus + " corpus");
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FieldWise {
+        @Param({"lz4-native:default", "zstd:default", "zstd:19", "xz:default"})
+        public String columnCodec;
+
+        private ColumnarJson columnar;
+        private ByteArraySink sink;
+        private byte[] compressed;
+        private ByteArraySource compressedInput;
+        private ByteArraySink restored;
+
+        @Setup
+        public void setup(Document document) throws IOException {
+            final Codec codec = codec(columnCodec);
+            columnar = new ColumnarJson(codec, Codecs.level(codec, level(columnCodec)));
+            sink = new ByteArraySink(ByteArraySink.capacityFor(document.document.length));
+            restored = new ByteArraySink(document.document.length);
+
+            columnar.compress(document.document, document.document.length, sink);
+            compressed = sink.toByteArray();
+            compressedInput = new ByteArraySource(compressed);
+            columnar.decompress(compressedInput, restored);
+            document.verify("Field-wise " + columnCodec, restored);
+        }
+
+        @TearDown
+        public void tearDown() {
+            columnar.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Whole {
+        @Param({"zstd:default", "zstd:19", "xz:default", "xz:9"})
+        public String documentCodec;
+
+        private CodecContexts contexts;
+        private ByteArraySink sink;
+        private byte[] compressed;
+        private ByteArraySource compressedInput;
+        private ByteArraySink restored;
+        private final byte[] copyBuffer = new byte[8192];
+
+        @Setup
+        public void setup(Document document) throws IOException {
+            final Codec codec = codec(documentCodec);
+            contexts = PooledCodecs.contexts(codec, Codecs.level(codec, level(documentCodec)));
+            sink = new ByteArraySink(ByteArraySink.capacityFor(document.document.length));
+            restored = new ByteArraySink(document.document.length);
+
+            try (final OutputStream outputStream = contexts.compress(sink)) {
+                outputStream.write(document.document);
+            }
+            compressed = sink.toByteArray();
+            compressedInput = new ByteArraySource(compressed);
+            try (final InputStream inputStream = contexts.decompress(compressedInput)) {
+                Streams.copy(inputStream, restored, copyBuffer);
+            }
+            document.verify("Whole " + documentCodec, restored);
+        }
+
+        @TearDown
+        public void tearDown() {
+            contexts.close();
+        }
+    }
+
+    private static Codec codec(String configuration) {
+        return Codecs.get(split(configuration)[0]);
+    }
+
+    private static String level(String configuration) {
+        return split(configuration)[1];
+    }
+
+    private static String[] split(String configuration) {
+        final String[] parts = configuration.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Configuration must be <codec>:<level>, got " + configuration);
+        }
+        return parts;
+    }
+
+    @Benchmark
+    public void splitFieldWise(Document document, CodecCounters counters) {
+        final long splitBytes = ColumnarJson.split(document.document, document.document.length);
+
+        counters.compressed(document.document.length, splitBytes);
+    }
+
+    @Benchmark
+    public void compressFieldWise(Document document, FieldWise fieldWise, CodecCounters counters) throws IOException {
+        fieldWise.sink.reset();
+        fieldWise.columnar.compress(document.document, document.document.length, fieldWise.sink);
+
+        counters.compressed(document.document.length, fieldWise.sink.size());
+    }
+
+    @Benchmark
+    public void decompressFieldWise(FieldWise fieldWise, CodecCounters counters, Blackhole bh) throws IOException {
+        fieldWise.compressedInput.rewind();
+        fieldWise.restored.reset();
+        fieldWise.columnar.decompress(fieldWise.compressedInput, fieldWise.restored);
+
+        counters.decompressed(fieldWise.compressed.length, fieldWise.restored.size());
+        bh.consume(fieldWise.restored);
+    }
+
+    @Benchmark
+    public void compressWhole(Document document, Whole whole, CodecCounters counters) throws IOException {
+        whole.sink.reset();
+        try (final OutputStream outputStream = whole.contexts.compress(whole.sink)) {
+            outputStream.write(document.document);
+        }
+
+        counters.compressed(document.document.length, whole.sink.size());
+    }
+
+    @Benchmark
+    public void decompressWhole(Whole whole, CodecCounters counters, Blackhole bh) throws IOException {
+        whole.compressedInput.rewind();
+        whole.restored.reset();
+        try (final InputStream inputStream = whole.contexts.decompress(whole.compressedInput)) {
+            Streams.copy(inputStream, whole.restored, whole.copyBuffer);
+        }
+
+        counters.decompressed(whole.compressed.length, whole.restored.size());
+        bh.consume(whole.restored);
+    }
+}
@@ -1,350 +1,119 @@
 package benchmark;
 
-import com.github.luben.zstd.ZstdOutputStream;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Resources;
-import com.ning.compress.gzip.OptimizedGZIPOutputStream;
-import com.ning.compress.lzf.LZFOutputStream;
-import com.ning.compress.lzf.parallel.PLZFOutputStream;
-import net.jpountz.lz4.LZ4BlockOutputStream;
-import net.jpountz.lz4.LZ4Factory;
-import org.anarres.parallelgzip.ParallelGZIPOutputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
-import org.apache.commons.compress.compressors.gzip.GzipParameters;
-import org.apache.commons.compress.compressors.lzma.LZMACompressorOutputStream;
-import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorOutputStream;
-import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
-import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
-import org.tukaani.xz.LZMA2Options;
 
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
-import java.util.zip.Deflater;
-import java.util.zip.GZIPOutputStream;
+import java.util.Arrays;
 
 @State(Scope.Benchmark)
 public class CompressionBenchmark {
-    private final URL resource = Resources.getResource("large2.json");
+    /**
+     * The buffer size of {@link ByteStreams#copy(InputStream, OutputStream)}, which {@code compress} writes with.
+     */
+    private static final int WRITE_SIZE = 8192;
+    /**
+     * Size of the single write every codec has to read back in setup, well above the 64KB chunks some formats use.
+     */
+    private static final int LARGE_WRITE_SIZE = 1 << 20;
 
-    @State(Scope.Thread)
-    @AuxCounters(AuxCounters.Type.EVENTS)
-    public static class CompressedSize {
-        public long compressedBytes;
-    }
-
-    @Benchmark
-    public void gzip_GZIPOutputStream_DefaultBufferSize(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final GZIPOutputStream outputStream = new GZIPOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_GZIPOutputStream_BufferSize8192(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final GZIPOutputStream outputStream = new GZIPOutputStream(byteArrayOutputStream, 8192)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_GZIPOutputStream_BufferedOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final GZIPOutputStream outputStream = new GZIPOutputStream(byteArrayOutputStream);
-             final BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream)) {
-            ByteStreams.copy(inputStream, bufferedOutputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_ParallelGZIPOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final ParallelGZIPOutputStream outputStream = new ParallelGZIPOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_OptimizedGZIPOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final OptimizedGZIPOutputStream outputStream = new OptimizedGZIPOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lzf_LZFOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZFOutputStream outputStream = new LZFOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
 
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
+    @Param({"json", "syslog", "gelf", "protobuf", "random", "mixed"})
+    public String corpus;
 
-    @Benchmark
-    public void lzf_PLZFOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+            "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+    public String codec;
 
-        try (final InputStream inputStream = resource.openStream();
-             final PLZFOutputStream outputStream = new PLZFOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
+    @Param({"default"})
+    public String level;
 
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
+    @Param({"default"})
+    public String blockSize;
 
-    @Benchmark
-    public void gzip_GzipCompressorOutputStream_DefaultCompressionLevel(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private URL resource;
+    private Codec compressor;
+    private int compressionLevel;
+    private int compressionBlockSize;
 
-        try (final InputStream inputStream = resource.openStream();
-             final GzipCompressorOutputStream outputStream = new GzipCompressorOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_GzipCompressorOutputStream_NoCompression(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private byte[] plaintext;
+    private ByteArraySink sink;
 
-        final GzipParameters gzipParameters = new GzipParameters();
-        gzipParameters.setCompressionLevel(Deflater.NO_COMPRESSION);
+    @Setup
+    public void setup() throws IOException {
+        resource = Corpus.plaintext(corpus, corpusSize);
+        compressor = Codecs.get(codec);
+        compressionLevel = Codecs.level(compressor, level);
+        compressionBlockSize = Codecs.blockSize(compressor, blockSize);
 
-        try (final InputStream inputStream = resource.openStream();
-             final GzipCompressorOutputStream outputStream = new GzipCompressorOutputStream(byteArrayOutputStream, gzipParameters)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
+        plaintext = Resources.toByteArray(resource);
+        sink = new ByteArraySink(ByteArraySink.capacityFor(plaintext.length));
+        verifyLargeWrite();
     }
 
-    @Benchmark
-    public void gzip_GzipCompressorOutputStream_FastestCompression(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        final GzipParameters gzipParameters = new GzipParameters();
-        gzipParameters.setCompressionLevel(Deflater.BEST_SPEED);
-
-        try (final InputStream inputStream = resource.openStream();
-             final GzipCompressorOutputStream outputStream = new GzipCompressorOutputStream(byteArrayOutputStream, gzipParameters)) {
-            ByteStreams.copy(inputStream, outputStream);
+    /**
+     * Checks that the codec reads back the corpus, repeated to at least {@link #LARGE_WRITE_SIZE}, written in one
+     * call, which the benchmarks here split into 8KB writes.
+     */
+    private void verifyLargeWrite() throws IOException {
+        final byte[] large = new byte[Math.max(LARGE_WRITE_SIZE, plaintext.length)];
+        for (int offset = 0; offset < large.length; offset += plaintext.length) {
+            System.arraycopy(plaintext, 0, large, offset, Math.min(plaintext.length, large.length - offset));
         }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void gzip_GzipCompressorOutputStream_BestCompression(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        final GzipParameters gzipParameters = new GzipParameters();
-        gzipParameters.setCompressionLevel(Deflater.BEST_COMPRESSION);
-
-        try (final InputStream inputStream = resource.openStream();
-             final GzipCompressorOutputStream outputStream = new GzipCompressorOutputStream(byteArrayOutputStream, gzipParameters)) {
-            ByteStreams.copy(inputStream, outputStream);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final OutputStream outputStream = compressor.compress(compressed, compressionLevel, compressionBlockSize)) {
+            outputStream.write(large);
         }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lzma_LZMACompressorOutputStream(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZMACompressorOutputStream outputStream = new LZMACompressorOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
+        try (final InputStream inputStream = compressor.decompress(new ByteArrayInputStream(compressed.toByteArray()), compressionBlockSize)) {
+            if (!Arrays.equals(large, ByteStreams.toByteArray(inputStream))) {
+                throw new IllegalStateException(codec + " does not round-trip a single write of " + large.length + " bytes");
+            }
         }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
     }
 
     @Benchmark
-    public void snappy_FramedSnappyCompressorOutputStream(CompressedSize compressedSize) throws IOException {
+    public void compress(CodecCounters counters) throws IOException {
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
         try (final InputStream inputStream = resource.openStream();
-             final FramedSnappyCompressorOutputStream outputStream = new FramedSnappyCompressorOutputStream(byteArrayOutputStream)) {
+             final OutputStream outputStream = compressor.compress(byteArrayOutputStream, compressionLevel, compressionBlockSize)) {
             ByteStreams.copy(inputStream, outputStream);
         }
 
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
+        counters.compressed(plaintext.length, byteArrayOutputStream.size());
     }
 
+    /**
+     * Compresses the corpus from memory into a reused, pre-sized buffer, excluding resource loading and output
+     * buffer growth from the measurement. The corpus is written in the same 8KB chunks as {@code compress} copies it,
+     * so both call the codec the same way.
+     */
     @Benchmark
-    public void xz_XZCompressorOutputStream_PresetDefault(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    public void compressInMemory(CodecCounters counters) throws IOException {
+        sink.reset();
 
-        try (final InputStream inputStream = resource.openStream();
-             final XZCompressorOutputStream outputStream = new XZCompressorOutputStream(byteArrayOutputStream, LZMA2Options.PRESET_DEFAULT)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void xz_XZCompressorOutputStream_PresetMin(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final XZCompressorOutputStream outputStream = new XZCompressorOutputStream(byteArrayOutputStream, LZMA2Options.PRESET_MIN)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void xz_XZCompressorOutputStream_PresetMax(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final XZCompressorOutputStream outputStream = new XZCompressorOutputStream(byteArrayOutputStream, LZMA2Options.PRESET_MAX)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_JavaSafe_Fast(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.safeInstance().fastCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_JavaSafe_High(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.safeInstance().highCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_JavaUnsafe_Fast(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.unsafeInstance().fastCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_JavaUnsafe_High(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.unsafeInstance().highCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_Native_Fast(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.nativeInstance().fastCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockOutputStream_Native_High(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockOutputStream outputStream = new LZ4BlockOutputStream(byteArrayOutputStream, 1 << 16, LZ4Factory.nativeInstance().highCompressor())) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void zstd_ZstdOutputStream_Level3(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final ZstdOutputStream outputStream = new ZstdOutputStream(byteArrayOutputStream)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void zstd_ZstdOutputStream_Level1(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final ZstdOutputStream outputStream = new ZstdOutputStream(byteArrayOutputStream, 1)) {
-            ByteStreams.copy(inputStream, outputStream);
-        }
-
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
-    }
-
-    @Benchmark
-    public void zstd_ZstdOutputStream_Level19(CompressedSize compressedSize) throws IOException {
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final ZstdOutputStream outputStream = new ZstdOutputStream(byteArrayOutputStream, 19)) {
-            ByteStreams.copy(inputStream, outputStream);
+        try (final OutputStream outputStream = compressor.compress(sink, compressionLevel, compressionBlockSize)) {
+            for (int offset = 0; offset < plaintext.length; offset += WRITE_SIZE) {
+                outputStream.write(plaintext, offset, Math.min(WRITE_SIZE, plaintext.length - offset));
+            }
         }
 
-        compressedSize.compressedBytes = byteArrayOutputStream.size();
+        counters.compressed(plaintext.length, sink.size());
     }
 }
@@ -0,0 +1,214 @@
+package benchmark;
+
+import benchmark.block.BlockCodec;
+import benchmark.block.BlockCodecs;
+import benchmark.block.BlockCompressor;
+import benchmark.corpus.Corpus;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Compresses blocks of the corpus from many threads at once to separate codec cost from lock contention and
+ * allocation. The {@code strategy} parameter selects how threads obtain a compressor:
+ * <ul>
+ * <li>{@code per-call}: a new compressor for every block, like the stream benchmarks do</li>
+ * <li>{@code shared}: one compressor for all threads, guarded by a lock unless the codec is thread-safe</li>
+ * <li>{@code thread-local}: one compressor per thread, looked up through a {@link ThreadLocal}</li>
+ * <li>{@code pool}: a bounded pool of {@code poolSize} compressors</li>
+ * </ul>
+ * Runs with all available cores by default, {@link ContentionScaling} repeats it from one thread up to all cores.
+ */
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+public class ContentionBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"65536"})
+    public int blockSize;
+
+    @Param({"deflate", "lz4-native", "lz4-unsafe", "zstd"})
+    public String codec;
+
+    @Param({"per-call", "shared", "thread-local", "pool"})
+    public String strategy;
+
+    @Param({"4"})
+    public int poolSize;
+
+    private byte[][] blocks;
+    private int maxCompressedLength;
+    private CompressorAccess access;
+
+    @Setup
+    public void setup() throws IOException {
+        blocks = BlockCodecs.split(Resources.toByteArray(Corpus.plaintext(corpusSize)), blockSize);
+
+        final BlockCodec blockCodec = BlockCodecs.get(codec);
+        try (final BlockCompressor compressor = blockCodec.create(BlockCodec.DEFAULT_LEVEL)) {
+            maxCompressedLength = compressor.maxCompressedLength(blockSize);
+        }
+
+        switch (strategy) {
+            case "per-call":
+                access = new PerCallAccess(blockCodec);
+                break;
+            case "shared":
+                access = new SharedAccess(blockCodec);
+                break;
+            case "thread-local":
+                access = new ThreadLocalAccess(blockCodec);
+                break;
+            case "pool":
+                access = new PooledAccess(blockCodec, poolSize);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + strategy);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        access.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private byte[] destination;
+        private int next;
+
+        @Setup
+        public void setup(ContentionBenchmark benchmark) {
+            destination = new byte[benchmark.maxCompressedLength];
+        }
+    }
+
+    @Benchmark
+    public int compress(ThreadState thread, CodecCounters counters) throws InterruptedException {
+        final byte[] block = blocks[thread.next];
+        thread.next = (thread.next + 1) % blocks.length;
+
+        final int compressedLength = access.compress(block, thread.destination);
+        counters.compressed(block.length, compressedLength);
+
+        return compressedLength;
+    }
+
+    private interface CompressorAccess extends AutoCloseable {
+        int compress(byte[] source, byte[] destination) throws InterruptedException;
+
+        @Override
+        void close();
+    }
+
+    private static class PerCallAccess implements CompressorAccess {
+        private final BlockCodec codec;
+
+        PerCallAccess(BlockCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public int compress(byte[] source, byte[] destination) {
+            try (final BlockCompressor compressor = codec.create(BlockCodec.DEFAULT_LEVEL)) {
+                return compressor.compress(source, destination);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class SharedAccess implements CompressorAccess {
+        private final BlockCompressor compressor;
+        private final boolean threadSafe;
+
+        SharedAccess(BlockCodec codec) {
+            this.compressor = codec.create(BlockCodec.DEFAULT_LEVEL);
+            this.threadSafe = codec.isThreadSafe();
+        }
+
+        @Override
+        public int compress(byte[] source, byte[] destination) {
+            if (threadSafe) {
+                return compressor.compress(source, destination);
+            }
+            synchronized (compressor) {
+                return compressor.compress(source, destination);
+            }
+        }
+
+        @Override
+        public void close() {
+            compressor.close();
+        }
+    }
+
+    private static class ThreadLocalAccess implements CompressorAccess {
+        private final Queue<BlockCompressor> created = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<BlockCompressor> compressors;
+
+        ThreadLocalAccess(BlockCodec codec) {
+            compressors = ThreadLocal.withInitial(() -> {
+                final BlockCompressor compressor = codec.create(BlockCodec.DEFAULT_LEVEL);
+                created.add(compressor);
+                return compressor;
+            });
+        }
+
+        @Override
+        public int compress(byte[] source, byte[] destination) {
+            return compressors.get().compress(source, destination);
+        }
+
+        @Override
+        public void close() {
+            BlockCompressor compressor;
+            while ((compressor = created.poll()) != null) {
+                compressor.close();
+            }
+        }
+    }
+
+    private static class PooledAccess implements CompressorAccess {
+        private final BlockingQueue<BlockCompressor> pool;
+
+        PooledAccess(BlockCodec codec, int size) {
+            pool = new ArrayBlockingQueue<>(size);
+            for (int i = 0; i < size; i++) {
+                pool.add(codec.create(BlockCodec.DEFAULT_LEVEL));
+            }
+        }
+
+        @Override
+        public int compress(byte[] source, byte[] destination) throws InterruptedException {
+            final BlockCompressor compressor = pool.take();
+            try {
+                return compressor.compress(source, destination);
+            } finally {
+                pool.add(compressor);
+            }
+        }
+
+        @Override
+        public void close() {
+            BlockCompressor compressor;
+            while ((compressor = pool.poll()) != null) {
+                compressor.close();
+            }
+        }
+    }
+}
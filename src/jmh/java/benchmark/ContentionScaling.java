@@ -0,0 +1,59 @@
+package benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Runs {@link ContentionBenchmark} with 1, 2, 4, ... threads up to the number of available cores (or the counts
+ * given in the {@code threads} system property) and writes all results into a single file, so throughput can be
+ * plotted against the thread count.
+ * <p>
+ * Arguments are regular JMH command line options.
+ */
+public class ContentionScaling {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final CommandLineOptions runOptions = Sweeps.withoutResultOptions(args);
+
+        final List<RunResult> results = new ArrayList<>();
+        for (int threads : threadCounts()) {
+            final Options options = new OptionsBuilder()
+                    .parent(runOptions)
+                    .include(ContentionBenchmark.class.getName())
+                    .threads(threads)
+                    .build();
+
+            results.addAll(new Runner(options).run());
+        }
+
+        Sweeps.writeResults(commandLineOptions, "contention-scaling", results);
+    }
+
+    private static SortedSet<Integer> threadCounts() {
+        final SortedSet<Integer> threadCounts = new TreeSet<>();
+        final String property = System.getProperty("threads", "");
+        if (!property.isEmpty()) {
+            for (String threads : property.split(",")) {
+                threadCounts.add(Integer.parseInt(threads.trim()));
+            }
+            return threadCounts;
+        }
+
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads < cores; threads <<= 1) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+        return threadCounts;
+    }
+}
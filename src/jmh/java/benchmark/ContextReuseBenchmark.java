@@ -0,0 +1,165 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.io.Streams;
+import benchmark.pool.CodecContexts;
+import benchmark.pool.PooledCodecs;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compares streams that create and free their compression context per use, as every other benchmark does, with
+ * streams on pooled contexts from {@link benchmark.pool}:
+ * <ul>
+ * <li>{@code compressNew}, {@code compressPooled}: compress the corpus from memory into a reused buffer</li>
+ * <li>{@code decompressNew}, {@code decompressPooled}: decompress it from memory into a reused buffer</li>
+ * <li>{@code openCloseNew}, {@code openClosePooled}: open and close a compressing stream without writing to it, the
+ * setup and teardown cost alone, xz only allocates its encoder on the first write</li>
+ * </ul>
+ * {@code configuration} is a codec name and one of its levels, separated by a colon, so each codec runs at the levels
+ * that matter for it: the context of zstd grows with its level and xz's encoder from a few to about 700MB at level 9,
+ * which is what reuse saves. Pooled streams are verified to read the codec's own output and vice versa.
+ */
+@State(Scope.Benchmark)
+public class ContextReuseBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"gzip:default", "gzip:9", "zstd:1", "zstd:3", "zstd:19", "xz:0", "xz:6", "xz:9", "lzma:default"})
+    public String configuration;
+
+    private String codec;
+    private Codec compressor;
+    private int compressionLevel;
+    private CodecContexts contexts;
+
+    private byte[] corpus;
+    private byte[] compressed;
+    private ByteArraySource compressedInput;
+    private ByteArraySink sink;
+    private final byte[] copyBuffer = new byte[8192];
+
+    @Setup
+    public void setup() throws IOException {
+        final int separator = configuration.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Configuration must be <codec>:<level>, got " + configuration);
+        }
+        codec = configuration.substring(0, separator);
+        compressor = Codecs.get(codec);
+        compressionLevel = Codecs.level(compressor, configuration.substring(separator + 1));
+        contexts = PooledCodecs.get(codec).create(compressionLevel);
+
+        corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+        sink = new ByteArraySink(ByteArraySink.capacityFor(corpus.length));
+        compressNew();
+        compressed = sink.toByteArray();
+        compressedInput = new ByteArraySource(compressed);
+
+        // twice, so that the second round runs on reused contexts
+        for (int i = 0; i < 2; i++) {
+            decompressPooled();
+            if (!Arrays.equals(corpus, sink.toByteArray())) {
+                throw new IllegalStateException("Pooled " + configuration + " stream does not read the codec's own output");
+            }
+            compressPooled();
+            try (final InputStream inputStream = compressor.decompress(new ByteArrayInputStream(sink.toByteArray()), Codec.DEFAULT)) {
+                if (!Arrays.equals(corpus, ByteStreams.toByteArray(inputStream))) {
+                    throw new IllegalStateException("Pooled " + configuration + " output is not readable by the codec's own stream");
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexts.close();
+    }
+
+    private void compressNew() throws IOException {
+        sink.reset();
+        try (final OutputStream outputStream = compressor.compress(sink, compressionLevel, Codec.DEFAULT)) {
+            outputStream.write(corpus);
+        }
+    }
+
+    private void compressPooled() throws IOException {
+        sink.reset();
+        try (final OutputStream outputStream = contexts.compress(sink)) {
+            outputStream.write(corpus);
+        }
+    }
+
+    private void decompressNew() throws IOException {
+        compressedInput.rewind();
+        sink.reset();
+        try (final InputStream inputStream = compressor.decompress(compressedInput, Codec.DEFAULT)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+        }
+    }
+
+    private void decompressPooled() throws IOException {
+        compressedInput.rewind();
+        sink.reset();
+        try (final InputStream inputStream = contexts.decompress(compressedInput)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+        }
+    }
+
+    @Benchmark
+    public void compressNew(CodecCounters counters) throws IOException {
+        compressNew();
+
+        counters.compressed(corpus.length, sink.size());
+    }
+
+    @Benchmark
+    public void compressPooled(CodecCounters counters) throws IOException {
+        compressPooled();
+
+        counters.compressed(corpus.length, sink.size());
+    }
+
+    @Benchmark
+    public void decompressNew(CodecCounters counters, Blackhole bh) throws IOException {
+        decompressNew();
+
+        counters.decompressed(compressed.length, sink.size());
+        bh.consume(sink);
+    }
+
+    @Benchmark
+    public void decompressPooled(CodecCounters counters, Blackhole bh) throws IOException {
+        decompressPooled();
+
+        counters.decompressed(compressed.length, sink.size());
+        bh.consume(sink);
+    }
+
+    @Benchmark
+    public void openCloseNew() throws IOException {
+        compressor.compress(ByteStreams.nullOutputStream(), compressionLevel, Codec.DEFAULT).close();
+    }
+
+    @Benchmark
+    public void openClosePooled() throws IOException {
+        contexts.compress(ByteStreams.nullOutputStream()).close();
+    }
+}
@@ -1,185 +1,92 @@
 package benchmark;
 
-import com.github.luben.zstd.ZstdInputStream;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.io.Streams;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Resources;
-import com.ning.compress.gzip.OptimizedGZIPInputStream;
-import com.ning.compress.lzf.LZFInputStream;
-import net.jpountz.lz4.LZ4BlockInputStream;
-import net.jpountz.lz4.LZ4Factory;
-import org.anarres.parallelgzip.ParallelGZIPInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.compress.compressors.lzma.LZMACompressorInputStream;
-import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorInputStream;
-import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.zip.GZIPInputStream;
 
 @State(Scope.Benchmark)
 public class DecompressionBenchmark {
-    @Benchmark
-    public void gzip_GZIPInputStream_DefaultBufferSize(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
 
-        try (final InputStream inputStream = resource.openStream();
-             final GZIPInputStream gzipInputStream = new GZIPInputStream(inputStream)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
-        }
+    @Param({"json", "syslog", "gelf", "protobuf", "random", "mixed"})
+    public String corpus;
 
-        bh.consume(byteArrayOutputStream);
-    }
+    @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+            "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+    public String codec;
 
-    @Benchmark
-    public void gzip_GZIPInputStream_BufferSize8192(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    @Param({"default"})
+    public String level;
 
-        try (final InputStream inputStream = resource.openStream();
-             final GZIPInputStream gzipInputStream = new GZIPInputStream(inputStream, 8192)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
-        }
+    @Param({"default"})
+    public String blockSize;
 
-        bh.consume(byteArrayOutputStream);
-    }
+    private URL resource;
+    private Codec decompressor;
+    private int decompressionBlockSize;
 
-    @Benchmark
-    public void gzip_GZIPInputStream_BufferedInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    private byte[] compressed;
+    private ByteArraySource compressedInput;
+    private ByteArraySink sink;
+    private final byte[] copyBuffer = new byte[8192];
 
-        try (final InputStream inputStream = resource.openStream();
-             final BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
-             final GZIPInputStream gzipInputStream = new GZIPInputStream(bufferedInputStream)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
-        }
+    @Setup
+    public void setup() throws IOException {
+        decompressor = Codecs.get(codec);
+        decompressionBlockSize = Codecs.blockSize(decompressor, blockSize);
+        resource = Corpus.fixture(corpus, corpusSize, decompressor, Codecs.level(decompressor, level), decompressionBlockSize);
 
-        bh.consume(byteArrayOutputStream);
+        compressed = Resources.toByteArray(resource);
+        compressedInput = new ByteArraySource(compressed);
+        sink = new ByteArraySink((int) Corpus.parseSize(corpusSize));
     }
 
     @Benchmark
-    public void gzip_ParallelGZIPInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
+    public void decompress(CodecCounters counters, Blackhole bh) throws IOException {
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
         try (final InputStream inputStream = resource.openStream();
-             final ParallelGZIPInputStream gzipInputStream = new ParallelGZIPInputStream(inputStream)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
+             final InputStream decompressingInputStream = decompressor.decompress(inputStream, decompressionBlockSize)) {
+            ByteStreams.copy(decompressingInputStream, byteArrayOutputStream);
         }
 
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void gzip_OptimizedGZIPInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final OptimizedGZIPInputStream gzipInputStream = new OptimizedGZIPInputStream(inputStream)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void lzf_LZFInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.lzf");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZFInputStream lzfInputStream = new LZFInputStream(inputStream)) {
-            ByteStreams.copy(lzfInputStream, byteArrayOutputStream);
-        }
+        counters.decompressed(compressed.length, byteArrayOutputStream.size());
 
         bh.consume(byteArrayOutputStream);
     }
 
+    /**
+     * Decompresses a fixture held in memory into a reused, pre-sized buffer, excluding resource loading and output
+     * buffer growth from the measurement.
+     */
     @Benchmark
-    public void gzip_GzipCompressorInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.gz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    public void decompressInMemory(CodecCounters counters, Blackhole bh) throws IOException {
+        compressedInput.rewind();
+        sink.reset();
 
-        try (final InputStream inputStream = resource.openStream();
-             final GzipCompressorInputStream gzipInputStream = new GzipCompressorInputStream(inputStream)) {
-            ByteStreams.copy(gzipInputStream, byteArrayOutputStream);
+        try (final InputStream decompressingInputStream = decompressor.decompress(compressedInput, decompressionBlockSize)) {
+            Streams.copy(decompressingInputStream, sink, copyBuffer);
         }
 
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void lzma_LZMACompressorInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.lzma");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        counters.decompressed(compressed.length, sink.size());
 
-        try (final InputStream inputStream = resource.openStream();
-             final LZMACompressorInputStream lzmaInputStream = new LZMACompressorInputStream(inputStream)) {
-            ByteStreams.copy(lzmaInputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void snappy_SnappyCompressorInputStream(Blackhole bh) throws Exception {
-        final URL resource = Resources.getResource("large2.json.snappy");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final FramedSnappyCompressorInputStream snappyInputStream = new FramedSnappyCompressorInputStream(inputStream)) {
-            ByteStreams.copy(snappyInputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void xz_XZCompressorInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.xz");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final XZCompressorInputStream xzInputStream = new XZCompressorInputStream(inputStream)) {
-            ByteStreams.copy(xzInputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void lz4_LZ4BlockInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.lz4");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final LZ4BlockInputStream lz4InputStream = new LZ4BlockInputStream(inputStream)) {
-            ByteStreams.copy(lz4InputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
-    }
-
-    @Benchmark
-    public void zstd_ZstdInputStream(Blackhole bh) throws IOException {
-        final URL resource = Resources.getResource("large2.json.zst");
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-        try (final InputStream inputStream = resource.openStream();
-             final ZstdInputStream zstdInputStream = new ZstdInputStream(inputStream)) {
-            ByteStreams.copy(zstdInputStream, byteArrayOutputStream);
-        }
-
-        bh.consume(byteArrayOutputStream);
+        bh.consume(sink);
     }
 }
@@ -0,0 +1,231 @@
+package benchmark;
+
+import benchmark.block.ZstdBlockCodec;
+import benchmark.block.ZstdDictionaries;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.corpus.CorpusGenerator;
+import benchmark.io.ByteArraySink;
+import benchmark.io.Streams;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compresses every record of the corpus as a message of its own, the way log messages are stored one by one, with
+ * zstd dictionaries of {@code dictionarySize} bytes ({@code 0} compresses without a dictionary). Dictionaries are
+ * trained on a separately seeded corpus of {@code trainingSize} so the measured messages are not part of the
+ * training set.
+ * <ul>
+ * <li>{@code compress}, {@code decompress}: reuse one digested {@link ZstdDictCompress} and {@link ZstdDictDecompress}</li>
+ * <li>{@code compressReloadingDictionary}, {@code decompressReloadingDictionary}: pass the raw dictionary, which
+ * zstd digests again for every message</li>
+ * <li>{@code streamCompress}, {@code streamDecompress}: one zstd stream per message without a dictionary, the
+ * baseline the stream benchmarks use (independent of {@code dictionarySize})</li>
+ * </ul>
+ * {@link DictionaryLoadBenchmark} measures the cost of digesting the dictionary once.
+ */
+@State(Scope.Benchmark)
+public class DictionaryBenchmark {
+    private static final long TRAINING_SEED = 0x7472_6169_6e69_6e67L;
+
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"0", "4096", "16384", "65536", "112640"})
+    public int dictionarySize;
+
+    @Param({"4MB"})
+    public String trainingSize;
+
+    @Param({"3"})
+    public int level;
+
+    private byte[][] messages;
+    private byte[][] compressedMessages;
+    private byte[][] streamCompressedMessages;
+    private byte[][] restoredMessages;
+    private long totalBytes;
+    private long totalCompressedBytes;
+    private long totalStreamCompressedBytes;
+
+    private byte[] dictionary;
+    private ZstdDictCompress compressDictionary;
+    private ZstdDictDecompress decompressDictionary;
+
+    private byte[] destination;
+    private Codec streamCodec;
+    private ByteArraySink sink;
+    private final byte[] copyBuffer = new byte[8192];
+
+    @Setup
+    public void setup() throws IOException {
+        messages = Corpus.records(Resources.toByteArray(Corpus.plaintext(corpusSize)));
+        if (dictionarySize > 0) {
+            dictionary = train(trainingSize, dictionarySize);
+            compressDictionary = new ZstdDictCompress(dictionary, level);
+            decompressDictionary = new ZstdDictDecompress(dictionary);
+        }
+
+        final int maxLength = Arrays.stream(messages).mapToInt(message -> message.length).max().orElse(0);
+        destination = new byte[(int) Zstd.compressBound(maxLength)];
+        streamCodec = Codecs.get("zstd");
+        sink = new ByteArraySink(ByteArraySink.capacityFor(maxLength));
+
+        compressedMessages = new byte[messages.length][];
+        streamCompressedMessages = new byte[messages.length][];
+        restoredMessages = new byte[messages.length][];
+        for (int i = 0; i < messages.length; i++) {
+            final int compressedLength = compress(messages[i]);
+            compressedMessages[i] = Arrays.copyOf(destination, compressedLength);
+            restoredMessages[i] = new byte[messages[i].length];
+            totalBytes += messages[i].length;
+            totalCompressedBytes += compressedLength;
+
+            streamCompress(messages[i]);
+            streamCompressedMessages[i] = sink.toByteArray();
+            totalStreamCompressedBytes += sink.size();
+
+            if (decompress(i) != messages[i].length || !Arrays.equals(messages[i], restoredMessages[i])) {
+                throw new IllegalStateException("Message " + i + " does not round-trip with a " + dictionarySize + " byte dictionary");
+            }
+            final byte[] reloadedMessage = Arrays.copyOf(destination, compressReloadingDictionary(messages[i]));
+            Arrays.fill(restoredMessages[i], (byte) 0);
+            if (decompressReloadingDictionary(reloadedMessage, restoredMessages[i]) != messages[i].length
+                    || !Arrays.equals(messages[i], restoredMessages[i])) {
+                throw new IllegalStateException("Message " + i + " does not round-trip with the raw dictionary");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (compressDictionary != null) {
+            compressDictionary.close();
+            decompressDictionary.close();
+        }
+    }
+
+    /**
+     * Trains a dictionary of {@code dictionarySize} bytes on the records of a separately seeded corpus.
+     */
+    static byte[] train(String trainingSize, int dictionarySize) throws IOException {
+        final ByteArrayOutputStream training = new ByteArrayOutputStream();
+        CorpusGenerator.generate(training, Corpus.parseSize(trainingSize), TRAINING_SEED);
+        return ZstdDictionaries.train(Corpus.records(training.toByteArray()), dictionarySize);
+    }
+
+    private int compress(byte[] message) {
+        if (compressDictionary == null) {
+            return ZstdBlockCodec.checked(Zstd.compress(destination, message, level));
+        }
+        return ZstdBlockCodec.checked(Zstd.compressFastDict(destination, 0, message, 0, message.length, compressDictionary));
+    }
+
+    private int decompress(int message) {
+        if (decompressDictionary == null) {
+            return ZstdBlockCodec.checked(Zstd.decompress(restoredMessages[message], compressedMessages[message]));
+        }
+        return ZstdBlockCodec.checked(Zstd.decompressFastDict(restoredMessages[message], 0, compressedMessages[message], 0,
+                compressedMessages[message].length, decompressDictionary));
+    }
+
+    private int compressReloadingDictionary(byte[] message) {
+        if (dictionary == null) {
+            return ZstdBlockCodec.checked(Zstd.compress(destination, message, level));
+        }
+        return ZstdBlockCodec.checked(Zstd.compressUsingDict(destination, 0, message, 0, message.length, dictionary, level));
+    }
+
+    private int decompressReloadingDictionary(byte[] compressedMessage, byte[] restored) {
+        if (dictionary == null) {
+            return ZstdBlockCodec.checked(Zstd.decompress(restored, compressedMessage));
+        }
+        return ZstdBlockCodec.checked(Zstd.decompressUsingDict(restored, 0, compressedMessage, 0, compressedMessage.length,
+                dictionary));
+    }
+
+    private void streamCompress(byte[] message) throws IOException {
+        sink.reset();
+        try (final OutputStream outputStream = streamCodec.compress(sink, level, Codec.DEFAULT)) {
+            outputStream.write(message);
+        }
+    }
+
+    private void streamDecompress(byte[] compressedMessage) throws IOException {
+        sink.reset();
+        try (final InputStream inputStream = streamCodec.decompress(new ByteArrayInputStream(compressedMessage), Codec.DEFAULT)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+        }
+    }
+
+    @Benchmark
+    public void compress(CodecCounters counters, Blackhole bh) {
+        for (byte[] message : messages) {
+            bh.consume(compress(message));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void decompress(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < messages.length; i++) {
+            bh.consume(decompress(i));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+
+    @Benchmark
+    public void compressReloadingDictionary(CodecCounters counters, Blackhole bh) {
+        for (byte[] message : messages) {
+            bh.consume(compressReloadingDictionary(message));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void decompressReloadingDictionary(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < messages.length; i++) {
+            bh.consume(decompressReloadingDictionary(compressedMessages[i], restoredMessages[i]));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+
+    @Benchmark
+    public void streamCompress(CodecCounters counters) throws IOException {
+        for (byte[] message : messages) {
+            streamCompress(message);
+        }
+
+        counters.compressed(totalBytes, totalStreamCompressedBytes);
+    }
+
+    @Benchmark
+    public void streamDecompress(CodecCounters counters) throws IOException {
+        for (byte[] compressedMessage : streamCompressedMessages) {
+            streamDecompress(compressedMessage);
+        }
+
+        counters.decompressed(totalStreamCompressedBytes, totalBytes);
+    }
+}
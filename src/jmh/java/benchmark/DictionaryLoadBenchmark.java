@@ -0,0 +1,50 @@
+package benchmark;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+
+/**
+ * The cost of digesting a zstd dictionary of {@code dictionarySize} bytes once, which {@link DictionaryBenchmark}'s
+ * {@code compress} and {@code decompress} save on every message. Dictionaries are trained the same way, the sizes
+ * leave out {@code 0}, which has no dictionary to load.
+ */
+@State(Scope.Benchmark)
+public class DictionaryLoadBenchmark {
+    @Param({"4096", "16384", "65536", "112640"})
+    public int dictionarySize;
+
+    @Param({"4MB"})
+    public String trainingSize;
+
+    @Param({"3"})
+    public int level;
+
+    private byte[] dictionary;
+
+    @Setup
+    public void setup() throws IOException {
+        dictionary = DictionaryBenchmark.train(trainingSize, dictionarySize);
+    }
+
+    @Benchmark
+    public void loadCompressDictionary(Blackhole bh) throws IOException {
+        try (final ZstdDictCompress loaded = new ZstdDictCompress(dictionary, level)) {
+            bh.consume(loaded);
+        }
+    }
+
+    @Benchmark
+    public void loadDecompressDictionary(Blackhole bh) throws IOException {
+        try (final ZstdDictDecompress loaded = new ZstdDictDecompress(dictionary)) {
+            bh.consume(loaded);
+        }
+    }
+}
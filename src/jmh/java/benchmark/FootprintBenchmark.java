@@ -0,0 +1,183 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.footprint.Footprint;
+import benchmark.footprint.MemorySample;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the memory each open compressing stream needs, for the high-ratio configurations whose encoders keep large
+ * dictionaries and match finders and for cheap ones to compare with. {@code configuration} is a codec name and one of
+ * its levels, separated by a colon. Setup opens {@code streams} streams in a fresh fork, writes the
+ * {@code payloadSize} corpus to each of them in interleaved 64KB writes, as concurrent archival jobs do, and samples
+ * the memory of the JVM while all of them are still open. {@link Counters} reports the heap, direct and native memory
+ * they add up to, see {@link Footprint}. The forks commit and touch their whole heap up front so that the native
+ * memory is not mixed up with heap growth, which needs the heap to fit the streams: xz at level 9 keeps about 700MB
+ * per stream.
+ * <p>
+ * The score is the time to open, fill and close the streams, the counters are the result. JMH only reports counters
+ * in the throughput and average time modes, so this runs one short iteration of average time rather than single
+ * shots. Totals of runs with different stream counts tell the memory per stream apart from the memory the codec needs
+ * once, such as its native library, {@code jmhFootprintReport} fits both and calculates how many concurrent streams
+ * fit in a memory budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+AlwaysPreTouch"})
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, time = 1)
+@State(Scope.Benchmark)
+public class FootprintBenchmark {
+    private static final int WRITE_SIZE = 64 * 1024;
+
+    @Param({"1MB"})
+    public String payloadSize;
+
+    @Param({"gzip:default", "lz4-native:default", "zstd:3", "zstd:19", "lzma:default", "xz:6", "xz:9"})
+    public String configuration;
+
+    @Param({"1", "4"})
+    public int streams;
+
+    private Codec compressor;
+    private int level;
+    private byte[] payload;
+    private ByteArraySink[] sinks;
+    private Footprint footprint;
+
+    @Setup
+    public void setup() throws IOException {
+        final int separator = configuration.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Configuration must be <codec>:<level>, got " + configuration);
+        }
+        compressor = Codecs.get(configuration.substring(0, separator));
+        level = Codecs.level(compressor, configuration.substring(separator + 1));
+        payload = Resources.toByteArray(Corpus.plaintext(payloadSize));
+        sinks = new ByteArraySink[streams];
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i] = new ByteArraySink(ByteArraySink.capacityFor(payload.length));
+        }
+
+        final MemorySample before = MemorySample.take();
+        final OutputStream[] outputStreams = open();
+        write(outputStreams);
+        footprint = new Footprint(before, MemorySample.take());
+        close(outputStreams);
+
+        for (ByteArraySink sink : sinks) {
+            try (final InputStream inputStream = compressor.decompress(new ByteArraySource(sink.toByteArray()), Codec.DEFAULT)) {
+                if (!Arrays.equals(payload, ByteStreams.toByteArray(inputStream))) {
+                    throw new IllegalStateException(configuration + " does not restore the payload");
+                }
+            }
+        }
+    }
+
+    private OutputStream[] open() throws IOException {
+        final OutputStream[] outputStreams = new OutputStream[sinks.length];
+        for (int i = 0; i < sinks.length; i++) {
+            sinks[i].reset();
+            outputStreams[i] = compressor.compress(sinks[i], level, Codec.DEFAULT);
+        }
+        return outputStreams;
+    }
+
+    private void write(OutputStream[] outputStreams) throws IOException {
+        for (int offset = 0; offset < payload.length; offset += WRITE_SIZE) {
+            for (OutputStream outputStream : outputStreams) {
+                outputStream.write(payload, offset, Math.min(WRITE_SIZE, payload.length - offset));
+            }
+        }
+    }
+
+    private static void close(OutputStream[] outputStreams) throws IOException {
+        for (OutputStream outputStream : outputStreams) {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Memory added by all open streams of the run, in bytes:
+     * <ul>
+     * <li>{@code heapBytes}: heap reachable from the streams</li>
+     * <li>{@code directBytes}: direct buffers</li>
+     * <li>{@code nativeBytes}: other resident memory, the native codecs' own allocations (Linux only)</li>
+     * <li>{@code jvmBytes}: resident memory of the JVM before the streams were opened (Linux only)</li>
+     * <li>{@code forks}: the forks measured</li>
+     * </ul>
+     * The footprint is measured once per fork, so it is published by the first iteration only and the later ones
+     * report 0. JMH still sums the counters over forks, {@code FootprintReport} divides them by {@code forks}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long heapBytes;
+        public long directBytes;
+        public long nativeBytes;
+        public long jvmBytes;
+        public long forks;
+
+        private Footprint footprint;
+        private boolean published;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            heapBytes = 0;
+            directBytes = 0;
+            nativeBytes = 0;
+            jvmBytes = 0;
+            forks = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (footprint != null && !published) {
+                heapBytes = footprint.heapBytes();
+                directBytes = footprint.directBytes();
+                nativeBytes = footprint.nativeBytes();
+                jvmBytes = footprint.jvmBytes();
+                forks = 1;
+                published = true;
+            }
+        }
+
+        void measured(Footprint footprint) {
+            this.footprint = footprint;
+        }
+    }
+
+    @Benchmark
+    public void fill(Counters counters) throws IOException {
+        final OutputStream[] outputStreams = open();
+        write(outputStreams);
+        close(outputStreams);
+
+        counters.measured(footprint);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Reports {@code retainedHeapBytes}, the heap a benchmark's working set keeps reachable, as measured by the benchmark
+ * with {@link #usedHeapAfterGc()} during setup. The value is measured once per trial, so it is published by the first
+ * iteration only, together with {@code forks}, one per fork and thread, and the later iterations report 0. JMH sums
+ * the counters, {@code CodecMetricsReport} divides them by {@code forks}.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class HeapCounters {
+    public long retainedHeapBytes;
+    public long forks;
+
+    private long retained = -1;
+    private boolean published;
+
+    @Setup(Level.Iteration)
+    public void start() {
+        retainedHeapBytes = 0;
+        forks = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (retained >= 0 && !published) {
+            retainedHeapBytes = retained;
+            forks = 1;
+            published = true;
+        }
+    }
+
+    public void retained(long bytes) {
+        retained = bytes;
+    }
+
+    /**
+     * Heap in use right after a full collection, summed over the heap pools. Only meaningful as a difference between
+     * two calls on an otherwise idle JVM.
+     */
+    static long usedHeapAfterGc() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                used += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import benchmark.corpus.Corpus;
+import benchmark.http.ContentEncoding;
+import benchmark.http.EncodingClient;
+import benchmark.http.EncodingServer;
+import benchmark.io.ByteArraySink;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends and receives JSON payloads of {@code payloadSize} bytes over loopback HTTP with each content coding, so the
+ * time to encode and decode is weighed against the bytes it saves on the connection:
+ * <ul>
+ * <li>{@code download}: {@code GET} with the coding in {@code Accept-Encoding}, the server negotiates, encodes and
+ * sends the payload, the client decodes it</li>
+ * <li>{@code upload}: {@code POST} of the payload with the coding in {@code Content-Encoding}, encoded by the client
+ * and decoded by the server</li>
+ * </ul>
+ * With {@code transfer=chunked} both sides stream the body through the encoder with chunked transfer encoding,
+ * otherwise the body is encoded into a buffer first and sent with a {@code Content-Length}. Server and client run in
+ * the benchmark JVM, the server on a thread per core, so the measurement includes both ends of every request.
+ * In both directions {@code compressedBytes} of {@link CodecCounters} counts the body bytes on the wire and
+ * {@code uncompressedBytes} the payload.
+ * <p>
+ * The {@code jmhHttp} Gradle task reports throughput in requests per millisecond and latency percentiles, the
+ * {@code jmh} task leaves it out. With more than five client threads ({@code -t}),
+ * {@code -Dhttp.maxConnections} has to be raised for {@link java.net.HttpURLConnection} to keep all connections alive.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HttpEncodingBenchmark {
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"1KB", "16KB", "256KB", "1MB"})
+        public String payloadSize;
+
+        private byte[] payload;
+        private EncodingServer server;
+
+        @Setup
+        public void setup() throws IOException {
+            payload = Resources.toByteArray(Corpus.plaintext(payloadSize));
+            server = new EncodingServer(payload, Runtime.getRuntime().availableProcessors());
+        }
+
+        @TearDown
+        public void tearDown() {
+            server.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        @Param({"identity", "gzip", "deflate", "zstd"})
+        public String encoding;
+
+        @Param({"fixed", "chunked"})
+        public String transfer;
+
+        private ContentEncoding contentEncoding;
+        private boolean chunked;
+        private EncodingClient client;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup(Server server) throws IOException {
+            contentEncoding = ContentEncoding.of(encoding);
+            if (!transfer.equals("fixed") && !transfer.equals("chunked")) {
+                throw new IllegalArgumentException("Transfer must be fixed or chunked: " + transfer);
+            }
+            chunked = transfer.equals("chunked");
+            client = new EncodingClient(server.server.uri(), server.payload.length);
+            sink = new ByteArraySink(server.payload.length);
+
+            client.download(contentEncoding, chunked, sink);
+            if (!Arrays.equals(server.payload, sink.toByteArray())) {
+                throw new IllegalStateException("Downloading with " + encoding + " does not restore the payload");
+            }
+            client.upload(server.payload, contentEncoding, chunked);
+        }
+    }
+
+    @Benchmark
+    public void download(Server server, Client client, CodecCounters counters, Blackhole bh) throws IOException {
+        client.sink.reset();
+        final long wireBytes = client.client.download(client.contentEncoding, client.chunked, client.sink);
+
+        counters.decompressed(wireBytes, client.sink.size());
+        bh.consume(client.sink);
+    }
+
+    @Benchmark
+    public void upload(Server server, Client client, CodecCounters counters) throws IOException {
+        final long wireBytes = client.client.upload(server.payload, client.contentEncoding, client.chunked);
+
+        counters.compressed(server.payload.length, wireBytes);
+    }
+}
@@ -0,0 +1,185 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.journal.SegmentReader;
+import benchmark.journal.SegmentWriter;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends records to a {@link SegmentWriter} journal as a log ingestion hot path does: records are batched up to
+ * {@code batchSize} bytes or {@code lingerMs} milliseconds, each batch is compressed with {@code codec}, written as a
+ * length-prefixed frame and, with {@code fsync}, forced to disk. One operation appends one record, so the throughput
+ * is the sustained records per second including the compression and write of every batch, and {@link Counters}
+ * reports the bytes that end up on disk.
+ * <p>
+ * Records are the lines of the 1MB {@code recordCorpus}, appended round-robin. Segments go to a new temporary
+ * directory under {@code benchmark.journal.dir} (default {@code java.io.tmpdir}), which should be on the disk the
+ * journal would use, as fsync on a tmpfs costs nothing. The {@code jmhJournal} Gradle task runs this in
+ * throughput mode, the {@code jmh} task leaves it out.
+ */
+public class JournalBenchmark {
+    public static final String DIRECTORY_PROPERTY = "benchmark.journal.dir";
+    private static final String RECORD_SOURCE_SIZE = "1MB";
+    private static final long SEGMENT_SIZE = 64 << 20;
+    private static final int RETAINED_SEGMENTS = 2;
+
+    @State(Scope.Thread)
+    public static class Journal {
+        @Param({"syslog", "json"})
+        public String recordCorpus;
+
+        @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+                "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+        public String codec;
+
+        @Param({"4096", "16384", "65536", "262144", "1048576"})
+        public int batchSize;
+
+        @Param({"5"})
+        public int lingerMs;
+
+        @Param({"true"})
+        public boolean fsync;
+
+        private Codec compressor;
+        private byte[][] records;
+        private int next;
+        private Path directory;
+        private SegmentWriter writer;
+
+        @Setup
+        public void setup() throws IOException {
+            compressor = Codecs.get(codec);
+            records = Corpus.records(Resources.toByteArray(Corpus.plaintext(recordCorpus, RECORD_SOURCE_SIZE)));
+            directory = Files.createTempDirectory(Paths.get(System.getProperty(DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir"))), "journal-");
+
+            final Path verification = directory.resolve("verification");
+            try (final SegmentWriter verificationWriter = open(verification)) {
+                for (byte[] record : records) {
+                    verificationWriter.append(record);
+                }
+            }
+            final List<byte[]> restored = SegmentReader.read(verification, compressor);
+            if (restored.size() != records.length) {
+                throw new IllegalStateException("Journal with codec " + codec + " restores " + restored.size() + " of " + records.length + " records");
+            }
+            for (int i = 0; i < records.length; i++) {
+                if (!Arrays.equals(records[i], restored.get(i))) {
+                    throw new IllegalStateException("Journal with codec " + codec + " does not restore record " + i);
+                }
+            }
+            MoreFiles.deleteRecursively(verification, RecursiveDeleteOption.ALLOW_INSECURE);
+
+            writer = open(directory.resolve("segments"));
+        }
+
+        private SegmentWriter open(Path segments) throws IOException {
+            return new SegmentWriter(segments, compressor, Codec.DEFAULT, batchSize, TimeUnit.MILLISECONDS.toNanos(lingerMs),
+                    SEGMENT_SIZE, RETAINED_SEGMENTS, fsync);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            try {
+                writer.close();
+            } finally {
+                MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+            }
+        }
+    }
+
+    /**
+     * Journal totals over the batches flushed during the iterations:
+     * <ul>
+     * <li>{@code records}: records appended</li>
+     * <li>{@code batches}: frames written</li>
+     * <li>{@code uncompressedBytes}: batch sizes before compression</li>
+     * <li>{@code bytesWritten}: bytes written, frame headers included</li>
+     * <li>{@code elapsedNanos}: time from the first append to the end of the iterations</li>
+     * </ul>
+     * JMH sums event counters over threads, iterations and forks, so only totals are published. The bytes on disk per
+     * record are {@code bytesWritten / records}, the ratio {@code uncompressedBytes / bytesWritten}, the records per
+     * batch {@code records / batches}, below the size limit when batches were cut by the linger time, and the
+     * megabytes (10^6 bytes) written to disk per second {@code bytesWritten * 1000 / elapsedNanos} per thread.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long records;
+        public long batches;
+        public long uncompressedBytes;
+        public long bytesWritten;
+        public long elapsedNanos;
+
+        private SegmentWriter writer;
+        private long startRecords;
+        private long startBatches;
+        private long startUncompressedBytes;
+        private long startBytesWritten;
+        private long startNanos;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            writer = null;
+            records = 0;
+            batches = 0;
+            uncompressedBytes = 0;
+            bytesWritten = 0;
+            elapsedNanos = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (writer == null) {
+                return;
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+            records = writer.records() - startRecords;
+            batches = writer.batches() - startBatches;
+            uncompressedBytes = writer.uncompressedBytes() - startUncompressedBytes;
+            bytesWritten = writer.bytesWritten() - startBytesWritten;
+        }
+
+        /**
+         * Starts counting at the first append of the iteration.
+         */
+        void appended(SegmentWriter writer) {
+            if (this.writer == null) {
+                this.writer = writer;
+                startRecords = writer.records();
+                startBatches = writer.batches();
+                startUncompressedBytes = writer.uncompressedBytes();
+                startBytesWritten = writer.bytesWritten();
+                startNanos = System.nanoTime();
+            }
+        }
+    }
+
+    @Benchmark
+    public void append(Journal journal, Counters counters) throws IOException {
+        journal.writer.append(journal.records[journal.next]);
+        journal.next = journal.next + 1 == journal.records.length ? 0 : journal.next + 1;
+
+        counters.appended(journal.writer);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.io.Streams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the latency of compressing and decompressing one request-sized payload with a new stream, as an HTTP
+ * response or a message bus batch would be, so percentiles show the outliers an average hides: stream setup, buffer
+ * allocation, GC pauses and the thread handoff of {@code gzip-parallel} and {@code lzf-parallel}.
+ * <p>
+ * Payloads are the corpus of {@code payloadSize} bytes, named differently from {@code corpusSize} so the sizes the
+ * build passes to all other benchmarks do not apply. The {@code jmhLatency} Gradle task runs this in
+ * {@link Mode#SampleTime}, the {@code jmh} task leaves it out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LatencyBenchmark {
+    @Param({"1KB", "4KB", "16KB", "64KB", "256KB"})
+    public String payloadSize;
+
+    @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+            "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+    public String codec;
+
+    private Codec compressor;
+    private byte[] payload;
+    private byte[] compressed;
+    private ByteArraySource compressedInput;
+    private ByteArraySink compressedSink;
+    private ByteArraySink sink;
+    private final byte[] copyBuffer = new byte[8192];
+
+    @Setup
+    public void setup() throws IOException {
+        compressor = Codecs.get(codec);
+        payload = Resources.toByteArray(Corpus.plaintext(payloadSize));
+        compressedSink = new ByteArraySink(ByteArraySink.capacityFor(payload.length));
+        sink = new ByteArraySink(payload.length);
+
+        compress();
+        compressed = compressedSink.toByteArray();
+        compressedInput = new ByteArraySource(compressed);
+        decompress();
+        if (!Arrays.equals(payload, sink.toByteArray())) {
+            throw new IllegalStateException("Codec " + codec + " does not round-trip a " + payloadSize + " payload");
+        }
+    }
+
+    private void compress() throws IOException {
+        compressedSink.reset();
+        try (final OutputStream outputStream = compressor.compress(compressedSink, Codec.DEFAULT, Codec.DEFAULT)) {
+            outputStream.write(payload);
+        }
+    }
+
+    private void decompress() throws IOException {
+        compressedInput.rewind();
+        sink.reset();
+        try (final InputStream inputStream = compressor.decompress(compressedInput, Codec.DEFAULT)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+        }
+    }
+
+    @Benchmark
+    public void compress(CodecCounters counters) throws IOException {
+        compress();
+
+        counters.compressed(payload.length, compressedSink.size());
+    }
+
+    @Benchmark
+    public void decompress(CodecCounters counters, Blackhole bh) throws IOException {
+        decompress();
+
+        counters.decompressed(compressed.length, sink.size());
+        bh.consume(sink);
+    }
+}
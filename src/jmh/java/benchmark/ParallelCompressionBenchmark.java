@@ -0,0 +1,122 @@
+package benchmark;
+
+import benchmark.chunked.ChunkedInputStream;
+import benchmark.chunked.ChunkedOutputStream;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compresses the corpus with {@link ChunkedOutputStream} on a {@link ForkJoinPool} of {@code threads} workers,
+ * {@code chunkSize} bytes per independently compressed chunk, next to the two parallel streams with fixed thread
+ * pools and block sizes: {@code ParallelGZIPOutputStream} and {@code PLZFOutputStream}. The baselines only take
+ * the {@code corpusSize} parameter, so they run once per corpus instead of once per engine configuration.
+ */
+public class ParallelCompressionBenchmark {
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"1KB", "64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        private byte[] corpus;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup() throws IOException {
+            corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+            sink = new ByteArraySink(ByteArraySink.capacityFor(corpus.length));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"zstd", "lz4-native", "gzip", "xz"})
+        public String codec;
+
+        @Param({"default"})
+        public String level;
+
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        @Param({"1048576", "4194304"})
+        public int chunkSize;
+
+        private Codec compressor;
+        private int compressionLevel;
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setup(Input input) throws IOException {
+            compressor = Codecs.get(codec);
+            compressionLevel = Codecs.level(compressor, level);
+            pool = new ForkJoinPool(threads);
+
+            compress(input);
+            final byte[] restored;
+            try (final InputStream inputStream = new ChunkedInputStream(new ByteArrayInputStream(input.sink.toByteArray()), compressor)) {
+                restored = ByteStreams.toByteArray(inputStream);
+            }
+            if (!Arrays.equals(input.corpus, restored)) {
+                throw new IllegalStateException("Chunked " + codec + " container does not round-trip");
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdownNow();
+        }
+
+        private void compress(Input input) throws IOException {
+            input.sink.reset();
+            try (final OutputStream outputStream = new ChunkedOutputStream(input.sink, compressor, compressionLevel,
+                    pool, chunkSize, 2 * threads)) {
+                outputStream.write(input.corpus);
+            }
+        }
+    }
+
+    @Benchmark
+    public void chunked(Input input, Engine engine, CodecCounters counters) throws IOException {
+        engine.compress(input);
+
+        counters.compressed(input.corpus.length, input.sink.size());
+    }
+
+    @Benchmark
+    public void parallelGzip(Input input, CodecCounters counters) throws IOException {
+        compress(input, Codecs.get("gzip-parallel"));
+
+        counters.compressed(input.corpus.length, input.sink.size());
+    }
+
+    @Benchmark
+    public void parallelLzf(Input input, CodecCounters counters) throws IOException {
+        compress(input, Codecs.get("lzf-parallel"));
+
+        counters.compressed(input.corpus.length, input.sink.size());
+    }
+
+    private static void compress(Input input, Codec codec) throws IOException {
+        input.sink.reset();
+        try (final OutputStream outputStream = codec.compress(input.sink, Codec.DEFAULT, Codec.DEFAULT)) {
+            outputStream.write(input.corpus);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.parity.Decoder;
+import benchmark.parity.Parity;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Runs each format through every implementation of it listed by {@link Parity}, native and pure Java, to show the
+ * cost of the pure Java fallback where JNI is not allowed. {@code compress} takes the compressing implementations,
+ * {@code decompress} also the decode-only ones, both from memory into reused buffers.
+ * <p>
+ * Setup checks parity in both directions: the output of the compressing implementation must decompress to the
+ * identical corpus with every implementation of its format, and the decompressing implementation must restore the
+ * identical corpus from the output of every compressing implementation of its format.
+ */
+public class ParityBenchmark {
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1KB", "64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        private byte[] corpus;
+
+        @Setup
+        public void setup() throws IOException {
+            corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+        }
+
+        byte[] compress(Codec codec, ByteArraySink sink) throws IOException {
+            sink.reset();
+            try (final OutputStream outputStream = codec.compress(sink, Codec.DEFAULT, Codec.DEFAULT)) {
+                outputStream.write(corpus);
+            }
+            return sink.toByteArray();
+        }
+
+        void verify(String compressor, byte[] compressed, String decompressor) throws IOException {
+            final byte[] restored = new byte[corpus.length];
+            if (Parity.decoder(decompressor).decompress(compressed, restored) != corpus.length || !Arrays.equals(corpus, restored)) {
+                throw new IllegalStateException(decompressor + " does not restore the corpus compressed by " + compressor);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Compressing {
+        @Param({"gzip", "gzip-commons", "gzip-optimized", "gzip-parallel", "gzip-jzlib", "snappy", "snappy-native", "zstd",
+                "lz4-safe", "lz4-unsafe", "lz4-native"})
+        public String codec;
+
+        private Codec compressor;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup(Data data) throws IOException {
+            compressor = Codecs.get(codec);
+            sink = new ByteArraySink(ByteArraySink.capacityFor(data.corpus.length));
+
+            final byte[] compressed = data.compress(compressor, sink);
+            for (String decompressor : Parity.implementations(Parity.format(codec))) {
+                data.verify(codec, compressed, decompressor);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Decompressing {
+        @Param({"gzip", "gzip-commons", "gzip-optimized", "gzip-parallel", "gzip-jzlib", "snappy", "snappy-native", "zstd",
+                "zstd-java", "lz4-safe", "lz4-unsafe", "lz4-native"})
+        public String codec;
+
+        private Decoder decoder;
+        private byte[] compressed;
+        private byte[] destination;
+
+        @Setup
+        public void setup(Data data) throws IOException {
+            decoder = Parity.decoder(codec);
+            destination = new byte[data.corpus.length];
+
+            final ByteArraySink sink = new ByteArraySink(ByteArraySink.capacityFor(data.corpus.length));
+            for (String compressor : Parity.implementations(Parity.format(codec))) {
+                if (Parity.compresses(compressor)) {
+                    final byte[] output = data.compress(Codecs.get(compressor), sink);
+                    data.verify(compressor, output, codec);
+                    if (compressed == null) {
+                        // the format's first implementation writes the input of the measurement
+                        compressed = output;
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void compress(Data data, Compressing compressing, CodecCounters counters) throws IOException {
+        compressing.sink.reset();
+        try (final OutputStream outputStream = compressing.compressor.compress(compressing.sink, Codec.DEFAULT, Codec.DEFAULT)) {
+            outputStream.write(data.corpus);
+        }
+
+        counters.compressed(data.corpus.length, compressing.sink.size());
+    }
+
+    @Benchmark
+    public void decompress(Decompressing decompressing, CodecCounters counters, Blackhole bh) throws IOException {
+        final int length = decompressing.decoder.decompress(decompressing.compressed, decompressing.destination);
+
+        counters.decompressed(decompressing.compressed.length, length);
+        bh.consume(decompressing.destination);
+    }
+}
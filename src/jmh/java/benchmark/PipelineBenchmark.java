@@ -0,0 +1,206 @@
+package benchmark;
+
+import benchmark.block.BlockCodec;
+import benchmark.block.BlockCodecs;
+import benchmark.block.BlockCompressor;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import benchmark.io.Streams;
+import benchmark.pipeline.AesGcm;
+import benchmark.pipeline.WritePipeline;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Runs the complete write stage of a storage engine over one payload: compression, then an optional
+ * {@code checksum} of the compressed data ({@code crc32}, {@code crc32c} or {@code xxhash64}), then optional
+ * {@code aes-gcm} encryption:
+ * <ul>
+ * <li>{@code stream}: the codec's stream over a checksumming and a cipher stream, with the format's own checksum as
+ * the library writes it by default (CRC32 for gzip, masked CRC32C for framed Snappy, XXHash32 per LZ4 block, CRC64
+ * for xz, none for zstd)</li>
+ * <li>{@code streamCodecChecksum}: the same for the codecs whose own checksum can be switched, with
+ * {@code codecChecksum} on and off, to show what the redundant checksum costs next to the pipeline's</li>
+ * <li>{@code buffer}: the codec's block API into a reused array, then checksum and encryption of that array, none of
+ * the block formats carries a checksum of its own</li>
+ * </ul>
+ * The throughput from {@link CodecCounters} is the end-to-end throughput of the stage in uncompressed bytes,
+ * {@code compressedBytes} includes the nonce and tag of the encryption. Setup decrypts, checks and decompresses the output
+ * of every variant back to the payload.
+ */
+public class PipelineBenchmark {
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param({"1MB"})
+        public String payloadSize;
+
+        private byte[] payload;
+
+        @Setup
+        public void setup() throws IOException {
+            payload = Resources.toByteArray(Corpus.plaintext(payloadSize));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stages {
+        @Param({"none", "crc32", "crc32c", "xxhash64"})
+        public String checksum;
+
+        @Param({"none", "aes-gcm"})
+        public String encryption;
+
+        private WritePipeline pipeline;
+
+        @Setup
+        public void setup() throws IOException {
+            if (!encryption.equals("none") && !encryption.equals("aes-gcm")) {
+                throw new IllegalArgumentException("Unknown encryption " + encryption + ", available: [none, aes-gcm]");
+            }
+            pipeline = new WritePipeline(checksum, encryption.equals("aes-gcm"));
+        }
+
+        /**
+         * Writes the payload through the codec and the pipeline into {@code sink}, with the format's own checksum as
+         * the library writes it by default if {@code codecChecksum} is {@code null}.
+         */
+        void stream(Payload payload, Codec codec, Boolean codecChecksum, ByteArraySink sink) throws IOException {
+            sink.reset();
+            final OutputStream pipelineOutputStream = pipeline.stream(sink);
+            try (final OutputStream outputStream = codecChecksum == null
+                    ? codec.compress(pipelineOutputStream, Codec.DEFAULT, Codec.DEFAULT)
+                    : codec.compress(pipelineOutputStream, Codec.DEFAULT, Codec.DEFAULT, codecChecksum)) {
+                outputStream.write(payload.payload);
+            }
+        }
+
+        void verifyStream(Payload payload, Codec codec, Boolean codecChecksum, ByteArraySink sink) throws IOException {
+            stream(payload, codec, codecChecksum, sink);
+            final InputStream compressed = new ByteArrayInputStream(pipeline.verify(sink.toByteArray()));
+            final ByteArraySink restored = new ByteArraySink(payload.payload.length);
+            try (final InputStream inputStream = codecChecksum == null
+                    ? codec.decompress(compressed, Codec.DEFAULT)
+                    : codec.decompress(compressed, Codec.DEFAULT, codecChecksum)) {
+                Streams.copy(inputStream, restored, new byte[8192]);
+            }
+            if (!Arrays.equals(payload.payload, restored.toByteArray())) {
+                throw new IllegalStateException("Pipeline with codec " + codec.name() + ", " + checksum + " and "
+                        + encryption + " does not round-trip");
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stream {
+        @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+                "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+        public String codec;
+
+        private Codec compressor;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup(Payload payload, Stages stages) throws IOException {
+            compressor = Codecs.get(codec);
+            sink = new ByteArraySink(AesGcm.encryptedLength(ByteArraySink.capacityFor(payload.payload.length)));
+            stages.verifyStream(payload, compressor, null, sink);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ToggledStream {
+        @Param({"lz4-safe", "lz4-unsafe", "lz4-native", "zstd", "xz"})
+        public String codec;
+
+        @Param({"on", "off"})
+        public String codecChecksum;
+
+        private Codec compressor;
+        private boolean checksum;
+        private ByteArraySink sink;
+
+        @Setup
+        public void setup(Payload payload, Stages stages) throws IOException {
+            compressor = Codecs.get(codec);
+            if (!compressor.hasOptionalChecksum()) {
+                throw new IllegalArgumentException("Codec " + codec + " has no checksum that can be switched off");
+            }
+            if (!codecChecksum.equals("on") && !codecChecksum.equals("off")) {
+                throw new IllegalArgumentException("Codec checksum must be on or off: " + codecChecksum);
+            }
+            checksum = codecChecksum.equals("on");
+            sink = new ByteArraySink(AesGcm.encryptedLength(ByteArraySink.capacityFor(payload.payload.length)));
+            stages.verifyStream(payload, compressor, checksum, sink);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Buffer {
+        @Param({"deflate", "lz4-native", "lz4-unsafe", "lz4-safe", "zstd"})
+        public String codec;
+
+        private BlockCompressor compressor;
+        private byte[] compressed;
+        private byte[] destination;
+
+        @Setup
+        public void setup(Payload payload, Stages stages) throws IOException {
+            compressor = BlockCodecs.get(codec).create(BlockCodec.DEFAULT_LEVEL);
+            compressed = new byte[compressor.maxCompressedLength(payload.payload.length)];
+            destination = new byte[AesGcm.encryptedLength(compressed.length)];
+
+            final int length = stages.pipeline.buffer(compressed, compressor.compress(payload.payload, compressed), destination);
+            final byte[] output = Arrays.copyOf(stages.pipeline.encrypts() ? destination : compressed, length);
+            final byte[] restored = new byte[payload.payload.length];
+            compressor.decompress(stages.pipeline.verify(output), restored);
+            if (!Arrays.equals(payload.payload, restored)) {
+                throw new IllegalStateException("Pipeline with block codec " + codec + ", " + stages.checksum + " and "
+                        + stages.encryption + " does not round-trip");
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            compressor.close();
+        }
+    }
+
+    @Benchmark
+    public long stream(Payload payload, Stages stages, Stream stream, CodecCounters counters) throws IOException {
+        stages.stream(payload, stream.compressor, null, stream.sink);
+
+        counters.compressed(payload.payload.length, stream.sink.size());
+        return stages.pipeline.checksum();
+    }
+
+    @Benchmark
+    public long streamCodecChecksum(Payload payload, Stages stages, ToggledStream stream, CodecCounters counters) throws IOException {
+        stages.stream(payload, stream.compressor, stream.checksum, stream.sink);
+
+        counters.compressed(payload.payload.length, stream.sink.size());
+        return stages.pipeline.checksum();
+    }
+
+    @Benchmark
+    public void buffer(Payload payload, Stages stages, Buffer buffer, CodecCounters counters, Blackhole bh) throws IOException {
+        final int length = stages.pipeline.buffer(buffer.compressed, buffer.compressor.compress(payload.payload, buffer.compressed),
+                buffer.destination);
+
+        counters.compressed(payload.payload.length, length);
+        bh.consume(stages.pipeline.checksum());
+    }
+}
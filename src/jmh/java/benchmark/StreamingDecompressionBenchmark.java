@@ -0,0 +1,187 @@
+package benchmark;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySource;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Decompresses the corpus the way a consumer parsing logs does: through one reused read buffer of
+ * {@code readBufferSize} bytes, without collecting the output. {@code read} only consumes each buffer,
+ * {@code readLines} also splits the newline-delimited records as they arrive, copying only records that span two
+ * reads into a reused line buffer.
+ * <p>
+ * {@code retainedHeapBytes} is measured once per trial: the heap still reachable after a full collection per open
+ * stream, averaged over {@value #MEASURED_STREAMS} streams that have each returned up to 1MB of output. It covers the
+ * decompressor's buffers and windows on the Java heap, not the read buffer and not native memory.
+ */
+@State(Scope.Benchmark)
+public class StreamingDecompressionBenchmark {
+    private static final int MEASURED_STREAMS = 16;
+
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"gzip", "gzip-buffered", "gzip-parallel", "gzip-optimized", "gzip-commons", "lzf", "lzf-parallel", "lzma",
+            "snappy", "xz", "lz4-safe", "lz4-unsafe", "lz4-native", "zstd"})
+    public String codec;
+
+    @Param({"4096", "16384", "65536", "262144", "1048576"})
+    public int readBufferSize;
+
+    private Codec decompressor;
+    private byte[] compressed;
+    private ByteArraySource compressedInput;
+    private long uncompressedLength;
+    private long retainedHeapBytes;
+
+    private byte[] readBuffer;
+    private byte[] line = new byte[1024];
+
+    @Setup
+    public void setup() throws IOException {
+        decompressor = Codecs.get(codec);
+        compressed = Resources.toByteArray(Corpus.fixture(corpusSize, decompressor, Codec.DEFAULT, Codec.DEFAULT));
+        compressedInput = new ByteArraySource(compressed);
+        uncompressedLength = Corpus.parseSize(corpusSize);
+        readBuffer = new byte[readBufferSize];
+
+        final byte[][] expected = Corpus.records(Resources.toByteArray(Corpus.plaintext(corpusSize)));
+        final long[] matching = new long[1];
+        final long records = readLines((buffer, offset, length) -> {
+            final int record = (int) matching[0];
+            if (record < expected.length && Arrays.equals(expected[record], Arrays.copyOfRange(buffer, offset, offset + length))) {
+                matching[0]++;
+            }
+        });
+        if (read(length -> { }) != uncompressedLength || records != expected.length || matching[0] != expected.length) {
+            throw new IllegalStateException(codec + " stream does not return the corpus records");
+        }
+        retainedHeapBytes = measureRetainedHeap();
+    }
+
+    private long measureRetainedHeap() throws IOException {
+        final InputStream[] inputStreams = new InputStream[MEASURED_STREAMS];
+        final long before = HeapCounters.usedHeapAfterGc();
+        try {
+            for (int i = 0; i < inputStreams.length; i++) {
+                inputStreams[i] = decompressor.decompress(new ByteArraySource(compressed), Codec.DEFAULT);
+                long read = 0;
+                int length;
+                while (read < Math.min(uncompressedLength / 2, 1 << 20) && (length = inputStreams[i].read(readBuffer)) != -1) {
+                    read += length;
+                }
+            }
+            return Math.max(0, (HeapCounters.usedHeapAfterGc() - before) / MEASURED_STREAMS);
+        } finally {
+            // also keeps the streams reachable until after the measurement
+            for (InputStream inputStream : inputStreams) {
+                if (inputStream != null) {
+                    inputStream.close();
+                }
+            }
+        }
+    }
+
+    private long read(ReadConsumer consumer) throws IOException {
+        compressedInput.rewind();
+        long total = 0;
+        try (final InputStream inputStream = decompressor.decompress(compressedInput, Codec.DEFAULT)) {
+            int length;
+            while ((length = inputStream.read(readBuffer)) != -1) {
+                consumer.accept(length);
+                total += length;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of non-blank records, skipping the whitespace padding at the end of the corpus.
+     */
+    private long readLines(LineConsumer consumer) throws IOException {
+        compressedInput.rewind();
+        long records = 0;
+        int lineLength = 0;
+        try (final InputStream inputStream = decompressor.decompress(compressedInput, Codec.DEFAULT)) {
+            int length;
+            while ((length = inputStream.read(readBuffer)) != -1) {
+                int start = 0;
+                for (int i = 0; i < length; i++) {
+                    if (readBuffer[i] != '\n') {
+                        continue;
+                    }
+                    if (lineLength == 0) {
+                        records += record(consumer, readBuffer, start, i - start);
+                    } else {
+                        appendLine(lineLength, start, i - start);
+                        records += record(consumer, line, 0, lineLength + i - start);
+                        lineLength = 0;
+                    }
+                    start = i + 1;
+                }
+                if (start < length) {
+                    appendLine(lineLength, start, length - start);
+                    lineLength += length - start;
+                }
+            }
+        }
+        if (lineLength > 0) {
+            records += record(consumer, line, 0, lineLength);
+        }
+        return records;
+    }
+
+    private void appendLine(int lineLength, int start, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(lineLength + length, line.length * 2));
+        }
+        System.arraycopy(readBuffer, start, line, lineLength, length);
+    }
+
+    private static int record(LineConsumer consumer, byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (buffer[i] != ' ') {
+                consumer.accept(buffer, offset, length);
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    private interface ReadConsumer {
+        void accept(int length);
+    }
+
+    private interface LineConsumer {
+        void accept(byte[] buffer, int offset, int length);
+    }
+
+    @Benchmark
+    public void read(CodecCounters counters, HeapCounters heap, Blackhole bh) throws IOException {
+        final long total = read(bh::consume);
+
+        counters.decompressed(compressed.length, total);
+        heap.retained(retainedHeapBytes);
+    }
+
+    @Benchmark
+    public long readLines(CodecCounters counters, HeapCounters heap, Blackhole bh) throws IOException {
+        final long records = readLines((buffer, offset, length) -> bh.consume(length));
+
+        counters.decompressed(compressed.length, uncompressedLength);
+        heap.retained(retainedHeapBytes);
+        return records;
+    }
+}
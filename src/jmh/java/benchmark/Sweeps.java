@@ -0,0 +1,41 @@
+package benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Helpers for runners that execute several JMH sessions and write all of their results into one file.
+ */
+class Sweeps {
+    /**
+     * Parses {@code args} without {@code -rf} and {@code -rff}, the result file is written once for all sessions by
+     * {@link #writeResults(CommandLineOptions, String, Collection)} so the individual sessions must not write it.
+     */
+    static CommandLineOptions withoutResultOptions(String[] args) throws CommandLineOptionException {
+        final List<String> filtered = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-rf".equals(args[i]) || "-rff".equals(args[i])) {
+                i++;
+            } else {
+                filtered.add(args[i]);
+            }
+        }
+        return new CommandLineOptions(filtered.toArray(new String[0]));
+    }
+
+    static void writeResults(CommandLineOptions commandLineOptions, String defaultName, Collection<RunResult> results) {
+        if (commandLineOptions.getResult().hasValue() || commandLineOptions.getResultFormat().hasValue()) {
+            final ResultFormatType resultFormat = commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON);
+            final String resultFile = commandLineOptions.getResult().orElse(defaultName + "." + resultFormat.toString().toLowerCase(Locale.ROOT));
+            ResultFormatFactory.getInstance(resultFormat, resultFile).writeOut(results);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package benchmark.block;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.util.Arrays;
+
+/**
+ * Chooses per block between storing it, LZ4's fast compressor, zstd level 1 and a high zstd level. A probe of the
+ * first {@value #PROBE_LENGTH} bytes estimates how compressible the block is: an order-0 byte histogram gives the
+ * gain of entropy coding alone, LZ4 on the sample the gain of matches. Blocks neither would shrink by
+ * {@value #MIN_GAIN} are stored, blocks only the histogram expects to shrink skip LZ4, which has no entropy coder.
+ * Of the remaining choices the strongest one whose cost fits the CPU budget wins, costs are the average nanoseconds
+ * per byte measured on previous blocks of similar size, excluding the probe, and start out unknown, so the first block tries the
+ * strongest codec. If no choice fits, the block is stored. Every {@value #REMEASURE_INTERVAL}th probed block of a size
+ * uses the next stronger choice instead to keep its cost current.
+ * <p>
+ * {@link #fixed(Choice, int)} skips the probe and always uses one choice, on the same block format and contexts, as a
+ * baseline for the cost of probing and the quality of the choices.
+ * <p>
+ * Compressed blocks start with one byte naming the choice. zstd-jni 1.3 only takes array offsets in its dictionary
+ * functions, so zstd is called with an empty dictionary. Not thread-safe.
+ */
+public class AdaptiveBlockCompressor implements BlockCompressor {
+    public enum Choice {
+        STORED, LZ4, ZSTD_FAST, ZSTD_HIGH
+    }
+
+    private static final int PROBE_LENGTH = 4096;
+    private static final double MIN_GAIN = 1.05;
+    private static final double COST_WEIGHT = 0.125;
+    private static final int REMEASURE_INTERVAL = 64;
+    private static final int SIZE_CLASSES = 13;
+    private static final int ZSTD_FAST_LEVEL = 1;
+    private static final byte[] NO_DICTIONARY = new byte[0];
+    private static final Choice[] CHOICES = Choice.values();
+    private static final double[] C_LOG2_C = new double[PROBE_LENGTH + 1];
+
+    static {
+        for (int c = 1; c <= PROBE_LENGTH; c++) {
+            C_LOG2_C[c] = c * Math.log(c) / Math.log(2);
+        }
+    }
+
+    private final int highLevel;
+    private final double budgetNanosPerByte;
+    private final Choice forced;
+    private final LZ4Compressor lz4Compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor lz4Decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final double[][] nanosPerByte = new double[SIZE_CLASSES][CHOICES.length];
+    private final long[] chosen = new long[CHOICES.length];
+    private final int[] histogram = new int[256];
+    private final long[] probes = new long[SIZE_CLASSES];
+    private final byte[] probe = new byte[lz4Compressor.maxCompressedLength(PROBE_LENGTH)];
+
+    /**
+     * @param highLevel         zstd level of {@link Choice#ZSTD_HIGH}
+     * @param targetMbPerSecond uncompressed megabytes (10^6 bytes) per second the compressor should sustain on one
+     *                          core, 0 for no limit
+     */
+    public AdaptiveBlockCompressor(int highLevel, double targetMbPerSecond) {
+        this(highLevel, targetMbPerSecond, null);
+    }
+
+    private AdaptiveBlockCompressor(int highLevel, double targetMbPerSecond, Choice forced) {
+        this.highLevel = highLevel;
+        budgetNanosPerByte = targetMbPerSecond <= 0 ? Double.POSITIVE_INFINITY : 1000 / targetMbPerSecond;
+        this.forced = forced;
+    }
+
+    /**
+     * A compressor that writes every block with {@code choice} without probing, blocks that do not shrink are still
+     * stored.
+     *
+     * @param highLevel zstd level of {@link Choice#ZSTD_HIGH}
+     */
+    public static AdaptiveBlockCompressor fixed(Choice choice, int highLevel) {
+        return new AdaptiveBlockCompressor(highLevel, 0, choice);
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return 1 + Math.max(length, Math.max(lz4Compressor.maxCompressedLength(length), (int) Zstd.compressBound(length)));
+    }
+
+    @Override
+    public int compress(byte[] source, byte[] destination) {
+        final Choice choice = forced != null ? forced : choose(source);
+        final long start = System.nanoTime();
+        int length = compress(choice, source, destination);
+        if (choice != Choice.STORED) {
+            final double cost = (double) (System.nanoTime() - start) / Math.max(1, source.length);
+            final double[] costs = nanosPerByte[sizeClass(source.length)];
+            final double previous = costs[choice.ordinal()];
+            costs[choice.ordinal()] = previous == 0 ? cost : previous + COST_WEIGHT * (cost - previous);
+            if (length > 1 + source.length) {
+                length = compress(Choice.STORED, source, destination);
+            }
+        }
+        chosen[destination[0]]++;
+        return length;
+    }
+
+    private int compress(Choice choice, byte[] source, byte[] destination) {
+        destination[0] = (byte) choice.ordinal();
+        switch (choice) {
+            case STORED:
+                System.arraycopy(source, 0, destination, 1, source.length);
+                return 1 + source.length;
+            case LZ4:
+                return 1 + lz4Compressor.compress(source, 0, source.length, destination, 1, destination.length - 1);
+            case ZSTD_FAST:
+                return 1 + ZstdBlockCodec.checked(Zstd.compressUsingDict(destination, 1, source, 0, source.length,
+                        NO_DICTIONARY, ZSTD_FAST_LEVEL));
+            case ZSTD_HIGH:
+                return 1 + ZstdBlockCodec.checked(Zstd.compressUsingDict(destination, 1, source, 0, source.length,
+                        NO_DICTIONARY, highLevel));
+            default:
+                throw new IllegalArgumentException("Unknown choice " + choice);
+        }
+    }
+
+    private Choice choose(byte[] source) {
+        final int sampleLength = Math.min(source.length, PROBE_LENGTH);
+        if (sampleLength == 0) {
+            return Choice.STORED;
+        }
+
+        final int lz4Length = lz4Compressor.compress(source, 0, sampleLength, probe, 0, probe.length);
+        final Choice weakest;
+        if ((double) sampleLength / lz4Length >= MIN_GAIN) {
+            weakest = Choice.LZ4;
+        } else if (8 / entropyBitsPerByte(source, sampleLength) >= MIN_GAIN) {
+            weakest = Choice.ZSTD_FAST;
+        } else {
+            return Choice.STORED;
+        }
+
+        final int sizeClass = sizeClass(source.length);
+        final double[] costs = nanosPerByte[sizeClass];
+        int fitting = CHOICES.length - 1;
+        while (fitting >= weakest.ordinal() && costs[fitting] > budgetNanosPerByte) {
+            fitting--;
+        }
+        if (++probes[sizeClass] % REMEASURE_INTERVAL == 0 && fitting < CHOICES.length - 1) {
+            // one block with the next stronger choice, so a single slow measurement does not rule it out for good
+            return CHOICES[Math.max(fitting + 1, weakest.ordinal())];
+        }
+        return fitting >= weakest.ordinal() ? CHOICES[fitting] : Choice.STORED;
+    }
+
+    /**
+     * Costs are tracked per power of two of the block length, from below 512 bytes up to 1MB and more, as per-call
+     * overhead dominates the cost per byte of small blocks.
+     */
+    private static int sizeClass(int length) {
+        return Math.max(0, Math.min(SIZE_CLASSES - 1, 31 - Integer.numberOfLeadingZeros(length) - 8));
+    }
+
+    /**
+     * Order-0 entropy of the first {@code length} bytes, log2(n) - sum(c * log2(c)) / n over the byte counts c.
+     */
+    private double entropyBitsPerByte(byte[] source, int length) {
+        Arrays.fill(histogram, 0);
+        for (int i = 0; i < length; i++) {
+            histogram[source[i] & 0xff]++;
+        }
+
+        double sum = 0;
+        for (int count : histogram) {
+            sum += C_LOG2_C[count];
+        }
+        return C_LOG2_C[length] / length - sum / length;
+    }
+
+    @Override
+    public int decompress(byte[] source, byte[] destination) {
+        switch (CHOICES[source[0]]) {
+            case STORED:
+                System.arraycopy(source, 1, destination, 0, destination.length);
+                return destination.length;
+            case LZ4:
+                lz4Decompressor.decompress(source, 1, destination, 0, destination.length);
+                return destination.length;
+            case ZSTD_FAST:
+            case ZSTD_HIGH:
+                return ZstdBlockCodec.checked(Zstd.decompressUsingDict(destination, 0, source, 1, source.length - 1,
+                        NO_DICTIONARY));
+            default:
+                throw new IllegalArgumentException("Unknown choice " + source[0]);
+        }
+    }
+
+    /**
+     * Number of blocks written with {@code choice}, blocks that did not shrink count as stored.
+     */
+    public long chosen(Choice choice) {
+        return chosen[choice.ordinal()];
+    }
+
+    /**
+     * Average cost of {@code choice} in nanoseconds per uncompressed byte over recent blocks of about {@code length}
+     * bytes, 0 if not measured yet.
+     */
+    public double nanosPerByte(Choice choice, int length) {
+        return nanosPerByte[sizeClass(length)][choice.ordinal()];
+    }
+}
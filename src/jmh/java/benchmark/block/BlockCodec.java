@@ -0,0 +1,21 @@
+package benchmark.block;
+
+/**
+ * A codec used through its one-shot block API (byte array in, byte array out) rather than a stream. Implementations
+ * are discovered with {@link java.util.ServiceLoader}, see {@link BlockCodecs}.
+ */
+public interface BlockCodec {
+    /**
+     * Placeholder for "use the implementation's default" compression level.
+     */
+    int DEFAULT_LEVEL = -1;
+
+    String name();
+
+    /**
+     * Whether a single {@link BlockCompressor} of this codec may be used by several threads at the same time.
+     */
+    boolean isThreadSafe();
+
+    BlockCompressor create(int level);
+}
@@ -0,0 +1,51 @@
+package benchmark.block;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of all {@link BlockCodec} implementations found on the classpath.
+ */
+public class BlockCodecs {
+    private static final Map<String, BlockCodec> CODECS = load();
+
+    private static Map<String, BlockCodec> load() {
+        final Map<String, BlockCodec> codecs = new LinkedHashMap<>();
+        for (BlockCodec codec : ServiceLoader.load(BlockCodec.class)) {
+            final BlockCodec previous = codecs.put(codec.name(), codec);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate block codec name " + codec.name() + ": "
+                        + previous.getClass().getName() + ", " + codec.getClass().getName());
+            }
+        }
+        return Collections.unmodifiableMap(codecs);
+    }
+
+    public static Collection<BlockCodec> all() {
+        return CODECS.values();
+    }
+
+    public static BlockCodec get(String name) {
+        final BlockCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown block codec " + name + ", available: " + CODECS.keySet());
+        }
+        return codec;
+    }
+
+    /**
+     * Splits {@code data} into consecutive blocks of {@code blockSize} bytes, the last one may be shorter.
+     */
+    public static byte[][] split(byte[] data, int blockSize) {
+        final int count = Math.max(1, (data.length + blockSize - 1) / blockSize);
+        final byte[][] blocks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            blocks[i] = Arrays.copyOfRange(data, i * blockSize, Math.min(data.length, (i + 1) * blockSize));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark.block;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses and decompresses whole blocks between caller supplied arrays. Instances hold the codec's reusable
+ * context (if it has one) and are only thread-safe if {@link BlockCodec#isThreadSafe()} says so.
+ */
+public interface BlockCompressor extends AutoCloseable {
+    int maxCompressedLength(int length);
+
+    /**
+     * Compresses all of {@code source} into {@code destination}, which must hold at least
+     * {@link #maxCompressedLength(int)} bytes, and returns the compressed length.
+     */
+    int compress(byte[] source, byte[] destination);
+
+    /**
+     * Decompresses all of {@code source} into {@code destination}, which must have exactly the original length,
+     * and returns the number of bytes written.
+     */
+    int decompress(byte[] source, byte[] destination);
+
+    /**
+     * Whether the {@link ByteBuffer} variants of {@code compress} and {@code decompress} are implemented. Those read
+     * and write direct buffers in place instead of copying them onto the heap.
+     */
+    default boolean supportsByteBuffers() {
+        return false;
+    }
+
+    /**
+     * Compresses {@code sourceLength} bytes of {@code source} starting at {@code sourceOffset} into
+     * {@code destination} starting at {@code destinationOffset} and returns the compressed length. Positions and
+     * limits of both buffers are ignored and left unchanged.
+     */
+    default int compress(ByteBuffer source, int sourceOffset, int sourceLength,
+                         ByteBuffer destination, int destinationOffset, int maxDestinationLength) {
+        throw new UnsupportedOperationException("ByteBuffer compression not supported");
+    }
+
+    /**
+     * Decompresses {@code sourceLength} bytes of {@code source} starting at {@code sourceOffset} into exactly
+     * {@code originalLength} bytes of {@code destination} starting at {@code destinationOffset} and returns the
+     * number of bytes written. Positions and limits of both buffers are ignored and left unchanged.
+     */
+    default int decompress(ByteBuffer source, int sourceOffset, int sourceLength,
+                           ByteBuffer destination, int destinationOffset, int originalLength) {
+        throw new UnsupportedOperationException("ByteBuffer decompression not supported");
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark.block;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Raw deflate via {@link Deflater#deflate(byte[])} and {@link Inflater#inflate(byte[])}, reusing both through
+ * {@code reset()}.
+ */
+public class DeflateBlockCodec implements BlockCodec {
+    @Override
+    public String name() {
+        return "deflate";
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+
+    @Override
+    public BlockCompressor create(int level) {
+        return new DeflateBlockCompressor(level == DEFAULT_LEVEL ? Deflater.DEFAULT_COMPRESSION : level);
+    }
+
+    private static class DeflateBlockCompressor implements BlockCompressor {
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater(true);
+
+        DeflateBlockCompressor(int level) {
+            deflater = new Deflater(level, true);
+        }
+
+        @Override
+        public int maxCompressedLength(int length) {
+            // zlib's deflateBound() for stored blocks plus some slack for the block headers
+            return length + (length >> 12) + (length >> 14) + (length >> 25) + 64;
+        }
+
+        @Override
+        public int compress(byte[] source, byte[] destination) {
+            deflater.reset();
+            deflater.setInput(source);
+            deflater.finish();
+
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == destination.length) {
+                    throw new IllegalStateException("Destination too small for " + source.length + " bytes");
+                }
+                length += deflater.deflate(destination, length, destination.length - length);
+            }
+            return length;
+        }
+
+        @Override
+        public int decompress(byte[] source, byte[] destination) {
+            inflater.reset();
+            inflater.setInput(source);
+
+            try {
+                int length = 0;
+                while (!inflater.finished() && length < destination.length) {
+                    final int inflated = inflater.inflate(destination, length, destination.length - length);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += inflated;
+                }
+                return length;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark.block;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link LZ4Compressor#compress(byte[], int, int, byte[], int, int)} of one of the {@link LZ4Factory}
+ * implementations. The default level uses the fast compressor, levels 1 to 17 the high compressor. The
+ * {@link ByteBuffer} variants work on heap and direct buffers, the native and unsafe instances access direct
+ * buffers in place.
+ */
+public abstract class LZ4BlockCodec implements BlockCodec {
+    protected abstract LZ4Factory factory();
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public BlockCompressor create(int level) {
+        final LZ4Compressor compressor = level == DEFAULT_LEVEL ? factory().fastCompressor() : factory().highCompressor(level);
+        final LZ4FastDecompressor decompressor = factory().fastDecompressor();
+
+        return new BlockCompressor() {
+            @Override
+            public int maxCompressedLength(int length) {
+                return compressor.maxCompressedLength(length);
+            }
+
+            @Override
+            public int compress(byte[] source, byte[] destination) {
+                return compressor.compress(source, 0, source.length, destination, 0, destination.length);
+            }
+
+            @Override
+            public int decompress(byte[] source, byte[] destination) {
+                decompressor.decompress(source, 0, destination, 0, destination.length);
+                return destination.length;
+            }
+
+            @Override
+            public boolean supportsByteBuffers() {
+                return true;
+            }
+
+            @Override
+            public int compress(ByteBuffer source, int sourceOffset, int sourceLength,
+                                ByteBuffer destination, int destinationOffset, int maxDestinationLength) {
+                return compressor.compress(source, sourceOffset, sourceLength, destination, destinationOffset, maxDestinationLength);
+            }
+
+            @Override
+            public int decompress(ByteBuffer source, int sourceOffset, int sourceLength,
+                                  ByteBuffer destination, int destinationOffset, int originalLength) {
+                decompressor.decompress(source, sourceOffset, destination, destinationOffset, originalLength);
+                return originalLength;
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package benchmark.block;
+
+import net.jpountz.lz4.LZ4Factory;
+
+public class LZ4SafeBlockCodec extends LZ4BlockCodec {
+    @Override
+    public String name() {
+        return "lz4-safe";
+    }
+
+    @Override
+    protected LZ4Factory factory() {
+        return LZ4Factory.safeInstance();
+    }
+}
@@ -0,0 +1,15 @@
+package benchmark.block;
+
+import net.jpountz.lz4.LZ4Factory;
+
+public class LZ4UnsafeBlockCodec extends LZ4BlockCodec {
+    @Override
+    public String name() {
+        return "lz4-unsafe";
+    }
+
+    @Override
+    protected LZ4Factory factory() {
+        return LZ4Factory.unsafeInstance();
+    }
+}
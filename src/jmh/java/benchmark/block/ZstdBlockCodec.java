@@ -0,0 +1,81 @@
+package benchmark.block;
+
+import com.github.luben.zstd.Zstd;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Zstd#compress(byte[], byte[], int)} and {@link Zstd#decompress(byte[], byte[])}. zstd-jni 1.3 has no
+ * reusable compression context, every call creates and frees one natively, so the compressor is stateless and
+ * thread-safe. The {@link ByteBuffer} variants use {@link Zstd#compressDirectByteBuffer} and
+ * {@link Zstd#decompressDirectByteBuffer} and only accept direct buffers.
+ */
+public class ZstdBlockCodec implements BlockCodec {
+    private static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    @Override
+    public String name() {
+        return "zstd";
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public BlockCompressor create(int level) {
+        final int compressionLevel = level == DEFAULT_LEVEL ? DEFAULT_COMPRESSION_LEVEL : level;
+
+        return new BlockCompressor() {
+            @Override
+            public int maxCompressedLength(int length) {
+                return (int) Zstd.compressBound(length);
+            }
+
+            @Override
+            public int compress(byte[] source, byte[] destination) {
+                return checked(Zstd.compress(destination, source, compressionLevel));
+            }
+
+            @Override
+            public int decompress(byte[] source, byte[] destination) {
+                return checked(Zstd.decompress(destination, source));
+            }
+
+            @Override
+            public boolean supportsByteBuffers() {
+                return true;
+            }
+
+            @Override
+            public int compress(ByteBuffer source, int sourceOffset, int sourceLength,
+                                ByteBuffer destination, int destinationOffset, int maxDestinationLength) {
+                requireDirect(source, destination);
+                return checked(Zstd.compressDirectByteBuffer(destination, destinationOffset, maxDestinationLength,
+                        source, sourceOffset, sourceLength, compressionLevel));
+            }
+
+            @Override
+            public int decompress(ByteBuffer source, int sourceOffset, int sourceLength,
+                                  ByteBuffer destination, int destinationOffset, int originalLength) {
+                requireDirect(source, destination);
+                return checked(Zstd.decompressDirectByteBuffer(destination, destinationOffset, originalLength,
+                        source, sourceOffset, sourceLength));
+            }
+        };
+    }
+
+    private static void requireDirect(ByteBuffer source, ByteBuffer destination) {
+        if (!source.isDirect() || !destination.isDirect()) {
+            throw new IllegalArgumentException("zstd-jni only compresses between direct buffers");
+        }
+    }
+
+    public static int checked(long result) {
+        if (Zstd.isError(result)) {
+            throw new IllegalStateException(Zstd.getErrorName(result));
+        }
+        return (int) result;
+    }
+}
@@ -0,0 +1,20 @@
+package benchmark.block;
+
+import com.github.luben.zstd.Zstd;
+
+import java.util.Arrays;
+
+/**
+ * Trains zstd dictionaries with {@link Zstd#trainFromBuffer(byte[][], byte[])}, the trainer zstd-jni 1.3 exposes.
+ */
+public class ZstdDictionaries {
+    /**
+     * Returns a dictionary of at most {@code maxSize} bytes trained on {@code samples}. zstd needs a few hundred
+     * samples and roughly a hundred times the dictionary size in total to produce a useful dictionary.
+     */
+    public static byte[] train(byte[][] samples, int maxSize) {
+        final byte[] dictionary = new byte[maxSize];
+        final int size = ZstdBlockCodec.checked(Zstd.trainFromBuffer(samples, dictionary));
+        return size == dictionary.length ? dictionary : Arrays.copyOf(dictionary, size);
+    }
+}
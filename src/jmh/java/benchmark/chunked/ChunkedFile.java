@@ -0,0 +1,186 @@
+package benchmark.chunked;
+
+import benchmark.codec.Codec;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Random access to a {@link ChunkedFormat} container through its index. Opening reads only the header, trailer and
+ * index, frames are read with positional reads and decompressed on demand, so instances are thread-safe as long as
+ * the channel stays open. Closing the channel is up to the caller.
+ */
+public class ChunkedFile {
+    private static final int MAX_HEADER_LENGTH = 512;
+
+    private final FileChannel channel;
+    private final Codec codec;
+    private final long[] offsets;
+    private final int[] uncompressedLengths;
+    private final int[] compressedLengths;
+    private final long[] firstRecords;
+    private final long records;
+
+    private ChunkedFile(FileChannel channel, Codec codec, long[] offsets, int[] uncompressedLengths,
+                        int[] compressedLengths, long[] firstRecords, long records) {
+        this.channel = channel;
+        this.codec = codec;
+        this.offsets = offsets;
+        this.uncompressedLengths = uncompressedLengths;
+        this.compressedLengths = compressedLengths;
+        this.firstRecords = firstRecords;
+        this.records = records;
+    }
+
+    public static ChunkedFile open(FileChannel channel, Codec codec) throws IOException {
+        final long size = channel.size();
+        final byte[] header = read(channel, 0, (int) Math.min(size, MAX_HEADER_LENGTH));
+        ChunkedFormat.readHeader(new DataInputStream(new ByteArrayInputStream(header)), codec.name());
+
+        final ByteBuffer trailer = ByteBuffer.wrap(read(channel, size - ChunkedFormat.TRAILER_LENGTH, ChunkedFormat.TRAILER_LENGTH));
+        final long indexOffset = trailer.getLong();
+        if (trailer.getInt() != ChunkedFormat.MAGIC) {
+            throw new IOException("Chunked container has no index trailer");
+        }
+
+        final ByteBuffer index = ByteBuffer.wrap(read(channel, indexOffset, (int) (size - ChunkedFormat.TRAILER_LENGTH - indexOffset)));
+        final int frames = index.getInt();
+        final long[] offsets = new long[frames];
+        final int[] uncompressedLengths = new int[frames];
+        final int[] compressedLengths = new int[frames];
+        final long[] firstRecords = new long[frames];
+        long records = 0;
+        for (int i = 0; i < frames; i++) {
+            offsets[i] = index.getLong();
+            uncompressedLengths[i] = index.getInt();
+            compressedLengths[i] = index.getInt();
+            final int frameRecords = index.getInt();
+            firstRecords[i] = records;
+            records = frameRecords == ChunkedFormat.UNKNOWN_RECORDS || records == ChunkedFormat.UNKNOWN_RECORDS
+                    ? ChunkedFormat.UNKNOWN_RECORDS : records + frameRecords;
+        }
+
+        return new ChunkedFile(channel, codec, offsets, uncompressedLengths, compressedLengths, firstRecords, records);
+    }
+
+    public int frames() {
+        return offsets.length;
+    }
+
+    /**
+     * Number of records in the container, {@link ChunkedFormat#UNKNOWN_RECORDS} if it is not record aligned.
+     */
+    public long records() {
+        return records;
+    }
+
+    public long uncompressedLength() {
+        long length = 0;
+        for (int uncompressedLength : uncompressedLengths) {
+            length += uncompressedLength;
+        }
+        return length;
+    }
+
+    public byte[] frame(int frame) throws IOException {
+        final byte[] compressed = read(channel, offsets[frame] + 2 * Integer.BYTES, compressedLengths[frame]);
+        final byte[] uncompressed = new byte[uncompressedLengths[frame]];
+        try (final InputStream inputStream = codec.decompress(new ByteArrayInputStream(compressed), Codec.DEFAULT)) {
+            if (ByteStreams.read(inputStream, uncompressed, 0, uncompressed.length) != uncompressed.length) {
+                throw new EOFException("Frame " + frame + " is shorter than its " + uncompressed.length + " bytes");
+            }
+        }
+        return uncompressed;
+    }
+
+    /**
+     * Returns record {@code record} (counting from zero) without its delimiter, decompressing only the frame that
+     * holds it.
+     */
+    public byte[] record(long record, byte delimiter) throws IOException {
+        if (records == ChunkedFormat.UNKNOWN_RECORDS) {
+            throw new IllegalStateException("Container is not record aligned");
+        }
+        if (record < 0 || record >= records) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + records);
+        }
+
+        final int search = Arrays.binarySearch(firstRecords, record);
+        final int frame = search >= 0 ? search : -search - 2;
+        final byte[] data = frame(frame);
+
+        int start = 0;
+        for (long skip = record - firstRecords[frame]; skip > 0; start++) {
+            if (data[start] == delimiter) {
+                skip--;
+            }
+        }
+        int end = start;
+        while (end < data.length && data[end] != delimiter) {
+            end++;
+        }
+        return Arrays.copyOfRange(data, start, end);
+    }
+
+    /**
+     * Decompresses all frames on {@code executor}, at most {@code maxPendingFrames} at a time, and writes them to
+     * {@code outputStream} in order.
+     */
+    public void decompress(ExecutorService executor, int maxPendingFrames, OutputStream outputStream) throws IOException {
+        final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try {
+            for (int i = 0; i < offsets.length; i++) {
+                final int frame = i;
+                pending.add(executor.submit(() -> frame(frame)));
+                while (pending.size() > maxPendingFrames) {
+                    outputStream.write(get(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                outputStream.write(get(pending.poll()));
+            }
+        } finally {
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static byte[] get(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a frame");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Decompressing a frame failed", e.getCause());
+        }
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Chunked container ends before byte " + (position + length));
+            }
+        }
+        return buffer.array();
+    }
+}
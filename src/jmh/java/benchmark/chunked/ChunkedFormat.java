@@ -0,0 +1,37 @@
+package benchmark.chunked;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Layout of the chunked container written by {@link ChunkedOutputStream}. All integers are big-endian.
+ * <pre>
+ * header:  int MAGIC, UTF codec name
+ * frame:   int uncompressed length, int compressed length, compressed bytes   (repeated)
+ * end:     int END_OF_FRAMES
+ * index:   int frame count, then per frame: long offset of its header, int uncompressed length, int compressed length,
+ *          int number of records (UNKNOWN_RECORDS if the frames are not aligned to records)
+ * trailer: long offset of the index, int MAGIC
+ * </pre>
+ * Every frame is a complete stream of the codec, so frames can be decompressed independently. The length prefixes
+ * let a reader stream through the container, the index at the end lets it seek to any frame and, for record aligned
+ * containers, to the frame holding any record.
+ */
+public class ChunkedFormat {
+    public static final int MAGIC = 0x43484e4b; // "CHNK"
+    public static final int END_OF_FRAMES = -1;
+    public static final int UNKNOWN_RECORDS = -1;
+    public static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+    public static final int INDEX_ENTRY_LENGTH = Long.BYTES + 3 * Integer.BYTES;
+
+    static void readHeader(DataInputStream inputStream, String codec) throws IOException {
+        final int magic = inputStream.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a chunked container, magic " + Integer.toHexString(magic));
+        }
+        final String name = inputStream.readUTF();
+        if (!name.equals(codec)) {
+            throw new IOException("Container was written with codec " + name + ", not " + codec);
+        }
+    }
+}
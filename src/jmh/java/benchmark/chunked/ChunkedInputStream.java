@@ -0,0 +1,85 @@
+package benchmark.chunked;
+
+import benchmark.codec.Codec;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a {@link ChunkedFormat} container front to back on the calling thread, one frame at a time. The index at the
+ * end is not needed and not read.
+ */
+public class ChunkedInputStream extends InputStream {
+    private final DataInputStream inputStream;
+    private final Codec codec;
+
+    private byte[] chunk = new byte[0];
+    private int chunkLength;
+    private int chunkPosition;
+    private boolean finished;
+
+    public ChunkedInputStream(InputStream inputStream, Codec codec) throws IOException {
+        this.inputStream = new DataInputStream(inputStream);
+        this.codec = codec;
+        ChunkedFormat.readHeader(this.inputStream, codec.name());
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[chunkPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int length = Math.min(len, chunkLength - chunkPosition);
+        System.arraycopy(chunk, chunkPosition, b, off, length);
+        chunkPosition += length;
+        return length;
+    }
+
+    private boolean fill() throws IOException {
+        while (chunkPosition == chunkLength) {
+            if (finished) {
+                return false;
+            }
+
+            final int uncompressedLength = inputStream.readInt();
+            if (uncompressedLength == ChunkedFormat.END_OF_FRAMES) {
+                finished = true;
+                return false;
+            }
+            final byte[] compressed = new byte[inputStream.readInt()];
+            inputStream.readFully(compressed);
+
+            if (chunk.length < uncompressedLength) {
+                chunk = new byte[uncompressedLength];
+            }
+            try (final InputStream frameInputStream = codec.decompress(new ByteArrayInputStream(compressed), Codec.DEFAULT)) {
+                if (ByteStreams.read(frameInputStream, chunk, 0, uncompressedLength) != uncompressedLength) {
+                    throw new EOFException("Frame is shorter than its " + uncompressedLength + " bytes");
+                }
+            }
+            chunkLength = uncompressedLength;
+            chunkPosition = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
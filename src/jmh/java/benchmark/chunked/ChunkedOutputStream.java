@@ -0,0 +1,231 @@
+package benchmark.chunked;
+
+import benchmark.codec.Codec;
+import benchmark.io.ByteArraySink;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits its input into chunks of {@code chunkSize} bytes, compresses each chunk with {@code codec} as an independent
+ * stream on {@code executor} and writes the results in order as frames of a {@link ChunkedFormat} container. At most
+ * {@code maxPendingChunks} chunks are buffered or being compressed at any time, writes block until the oldest one is
+ * written. Not thread-safe, the executor is not shut down on close.
+ * <p>
+ * With a {@code recordDelimiter} every chunk ends after the last delimiter that fits into {@code chunkSize}, so
+ * frames only hold whole records and the index records how many each frame holds. A record longer than
+ * {@code chunkSize} makes its chunk larger.
+ */
+public class ChunkedOutputStream extends OutputStream {
+    public static final int NO_DELIMITER = -1;
+
+    private final DataOutputStream outputStream;
+    private final Codec codec;
+    private final int level;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final int recordDelimiter;
+
+    private final Deque<Future<Frame>> pending = new ArrayDeque<>();
+    private final List<IndexEntry> index = new ArrayList<>();
+    private byte[] chunk;
+    private int chunkLength;
+    private long position;
+    private boolean closed;
+
+    public ChunkedOutputStream(OutputStream outputStream, Codec codec, int level, ExecutorService executor,
+                               int chunkSize, int maxPendingChunks) throws IOException {
+        this(outputStream, codec, level, executor, chunkSize, maxPendingChunks, NO_DELIMITER);
+    }
+
+    public ChunkedOutputStream(OutputStream outputStream, Codec codec, int level, ExecutorService executor,
+                               int chunkSize, int maxPendingChunks, int recordDelimiter) throws IOException {
+        if (chunkSize <= 0 || maxPendingChunks <= 0) {
+            throw new IllegalArgumentException("Chunk size and pending chunks must be positive");
+        }
+        this.outputStream = new DataOutputStream(outputStream);
+        this.codec = codec;
+        this.level = level;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+        this.recordDelimiter = recordDelimiter;
+        this.chunk = new byte[chunkSize];
+
+        this.outputStream.writeInt(ChunkedFormat.MAGIC);
+        this.outputStream.writeUTF(codec.name());
+        position = this.outputStream.size();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        chunk[chunkLength++] = (byte) b;
+        if (chunkLength == chunk.length) {
+            chunkFull();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            final int length = Math.min(len, chunk.length - chunkLength);
+            System.arraycopy(b, off, chunk, chunkLength, length);
+            chunkLength += length;
+            off += length;
+            len -= length;
+            if (chunkLength == chunk.length) {
+                chunkFull();
+            }
+        }
+    }
+
+    private void chunkFull() throws IOException {
+        if (recordDelimiter == NO_DELIMITER) {
+            submit(chunkLength);
+            return;
+        }
+
+        int end = chunkLength;
+        while (end > 0 && chunk[end - 1] != (byte) recordDelimiter) {
+            end--;
+        }
+        if (end == 0) {
+            chunk = Arrays.copyOf(chunk, chunk.length * 2);
+        } else {
+            submit(end);
+        }
+    }
+
+    private void submit(int length) throws IOException {
+        final byte[] data = chunk;
+        pending.add(executor.submit(() -> compress(data, length)));
+        final int remaining = chunkLength - length;
+        chunk = new byte[remaining < chunkSize ? chunkSize : remaining * 2];
+        System.arraycopy(data, length, chunk, 0, remaining);
+        chunkLength = remaining;
+
+        while (pending.size() > maxPendingChunks) {
+            writeFrame(pending.poll());
+        }
+    }
+
+    private Frame compress(byte[] data, int length) throws IOException {
+        final ByteArraySink sink = new ByteArraySink(ByteArraySink.capacityFor(length));
+        try (final OutputStream compressedOutputStream = codec.compress(sink, level, Codec.DEFAULT)) {
+            compressedOutputStream.write(data, 0, length);
+        }
+        return new Frame(length, sink, records(data, length));
+    }
+
+    private int records(byte[] data, int length) {
+        if (recordDelimiter == NO_DELIMITER) {
+            return ChunkedFormat.UNKNOWN_RECORDS;
+        }
+
+        int records = 0;
+        for (int i = 0; i < length; i++) {
+            if (data[i] == (byte) recordDelimiter) {
+                records++;
+            }
+        }
+        // only the last chunk can end in an unterminated record
+        return data[length - 1] == (byte) recordDelimiter ? records : records + 1;
+    }
+
+    private void writeFrame(Future<Frame> future) throws IOException {
+        final Frame frame;
+        try {
+            frame = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for chunk " + index.size());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Compressing chunk " + index.size() + " failed", e.getCause());
+        }
+
+        index.add(new IndexEntry(position, frame.uncompressedLength, frame.compressed.size(), frame.records));
+        outputStream.writeInt(frame.uncompressedLength);
+        outputStream.writeInt(frame.compressed.size());
+        outputStream.write(frame.compressed.buffer(), 0, frame.compressed.size());
+        position += 2 * Integer.BYTES + frame.compressed.size();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (chunkLength > 0) {
+                submit(chunkLength);
+            }
+            while (!pending.isEmpty()) {
+                writeFrame(pending.poll());
+            }
+
+            outputStream.writeInt(ChunkedFormat.END_OF_FRAMES);
+            final long indexOffset = position + Integer.BYTES;
+            outputStream.writeInt(index.size());
+            for (IndexEntry entry : index) {
+                outputStream.writeLong(entry.offset);
+                outputStream.writeInt(entry.uncompressedLength);
+                outputStream.writeInt(entry.compressedLength);
+                outputStream.writeInt(entry.records);
+            }
+            outputStream.writeLong(indexOffset);
+            outputStream.writeInt(ChunkedFormat.MAGIC);
+        } finally {
+            for (Future<Frame> future : pending) {
+                future.cancel(true);
+            }
+            outputStream.close();
+        }
+    }
+
+    private static class Frame {
+        private final int uncompressedLength;
+        private final ByteArraySink compressed;
+        private final int records;
+
+        Frame(int uncompressedLength, ByteArraySink compressed, int records) {
+            this.uncompressedLength = uncompressedLength;
+            this.compressed = compressed;
+            this.records = records;
+        }
+    }
+
+    private static class IndexEntry {
+        private final long offset;
+        private final int uncompressedLength;
+        private final int compressedLength;
+        private final int records;
+
+        IndexEntry(long offset, int uncompressedLength, int compressedLength, int records) {
+            this.offset = offset;
+            this.uncompressedLength = uncompressedLength;
+            this.compressedLength = compressedLength;
+            this.records = records;
+        }
+    }
+}
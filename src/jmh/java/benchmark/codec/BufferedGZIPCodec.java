@@ -0,0 +1,30 @@
+package benchmark.codec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link GZIPCodec} with an additional {@link BufferedOutputStream} in front of the compressor and a
+ * {@link BufferedInputStream} behind the decompressor's source.
+ */
+public class BufferedGZIPCodec extends GZIPCodec {
+    @Override
+    public String name() {
+        return "gzip-buffered";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new BufferedOutputStream(gzipOutputStream(outputStream, level, blockSize));
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        final BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
+        return blockSize == DEFAULT ? new GZIPInputStream(bufferedInputStream) : new GZIPInputStream(bufferedInputStream, blockSize);
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compression format together with the library implementation used to read and write it. Implementations are
+ * discovered with {@link java.util.ServiceLoader}, see {@link Codecs}.
+ */
+public interface Codec {
+    /**
+     * Placeholder for "use the implementation's default" for both levels and block sizes.
+     */
+    int DEFAULT = -1;
+
+    /**
+     * Unique name used as the {@code codec} benchmark parameter.
+     */
+    String name();
+
+    /**
+     * Compression levels this codec can be configured with, empty if it has no notion of levels.
+     */
+    default List<Integer> levels() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Block or buffer sizes this codec can be configured with, empty if they are fixed.
+     */
+    default List<Integer> blockSizes() {
+        return Collections.emptyList();
+    }
+
+    OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException;
+
+    InputStream decompress(InputStream inputStream, int blockSize) throws IOException;
+
+    /**
+     * Whether the format's own checksum of the data can be switched on and off with
+     * {@link #compress(OutputStream, int, int, boolean)}.
+     */
+    default boolean hasOptionalChecksum() {
+        return false;
+    }
+
+    /**
+     * Compresses with or without the format's own checksum of the data. Codecs without an optional checksum ignore
+     * {@code checksum} and write what {@link #compress(OutputStream, int, int)} writes.
+     */
+    default OutputStream compress(OutputStream outputStream, int level, int blockSize, boolean checksum) throws IOException {
+        return compress(outputStream, level, blockSize);
+    }
+
+    /**
+     * Decompresses data written by {@link #compress(OutputStream, int, int, boolean)} with the same {@code checksum}.
+     */
+    default InputStream decompress(InputStream inputStream, int blockSize, boolean checksum) throws IOException {
+        return decompress(inputStream, blockSize);
+    }
+}
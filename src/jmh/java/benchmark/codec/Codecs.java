@@ -0,0 +1,65 @@
+package benchmark.codec;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of all {@link Codec} implementations found on the classpath.
+ */
+public class Codecs {
+    private static final Map<String, Codec> CODECS = load();
+
+    private static Map<String, Codec> load() {
+        final Map<String, Codec> codecs = new LinkedHashMap<>();
+        for (Codec codec : ServiceLoader.load(Codec.class)) {
+            final Codec previous = codecs.put(codec.name(), codec);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate codec name " + codec.name() + ": "
+                        + previous.getClass().getName() + ", " + codec.getClass().getName());
+            }
+        }
+        return Collections.unmodifiableMap(codecs);
+    }
+
+    public static Collection<Codec> all() {
+        return CODECS.values();
+    }
+
+    public static Codec get(String name) {
+        final Codec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown codec " + name + ", available: " + CODECS.keySet());
+        }
+        return codec;
+    }
+
+    /**
+     * Parses a {@code level} benchmark parameter, {@code default} selects {@link Codec#DEFAULT}.
+     */
+    public static int level(Codec codec, String level) {
+        return parse(codec, "level", level, codec.levels());
+    }
+
+    /**
+     * Parses a {@code blockSize} benchmark parameter, {@code default} selects {@link Codec#DEFAULT}.
+     */
+    public static int blockSize(Codec codec, String blockSize) {
+        return parse(codec, "block size", blockSize, codec.blockSizes());
+    }
+
+    private static int parse(Codec codec, String description, String value, Collection<Integer> supported) {
+        if ("default".equals(value)) {
+            return Codec.DEFAULT;
+        }
+
+        final int parsed = Integer.parseInt(value);
+        if (!supported.contains(parsed)) {
+            throw new IllegalArgumentException("Codec " + codec.name() + " does not support " + description + " " + value
+                    + ", supported: " + (supported.isEmpty() ? "default only" : supported));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark.codec;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+
+public class CommonsGzipCodec implements Codec {
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION)
+            .boxed().collect(Collectors.toList());
+
+    @Override
+    public String name() {
+        return "gzip-commons";
+    }
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        if (level == DEFAULT) {
+            return new GzipCompressorOutputStream(outputStream);
+        }
+
+        final GzipParameters gzipParameters = new GzipParameters();
+        gzipParameters.setCompressionLevel(level);
+
+        return new GzipCompressorOutputStream(outputStream, gzipParameters);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new GzipCompressorInputStream(inputStream);
+    }
+}
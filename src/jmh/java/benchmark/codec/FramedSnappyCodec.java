@@ -0,0 +1,45 @@
+package benchmark.codec;
+
+import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorInputStream;
+import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorOutputStream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class FramedSnappyCodec implements Codec {
+    /**
+     * Largest write passed on to commons-compress, which writes an empty chunk for a single write of 64KB or more
+     * that its own input stream then takes for the end of the data.
+     */
+    private static final int MAX_WRITE = 32 * 1024;
+
+    @Override
+    public String name() {
+        return "snappy";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new SlicingOutputStream(new FramedSnappyCompressorOutputStream(outputStream));
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new FramedSnappyCompressorInputStream(inputStream);
+    }
+
+    private static class SlicingOutputStream extends FilterOutputStream {
+        SlicingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int offset = off; offset < off + len; offset += MAX_WRITE) {
+                out.write(b, offset, Math.min(MAX_WRITE, off + len - offset));
+            }
+        }
+    }
+}
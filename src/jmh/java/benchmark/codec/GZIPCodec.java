@@ -0,0 +1,60 @@
+package benchmark.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link GZIPOutputStream} and {@link GZIPInputStream} from {@code java.util.zip}.
+ */
+public class GZIPCodec implements Codec {
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION)
+            .boxed().collect(Collectors.toList());
+    private static final List<Integer> BLOCK_SIZES = Arrays.asList(512, 8192, 65536);
+
+    @Override
+    public String name() {
+        return "gzip";
+    }
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public List<Integer> blockSizes() {
+        return BLOCK_SIZES;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return gzipOutputStream(outputStream, level, blockSize);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return blockSize == DEFAULT ? new GZIPInputStream(inputStream) : new GZIPInputStream(inputStream, blockSize);
+    }
+
+    static GZIPOutputStream gzipOutputStream(OutputStream outputStream, int level, int blockSize) throws IOException {
+        if (level != DEFAULT) {
+            return new LeveledGZIPOutputStream(outputStream, blockSize, level);
+        }
+        return blockSize == DEFAULT ? new GZIPOutputStream(outputStream) : new GZIPOutputStream(outputStream, blockSize);
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream outputStream, int blockSize, int level) throws IOException {
+            super(outputStream, blockSize == DEFAULT ? 512 : blockSize);
+            def.setLevel(level);
+        }
+    }
+}
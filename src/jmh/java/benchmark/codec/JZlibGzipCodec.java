@@ -0,0 +1,56 @@
+package benchmark.codec;
+
+import com.jcraft.jzlib.Deflater;
+import com.jcraft.jzlib.GZIPException;
+import com.jcraft.jzlib.GZIPInputStream;
+import com.jcraft.jzlib.GZIPOutputStream;
+import com.jcraft.jzlib.JZlib;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * gzip written and read by JZlib, a port of zlib to Java. Every other gzip codec deflates with the zlib the JDK
+ * bundles and calls through JNI, this one runs without native code.
+ */
+public class JZlibGzipCodec implements Codec {
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(JZlib.Z_NO_COMPRESSION, JZlib.Z_BEST_COMPRESSION)
+            .boxed().collect(Collectors.toList());
+    // 15 window bits plus 16 select the gzip wrapper
+    private static final int GZIP_WINDOW_BITS = 15 + 16;
+    private static final int BUFFER_SIZE = 512;
+
+    @Override
+    public String name() {
+        return "gzip-jzlib";
+    }
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        if (level == DEFAULT) {
+            return new GZIPOutputStream(outputStream);
+        }
+
+        final Deflater deflater;
+        try {
+            deflater = new Deflater(level, GZIP_WINDOW_BITS);
+        } catch (GZIPException e) {
+            throw new IOException(e);
+        }
+        return new GZIPOutputStream(outputStream, deflater, BUFFER_SIZE, true);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new GZIPInputStream(inputStream);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark.codec;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link LZ4BlockOutputStream} backed by one of the {@link LZ4Factory} implementations. The default level uses the
+ * fast compressor, levels 1 to 17 select the high compressor with that compression level. Every block carries an
+ * XXHash32 of its data unless the checksum is switched off, which writes zero instead and skips the check on read.
+ */
+public abstract class LZ4Codec implements Codec {
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(1, 17).boxed().collect(Collectors.toList());
+    private static final List<Integer> BLOCK_SIZES = Arrays.asList(1 << 12, 1 << 14, 1 << 16, 1 << 18, 1 << 20, 1 << 22);
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    protected abstract LZ4Factory factory();
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public List<Integer> blockSizes() {
+        return BLOCK_SIZES;
+    }
+
+    @Override
+    public boolean hasOptionalChecksum() {
+        return true;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) {
+        final LZ4Compressor compressor = level == DEFAULT ? factory().fastCompressor() : factory().highCompressor(level);
+        return new LZ4BlockOutputStream(outputStream, blockSize == DEFAULT ? DEFAULT_BLOCK_SIZE : blockSize, compressor);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize, boolean checksum) {
+        if (checksum) {
+            return compress(outputStream, level, blockSize);
+        }
+        final LZ4Compressor compressor = level == DEFAULT ? factory().fastCompressor() : factory().highCompressor(level);
+        return new LZ4BlockOutputStream(outputStream, blockSize == DEFAULT ? DEFAULT_BLOCK_SIZE : blockSize, compressor,
+                new NoChecksum(), false);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) {
+        return new LZ4BlockInputStream(inputStream, factory().fastDecompressor());
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize, boolean checksum) {
+        return checksum ? decompress(inputStream, blockSize) : new LZ4BlockInputStream(inputStream, factory().fastDecompressor(), new NoChecksum());
+    }
+}
@@ -0,0 +1,25 @@
+package benchmark.codec;
+
+import com.ning.compress.lzf.LZFInputStream;
+import com.ning.compress.lzf.LZFOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class LZFCodec implements Codec {
+    @Override
+    public String name() {
+        return "lzf";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new LZFOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new LZFInputStream(inputStream);
+    }
+}
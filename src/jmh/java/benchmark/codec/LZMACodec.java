@@ -0,0 +1,25 @@
+package benchmark.codec;
+
+import org.apache.commons.compress.compressors.lzma.LZMACompressorInputStream;
+import org.apache.commons.compress.compressors.lzma.LZMACompressorOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class LZMACodec implements Codec {
+    @Override
+    public String name() {
+        return "lzma";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new LZMACompressorOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new LZMACompressorInputStream(inputStream);
+    }
+}
@@ -0,0 +1,25 @@
+package benchmark.codec;
+
+import java.util.zip.Checksum;
+
+/**
+ * Checksum that is always zero, for formats that store a checksum but do not have to verify it.
+ */
+class NoChecksum implements Checksum {
+    @Override
+    public void update(int b) {
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+    }
+
+    @Override
+    public long getValue() {
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+    }
+}
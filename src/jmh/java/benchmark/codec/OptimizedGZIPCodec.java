@@ -0,0 +1,25 @@
+package benchmark.codec;
+
+import com.ning.compress.gzip.OptimizedGZIPInputStream;
+import com.ning.compress.gzip.OptimizedGZIPOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class OptimizedGZIPCodec implements Codec {
+    @Override
+    public String name() {
+        return "gzip-optimized";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new OptimizedGZIPOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new OptimizedGZIPInputStream(inputStream);
+    }
+}
@@ -0,0 +1,25 @@
+package benchmark.codec;
+
+import org.anarres.parallelgzip.ParallelGZIPInputStream;
+import org.anarres.parallelgzip.ParallelGZIPOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class ParallelGZIPCodec implements Codec {
+    @Override
+    public String name() {
+        return "gzip-parallel";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new ParallelGZIPOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new ParallelGZIPInputStream(inputStream);
+    }
+}
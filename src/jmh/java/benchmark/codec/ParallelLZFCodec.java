@@ -0,0 +1,20 @@
+package benchmark.codec;
+
+import com.ning.compress.lzf.parallel.PLZFOutputStream;
+
+import java.io.OutputStream;
+
+/**
+ * {@link PLZFOutputStream}, the format is plain LZF so decompression uses {@link LZFCodec}'s stream.
+ */
+public class ParallelLZFCodec extends LZFCodec {
+    @Override
+    public String name() {
+        return "lzf-parallel";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) {
+        return new PLZFOutputStream(outputStream);
+    }
+}
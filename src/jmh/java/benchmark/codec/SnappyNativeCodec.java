@@ -0,0 +1,29 @@
+package benchmark.codec;
+
+import org.xerial.snappy.SnappyFramedInputStream;
+import org.xerial.snappy.SnappyFramedOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The Snappy framing format of {@link FramedSnappyCodec}, written and read by snappy-java, which calls the C++ Snappy
+ * library through JNI.
+ */
+public class SnappyNativeCodec implements Codec {
+    @Override
+    public String name() {
+        return "snappy-native";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new SnappyFramedOutputStream(outputStream);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new SnappyFramedInputStream(inputStream);
+    }
+}
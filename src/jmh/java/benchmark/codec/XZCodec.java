@@ -0,0 +1,55 @@
+package benchmark.codec;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZ;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * XZ streams with a CRC64 of the data, or with no check at all when the checksum is switched off.
+ */
+public class XZCodec implements Codec {
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(LZMA2Options.PRESET_MIN, LZMA2Options.PRESET_MAX)
+            .boxed().collect(Collectors.toList());
+
+    @Override
+    public String name() {
+        return "xz";
+    }
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return new XZCompressorOutputStream(outputStream, level == DEFAULT ? LZMA2Options.PRESET_DEFAULT : level);
+    }
+
+    @Override
+    public boolean hasOptionalChecksum() {
+        return true;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize, boolean checksum) throws IOException {
+        if (checksum) {
+            return compress(outputStream, level, blockSize);
+        }
+        return new XZOutputStream(outputStream, new LZMA2Options(level == DEFAULT ? LZMA2Options.PRESET_DEFAULT : level), XZ.CHECK_NONE);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new XZCompressorInputStream(inputStream);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark.codec;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * zstd-jni streams. Frames are written without the optional content checksum unless it is switched on.
+ */
+public class ZstdCodec implements Codec {
+    private static final int DEFAULT_LEVEL = 3;
+    private static final List<Integer> LEVELS = IntStream.rangeClosed(1, 22).boxed().collect(Collectors.toList());
+
+    @Override
+    public String name() {
+        return "zstd";
+    }
+
+    @Override
+    public List<Integer> levels() {
+        return LEVELS;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize) throws IOException {
+        return level == DEFAULT ? new ZstdOutputStream(outputStream) : new ZstdOutputStream(outputStream, level);
+    }
+
+    @Override
+    public boolean hasOptionalChecksum() {
+        return true;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream outputStream, int level, int blockSize, boolean checksum) throws IOException {
+        return new ZstdOutputStream(outputStream, level == DEFAULT ? DEFAULT_LEVEL : level, false, checksum);
+    }
+
+    @Override
+    public InputStream decompress(InputStream inputStream, int blockSize) throws IOException {
+        return new ZstdInputStream(inputStream);
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark.columnar;
+
+import benchmark.io.ByteArraySink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Returns the values of one column in the order {@link ColumnWriter} collected them.
+ */
+class ColumnReader {
+    private final Varints.Cursor strings;
+    private final Varints.Cursor indices;
+    private final Varints.Cursor numbers;
+    private final Varints.Cursor decimals;
+    private final Varints.Cursor literals;
+    private final byte[][] dictionary;
+    private long previousNumber;
+
+    /**
+     * @param sections the decompressed sections in container order
+     */
+    ColumnReader(int encoding, byte[][] sections) {
+        strings = new Varints.Cursor(sections[0]);
+        indices = new Varints.Cursor(sections[1]);
+        numbers = new Varints.Cursor(sections[2]);
+        decimals = new Varints.Cursor(sections[3]);
+        literals = new Varints.Cursor(sections[4]);
+
+        if (encoding == ColumnarFormat.DICTIONARY) {
+            final List<byte[]> entries = new ArrayList<>();
+            while (strings.hasRemaining()) {
+                entries.add(strings.bytes(strings.readInt()));
+            }
+            dictionary = entries.toArray(new byte[0][]);
+        } else {
+            dictionary = null;
+        }
+    }
+
+    void string(ByteArraySink sink) {
+        sink.write('"');
+        if (dictionary != null) {
+            final byte[] value = dictionary[indices.readInt()];
+            sink.write(value, 0, value.length);
+        } else {
+            strings.copy(strings.readInt(), sink);
+        }
+        sink.write('"');
+    }
+
+    void number(ByteArraySink sink) {
+        final long scaled = previousNumber + Varints.unzigzag(numbers.read());
+        previousNumber = scaled;
+        final int decimalCount = decimals.readByte();
+
+        final String digits = Long.toString(Math.abs(scaled));
+        if (scaled < 0) {
+            sink.write('-');
+        }
+        if (decimalCount == 0) {
+            write(digits, sink);
+            return;
+        }
+        final StringBuilder padded = new StringBuilder(decimalCount + 1);
+        for (int i = digits.length(); i <= decimalCount; i++) {
+            padded.append('0');
+        }
+        padded.append(digits);
+        padded.insert(padded.length() - decimalCount, '.');
+        write(padded, sink);
+    }
+
+    private static void write(CharSequence ascii, ByteArraySink sink) {
+        for (int i = 0; i < ascii.length(); i++) {
+            sink.write(ascii.charAt(i));
+        }
+    }
+
+    void literal(ByteArraySink sink) {
+        literals.copy(literals.readInt(), sink);
+    }
+}
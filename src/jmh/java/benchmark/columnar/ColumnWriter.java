@@ -0,0 +1,81 @@
+package benchmark.columnar;
+
+import benchmark.io.ByteArraySink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the values of one field into the sections of a column, see {@link ColumnarFormat}. Strings are written
+ * both plain and dictionary encoded until the dictionary outgrows {@value #MAX_DICTIONARY} entries, the dictionary is
+ * used if it holds at most a quarter as many entries as there are values.
+ */
+class ColumnWriter {
+    private static final int MAX_DICTIONARY = 1 << 16;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    final String name;
+    private final ByteArraySink strings = new ByteArraySink(INITIAL_CAPACITY);
+    private final ByteArraySink dictionary = new ByteArraySink(INITIAL_CAPACITY);
+    private final ByteArraySink indices = new ByteArraySink(INITIAL_CAPACITY);
+    private final ByteArraySink numbers = new ByteArraySink(INITIAL_CAPACITY);
+    private final ByteArraySink decimals = new ByteArraySink(INITIAL_CAPACITY);
+    private final ByteArraySink literals = new ByteArraySink(INITIAL_CAPACITY);
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+    private int stringCount;
+    private boolean dictionaryFull;
+    private long previousNumber;
+
+    ColumnWriter(String name) {
+        this.name = name;
+    }
+
+    void string(byte[] data, int start, int end) {
+        final int length = end - start;
+        Varints.write(strings, length);
+        strings.write(data, start, length);
+        stringCount++;
+
+        if (!dictionaryFull) {
+            final String value = new String(data, start, length, StandardCharsets.ISO_8859_1);
+            Integer id = dictionaryIds.get(value);
+            if (id == null) {
+                if (dictionaryIds.size() == MAX_DICTIONARY) {
+                    dictionaryFull = true;
+                    return;
+                }
+                id = dictionaryIds.size();
+                dictionaryIds.put(value, id);
+                Varints.write(dictionary, length);
+                dictionary.write(data, start, length);
+            }
+            Varints.write(indices, id);
+        }
+    }
+
+    void number(long scaled, int decimalCount) {
+        Varints.write(numbers, Varints.zigzag(scaled - previousNumber));
+        previousNumber = scaled;
+        decimals.write(decimalCount);
+    }
+
+    void literal(byte[] data, int start, int end) {
+        Varints.write(literals, end - start);
+        literals.write(data, start, end - start);
+    }
+
+    int encoding() {
+        return !dictionaryFull && dictionaryIds.size() * 4 <= stringCount ? ColumnarFormat.DICTIONARY : ColumnarFormat.PLAIN;
+    }
+
+    /**
+     * The sections in container order for {@link #encoding()}.
+     */
+    ByteArraySink[] sections() {
+        if (encoding() == ColumnarFormat.DICTIONARY) {
+            return new ByteArraySink[]{dictionary, indices, numbers, decimals, literals};
+        }
+        return new ByteArraySink[]{strings, new ByteArraySink(0), numbers, decimals, literals};
+    }
+}
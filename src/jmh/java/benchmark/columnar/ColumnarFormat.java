@@ -0,0 +1,53 @@
+package benchmark.columnar;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Layout of the field-wise container written by {@link ColumnarJson}. Integers of the container are big-endian,
+ * integers inside sections are unsigned LEB128 varints.
+ * <pre>
+ * header:  int MAGIC, UTF codec name, int line count, int column count
+ * section: int uncompressed length, int compressed length, compressed bytes (none if empty)
+ * body:    shapes section, shape ids section, raw lines section,
+ *          then per column: UTF field name, byte encoding (PLAIN or DICTIONARY), strings section,
+ *          indices section, numbers section, decimals section, literals section
+ * </pre>
+ * A shape is the template of a record: its structure, whitespace and keys, with one placeholder byte
+ * ({@link #STRING}, {@link #NUMBER} or {@link #LITERAL}) per value. The shapes section holds each distinct shape once as
+ * varint length, template bytes, varint value count and the varint column id of every value. The shape ids section
+ * holds one varint per line, 0 for a line stored verbatim in the raw lines section (varint length, bytes), otherwise
+ * the shape id plus 1.
+ * <p>
+ * Columns hold the values of one field, the key in front of them, in line order:
+ * <ul>
+ * <li>strings: with PLAIN the contents of every string value between its quotes, escapes as written, as varint
+ * length and bytes; with DICTIONARY the distinct values in that form and the indices section one varint index per
+ * value</li>
+ * <li>numbers: numbers written as plain decimals without exponent, leading zeros or negative zero, with their decimal
+ * point removed, as zigzag varint differences to the previous number of the column; the decimals section holds the
+ * count of digits after the point as one byte per number</li>
+ * <li>literals: {@code true}, {@code false}, {@code null} and other numbers as varint length and bytes</li>
+ * </ul>
+ * Every section is compressed on its own, so each column is compressed separately with the container's codec.
+ */
+public class ColumnarFormat {
+    public static final int MAGIC = 0x434f4c53; // "COLS"
+    public static final int PLAIN = 0;
+    public static final int DICTIONARY = 1;
+
+    public static final byte STRING = 1;
+    public static final byte NUMBER = 2;
+    public static final byte LITERAL = 3;
+
+    static void readHeader(DataInputStream inputStream, String codec) throws IOException {
+        final int magic = inputStream.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a columnar container, magic " + Integer.toHexString(magic));
+        }
+        final String name = inputStream.readUTF();
+        if (!name.equals(codec)) {
+            throw new IOException("Container was written with codec " + name + ", not " + codec);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package benchmark.columnar;
+
+import benchmark.codec.Codec;
+import benchmark.io.ByteArraySink;
+import benchmark.io.ByteArraySource;
+import benchmark.pool.CodecContexts;
+import benchmark.pool.PooledCodecs;
+import com.google.common.io.ByteStreams;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compresses newline-delimited JSON field by field instead of as one byte stream: each line is split into its shape,
+ * the structure and keys stored once per distinct shape, and its values, which go to one column per field. Numbers
+ * are delta encoded, so timestamps and sequence numbers shrink to a few bits, and repetitive string fields such as
+ * host names and levels become dictionary indices. Every section of the container is compressed separately with
+ * {@code codec} at {@code level}, see {@link ColumnarFormat} for the layout. As that opens a stream per section, the
+ * sections are written and read on {@link PooledCodecs#contexts(Codec, int)}, so xz and zstd do not set up their
+ * encoder for each one.
+ * <p>
+ * Decompression restores the document byte for byte, including whitespace, key order, number formatting, escapes and
+ * lines that are not JSON at all.
+ */
+public class ColumnarJson implements AutoCloseable {
+    private static final int SECTIONS_PER_COLUMN = 5;
+
+    private final Codec codec;
+    private final CodecContexts contexts;
+    private final ByteArraySink compressed = new ByteArraySink(1 << 16);
+
+    public ColumnarJson(Codec codec, int level) {
+        this.codec = codec;
+        this.contexts = PooledCodecs.contexts(codec, level);
+    }
+
+    /**
+     * Splits the document into its sections without compressing them and returns their total size, the cost of the
+     * split on its own.
+     */
+    public static long split(byte[] document, int length) {
+        final RecordSplitter splitter = splitter(document, length);
+        long size = splitter.shapes.size() + splitter.shapeIds.size() + splitter.rawLines.size();
+        for (ColumnWriter column : splitter.columns()) {
+            for (ByteArraySink section : column.sections()) {
+                size += section.size();
+            }
+        }
+        return size;
+    }
+
+    private static RecordSplitter splitter(byte[] document, int length) {
+        final RecordSplitter splitter = new RecordSplitter();
+        splitter.split(document, length);
+        return splitter;
+    }
+
+    public void compress(byte[] document, int length, OutputStream outputStream) throws IOException {
+        final RecordSplitter splitter = splitter(document, length);
+        final List<ColumnWriter> columns = splitter.columns();
+
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(ColumnarFormat.MAGIC);
+        out.writeUTF(codec.name());
+        out.writeInt(splitter.lines());
+        out.writeInt(columns.size());
+        writeSection(splitter.shapes, out);
+        writeSection(splitter.shapeIds, out);
+        writeSection(splitter.rawLines, out);
+        for (ColumnWriter column : columns) {
+            out.writeUTF(column.name);
+            out.writeByte(column.encoding());
+            for (ByteArraySink section : column.sections()) {
+                writeSection(section, out);
+            }
+        }
+        out.flush();
+    }
+
+    private void writeSection(ByteArraySink section, DataOutputStream out) throws IOException {
+        out.writeInt(section.size());
+        if (section.size() == 0) {
+            out.writeInt(0);
+            return;
+        }
+        compressed.reset();
+        try (final OutputStream outputStream = contexts.compress(compressed)) {
+            outputStream.write(section.buffer(), 0, section.size());
+        }
+        out.writeInt(compressed.size());
+        out.write(compressed.buffer(), 0, compressed.size());
+    }
+
+    public void decompress(InputStream inputStream, ByteArraySink sink) throws IOException {
+        final DataInputStream in = new DataInputStream(inputStream);
+        ColumnarFormat.readHeader(in, codec.name());
+        final int lines = in.readInt();
+        final int columnCount = in.readInt();
+        final Varints.Cursor shapeSection = new Varints.Cursor(readSection(in));
+        final Varints.Cursor shapeIds = new Varints.Cursor(readSection(in));
+        final Varints.Cursor rawLines = new Varints.Cursor(readSection(in));
+        final ColumnReader[] columns = new ColumnReader[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            in.readUTF();
+            final int encoding = in.readUnsignedByte();
+            final byte[][] sections = new byte[SECTIONS_PER_COLUMN][];
+            for (int j = 0; j < sections.length; j++) {
+                sections[j] = readSection(in);
+            }
+            columns[i] = new ColumnReader(encoding, sections);
+        }
+
+        final Shapes shapes = new Shapes(shapeSection);
+        for (int line = 0; line < lines; line++) {
+            if (line > 0) {
+                sink.write('\n');
+            }
+            final int shapeId = shapeIds.readInt() - 1;
+            if (shapeId < 0) {
+                rawLines.copy(rawLines.readInt(), sink);
+                continue;
+            }
+
+            final byte[] template = shapes.templates[shapeId];
+            final int[] columnsOfShape = shapes.columns[shapeId];
+            int slot = 0;
+            for (byte b : template) {
+                if (b == ColumnarFormat.STRING) {
+                    columns[columnsOfShape[slot++]].string(sink);
+                } else if (b == ColumnarFormat.NUMBER) {
+                    columns[columnsOfShape[slot++]].number(sink);
+                } else if (b == ColumnarFormat.LITERAL) {
+                    columns[columnsOfShape[slot++]].literal(sink);
+                } else {
+                    sink.write(b);
+                }
+            }
+        }
+    }
+
+    private byte[] readSection(DataInputStream in) throws IOException {
+        final byte[] section = new byte[in.readInt()];
+        final byte[] compressedSection = new byte[in.readInt()];
+        in.readFully(compressedSection);
+        if (section.length > 0) {
+            try (final InputStream inputStream = contexts.decompress(new ByteArraySource(compressedSection))) {
+                ByteStreams.readFully(inputStream, section);
+            }
+        }
+        return section;
+    }
+
+    /**
+     * Frees the idle codec contexts.
+     */
+    @Override
+    public void close() {
+        contexts.close();
+    }
+
+    /**
+     * The templates of the shapes section with the column of each of their values.
+     */
+    private static class Shapes {
+        private final byte[][] templates;
+        private final int[][] columns;
+
+        private Shapes(Varints.Cursor section) {
+            final List<byte[]> templateList = new ArrayList<>();
+            final List<int[]> columnList = new ArrayList<>();
+            while (section.hasRemaining()) {
+                templateList.add(section.bytes(section.readInt()));
+                final int[] columnsOfShape = new int[section.readInt()];
+                for (int i = 0; i < columnsOfShape.length; i++) {
+                    columnsOfShape[i] = section.readInt();
+                }
+                columnList.add(columnsOfShape);
+            }
+            templates = templateList.toArray(new byte[0][]);
+            columns = columnList.toArray(new int[0][]);
+        }
+    }
+}
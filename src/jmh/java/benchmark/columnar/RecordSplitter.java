@@ -0,0 +1,261 @@
+package benchmark.columnar;
+
+import benchmark.io.ByteArraySink;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the lines of one document into shapes and column values, see {@link ColumnarFormat}. A line is taken apart
+ * if it starts with an opening brace or bracket: string values, numbers and the words {@code true}, {@code false} and
+ * {@code null} become values, everything else including the keys stays in the shape. Values go to the column of
+ * their key, values in arrays to the column of the array's key, also after nested objects and arrays close. The scan
+ * does not validate the JSON, whatever it splits joins back to the same bytes, and lines it cannot split, such as ones
+ * with an unterminated string or a raw placeholder byte, are kept verbatim.
+ */
+class RecordSplitter {
+    private static final int MAX_DIGITS = 18;
+
+    final ByteArraySink shapes = new ByteArraySink(4096);
+    final ByteArraySink shapeIds = new ByteArraySink(4096);
+    final ByteArraySink rawLines = new ByteArraySink(4096);
+    private final Map<String, Integer> shapeIdsByTemplate = new HashMap<>();
+    private final List<int[]> shapeColumns = new ArrayList<>();
+    private final List<ColumnWriter> columns = new ArrayList<>();
+    private final Map<String, Integer> columnIds = new HashMap<>();
+    private int lines;
+
+    private final ByteArraySink template = new ByteArraySink(1024);
+    private int slots;
+    private byte[] slotKinds = new byte[64];
+    private int[] slotStarts = new int[64];
+    private int[] slotEnds = new int[64];
+    private long[] slotNumbers = new long[64];
+    private int[] slotDecimals = new int[64];
+    private String[] slotKeys = new String[64];
+    private String[] enclosingKeys = new String[16];
+
+    private long parsedNumber;
+    private int parsedDecimals;
+
+    void split(byte[] document, int length) {
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || document[i] == '\n') {
+                if (scan(document, start, i)) {
+                    addRecord(document);
+                } else {
+                    Varints.write(shapeIds, 0);
+                    Varints.write(rawLines, i - start);
+                    rawLines.write(document, start, i - start);
+                }
+                lines++;
+                start = i + 1;
+            }
+        }
+    }
+
+    int lines() {
+        return lines;
+    }
+
+    List<ColumnWriter> columns() {
+        return columns;
+    }
+
+    /**
+     * Scans one line into {@link #template} and the slot arrays, false if the line has to be kept verbatim.
+     */
+    private boolean scan(byte[] data, int start, int end) {
+        if (start == end || (data[start] != '{' && data[start] != '[')) {
+            return false;
+        }
+        template.reset();
+        slots = 0;
+        String key = "";
+        int depth = 0;
+        int i = start;
+        while (i < end) {
+            final byte b = data[i];
+            if (b == '"') {
+                int close = i + 1;
+                while (close < end && data[close] != '"') {
+                    if ((data[close] & 0xff) < 0x20) {
+                        return false;
+                    }
+                    close += data[close] == '\\' ? 2 : 1;
+                }
+                if (close >= end) {
+                    return false;
+                }
+                int next = close + 1;
+                while (next < end && (data[next] == ' ' || data[next] == '\t' || data[next] == '\r')) {
+                    next++;
+                }
+                if (next < end && data[next] == ':') {
+                    key = new String(data, i + 1, close - i - 1, StandardCharsets.ISO_8859_1);
+                    template.write(data, i, close + 1 - i);
+                } else {
+                    slot(ColumnarFormat.STRING, key, i + 1, close, 0, 0);
+                }
+                i = close + 1;
+            } else if (b == '-' || (b >= '0' && b <= '9')) {
+                int tokenEnd = i + 1;
+                while (tokenEnd < end && isNumberPart(data[tokenEnd])) {
+                    tokenEnd++;
+                }
+                if (parseNumber(data, i, tokenEnd)) {
+                    slot(ColumnarFormat.NUMBER, key, i, tokenEnd, parsedNumber, parsedDecimals);
+                } else {
+                    slot(ColumnarFormat.LITERAL, key, i, tokenEnd, 0, 0);
+                }
+                i = tokenEnd;
+            } else if (b >= 'a' && b <= 'z') {
+                int tokenEnd = i + 1;
+                while (tokenEnd < end && data[tokenEnd] >= 'a' && data[tokenEnd] <= 'z') {
+                    tokenEnd++;
+                }
+                slot(ColumnarFormat.LITERAL, key, i, tokenEnd, 0, 0);
+                i = tokenEnd;
+            } else if (b == ColumnarFormat.STRING || b == ColumnarFormat.NUMBER || b == ColumnarFormat.LITERAL) {
+                return false;
+            } else if (b == '{' || b == '[') {
+                // values after the object or array closes belong to the key it is the value of
+                if (depth == enclosingKeys.length) {
+                    enclosingKeys = Arrays.copyOf(enclosingKeys, depth * 2);
+                }
+                enclosingKeys[depth++] = key;
+                template.write(b);
+                i++;
+            } else if (b == '}' || b == ']') {
+                if (depth > 0) {
+                    key = enclosingKeys[--depth];
+                }
+                template.write(b);
+                i++;
+            } else {
+                template.write(b);
+                i++;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumberPart(byte b) {
+        return (b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+' || b == 'e' || b == 'E';
+    }
+
+    /**
+     * Parses plain decimals into {@link #parsedNumber} without the decimal point and {@link #parsedDecimals}, false
+     * for numbers that would not be written back the same way.
+     */
+    private boolean parseNumber(byte[] data, int start, int end) {
+        int i = start;
+        final boolean negative = data[i] == '-';
+        if (negative) {
+            i++;
+        }
+        final int integerStart = i;
+        while (i < end && data[i] >= '0' && data[i] <= '9') {
+            i++;
+        }
+        final int integerDigits = i - integerStart;
+        if (integerDigits == 0 || (integerDigits > 1 && data[integerStart] == '0')) {
+            return false;
+        }
+        int decimals = 0;
+        if (i < end && data[i] == '.') {
+            final int fractionStart = ++i;
+            while (i < end && data[i] >= '0' && data[i] <= '9') {
+                i++;
+            }
+            decimals = i - fractionStart;
+            if (decimals == 0) {
+                return false;
+            }
+        }
+        if (i != end || integerDigits + decimals > MAX_DIGITS) {
+            return false;
+        }
+
+        long value = 0;
+        for (int j = integerStart; j < end; j++) {
+            if (data[j] != '.') {
+                value = value * 10 + (data[j] - '0');
+            }
+        }
+        if (negative && value == 0) {
+            return false;
+        }
+        parsedNumber = negative ? -value : value;
+        parsedDecimals = decimals;
+        return true;
+    }
+
+    private void slot(byte kind, String key, int start, int end, long number, int decimals) {
+        if (slots == slotKinds.length) {
+            slotKinds = Arrays.copyOf(slotKinds, slots * 2);
+            slotStarts = Arrays.copyOf(slotStarts, slots * 2);
+            slotEnds = Arrays.copyOf(slotEnds, slots * 2);
+            slotNumbers = Arrays.copyOf(slotNumbers, slots * 2);
+            slotDecimals = Arrays.copyOf(slotDecimals, slots * 2);
+            slotKeys = Arrays.copyOf(slotKeys, slots * 2);
+        }
+        template.write(kind);
+        slotKinds[slots] = kind;
+        slotStarts[slots] = start;
+        slotEnds[slots] = end;
+        slotNumbers[slots] = number;
+        slotDecimals[slots] = decimals;
+        slotKeys[slots] = key;
+        slots++;
+    }
+
+    private void addRecord(byte[] data) {
+        final String key = new String(template.buffer(), 0, template.size(), StandardCharsets.ISO_8859_1);
+        Integer shapeId = shapeIdsByTemplate.get(key);
+        if (shapeId == null) {
+            shapeId = shapeColumns.size();
+            shapeIdsByTemplate.put(key, shapeId);
+            final int[] columnsOfShape = new int[slots];
+            for (int i = 0; i < slots; i++) {
+                columnsOfShape[i] = columnId(slotKeys[i]);
+            }
+            shapeColumns.add(columnsOfShape);
+
+            Varints.write(shapes, template.size());
+            shapes.write(template.buffer(), 0, template.size());
+            Varints.write(shapes, slots);
+            for (int column : columnsOfShape) {
+                Varints.write(shapes, column);
+            }
+        }
+        Varints.write(shapeIds, shapeId + 1);
+
+        final int[] columnsOfShape = shapeColumns.get(shapeId);
+        for (int i = 0; i < slots; i++) {
+            final ColumnWriter column = columns.get(columnsOfShape[i]);
+            if (slotKinds[i] == ColumnarFormat.STRING) {
+                column.string(data, slotStarts[i], slotEnds[i]);
+            } else if (slotKinds[i] == ColumnarFormat.NUMBER) {
+                column.number(slotNumbers[i], slotDecimals[i]);
+            } else {
+                column.literal(data, slotStarts[i], slotEnds[i]);
+            }
+        }
+    }
+
+    private int columnId(String name) {
+        Integer id = columnIds.get(name);
+        if (id == null) {
+            id = columns.size();
+            columnIds.put(name, id);
+            columns.add(new ColumnWriter(name));
+        }
+        return id;
+    }
+}
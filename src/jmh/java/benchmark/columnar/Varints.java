@@ -0,0 +1,74 @@
+package benchmark.columnar;
+
+import benchmark.io.ByteArraySink;
+
+/**
+ * Unsigned LEB128 varints and the zigzag mapping that keeps small negative numbers short.
+ */
+class Varints {
+    static void write(ByteArraySink sink, long value) {
+        while ((value & ~0x7fL) != 0) {
+            sink.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        sink.write((int) value);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a section front to back.
+     */
+    static class Cursor {
+        private final byte[] data;
+        private int position;
+
+        Cursor(byte[] data) {
+            this.data = data;
+        }
+
+        long read() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = data[position++];
+                value |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        int readInt() {
+            return (int) read();
+        }
+
+        int readByte() {
+            return data[position++] & 0xff;
+        }
+
+        /**
+         * Copies the next {@code length} bytes to {@code sink}.
+         */
+        void copy(int length, ByteArraySink sink) {
+            sink.write(data, position, length);
+            position += length;
+        }
+
+        byte[] bytes(int length) {
+            final byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package benchmark.corpus;
+
+import benchmark.codec.Codec;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolves the corpus files used by the benchmarks. Files live in the directory given by the
+ * {@code benchmark.corpus.dir} system property (set by the Gradle build) and are generated on first use
+ * if the {@code generateCorpus} task has not created them yet. Each {@link CorpusProvider} generates one kind of
+ * corpus, methods without a corpus name use {@link #DEFAULT}.
+ */
+public class Corpus {
+    public static final String DIRECTORY_PROPERTY = "benchmark.corpus.dir";
+    public static final String DEFAULT = "json";
+
+    private static final long MAX_SIZE = 1L << 30;
+
+    public static Path directory() {
+        return Paths.get(System.getProperty(DIRECTORY_PROPERTY, "build/corpus"));
+    }
+
+    /**
+     * Parses sizes such as {@code 512B}, {@code 64KB}, {@code 16MB} or {@code 1GB} (binary units).
+     */
+    public static long parseSize(String size) {
+        final String value = size.trim().toUpperCase(Locale.ROOT);
+        final long multiplier;
+        final String number;
+        if (value.endsWith("GB")) {
+            multiplier = 1L << 30;
+            number = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("MB")) {
+            multiplier = 1L << 20;
+            number = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("KB")) {
+            multiplier = 1L << 10;
+            number = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("B")) {
+            multiplier = 1L;
+            number = value.substring(0, value.length() - 1);
+        } else {
+            multiplier = 1L;
+            number = value;
+        }
+
+        final long bytes = Long.parseLong(number.trim()) * multiplier;
+        if (bytes <= 0 || bytes > MAX_SIZE) {
+            throw new IllegalArgumentException("Corpus size must be between 1 byte and 1GB: " + size);
+        }
+        return bytes;
+    }
+
+    /**
+     * Splits newline-delimited corpus data into its records, without the line terminators. Blank lines such as the
+     * padding at the end of the corpus are skipped.
+     */
+    public static byte[][] records(byte[] data) {
+        final List<byte[]> records = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                if (!isBlank(data, start, i)) {
+                    records.add(Arrays.copyOfRange(data, start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return records.toArray(new byte[0][]);
+    }
+
+    private static boolean isBlank(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data[i] != ' ' && data[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String fileName(String size) {
+        return fileName(DEFAULT, size);
+    }
+
+    /**
+     * Returns {@code corpus-<size>.<corpus>}, for the default corpus the {@code .json} extension matches the
+     * content.
+     */
+    public static String fileName(String corpus, String size) {
+        return "corpus-" + size + '.' + corpus;
+    }
+
+    public static URL plaintext(String size) throws IOException {
+        return plaintext(DEFAULT, size);
+    }
+
+    public static URL plaintext(String corpus, String size) throws IOException {
+        final CorpusProvider provider = CorpusProviders.get(corpus);
+        return resolve(fileName(corpus, size), outputStream -> provider.generate(outputStream, parseSize(size)));
+    }
+
+    public static URL fixture(String size, Codec codec, int level, int blockSize) throws IOException {
+        return fixture(DEFAULT, size, codec, level, blockSize);
+    }
+
+    /**
+     * Returns the URL of the given corpus and size compressed with {@code codec} at the given level and block
+     * size, as read by the decompression benchmarks.
+     */
+    public static URL fixture(String corpus, String size, Codec codec, int level, int blockSize) throws IOException {
+        final URL plaintext = plaintext(corpus, size);
+        return resolve(fixtureName(corpus, size, codec, level, blockSize), outputStream -> {
+            try (final InputStream inputStream = plaintext.openStream();
+                 final OutputStream compressedOutputStream = codec.compress(outputStream, level, blockSize)) {
+                ByteStreams.copy(inputStream, compressedOutputStream);
+            }
+        });
+    }
+
+    /**
+     * Returns whether {@link #fixture(String, String, Codec, int, int)} would find the fixture without generating it,
+     * for benchmarks that must not use the codec before measuring.
+     */
+    public static boolean hasFixture(String corpus, String size, Codec codec, int level, int blockSize) {
+        return Files.exists(directory().resolve(fixtureName(corpus, size, codec, level, blockSize)));
+    }
+
+    private static String fixtureName(String corpus, String size, Codec codec, int level, int blockSize) {
+        final StringBuilder fileName = new StringBuilder(fileName(corpus, size)).append('.').append(codec.name());
+        if (level != Codec.DEFAULT) {
+            fileName.append("-l").append(level);
+        }
+        if (blockSize != Codec.DEFAULT) {
+            fileName.append("-b").append(blockSize);
+        }
+        return fileName.toString();
+    }
+
+    /**
+     * Returns the URL of a file derived from the corpus of the given size, named
+     * {@code corpus-<size>.json.<suffix>} and written by {@code writer} on first use.
+     */
+    public static URL derived(String size, String suffix, Writer writer) throws IOException {
+        return resolve(fileName(size) + '.' + suffix, writer);
+    }
+
+    private static URL resolve(String fileName, Writer writer) throws IOException {
+        final Path path = directory().resolve(fileName);
+        if (!Files.exists(path)) {
+            synchronized (Corpus.class) {
+                if (!Files.exists(path)) {
+                    create(path, writer);
+                }
+            }
+        }
+        return path.toUri().toURL();
+    }
+
+    private static void create(Path path, Writer writer) throws IOException {
+        Files.createDirectories(path.getParent());
+        final Path tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (final OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                writer.write(outputStream);
+            }
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public interface Writer {
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,32 @@
+package benchmark.corpus;
+
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Generates the plaintext and the compressed fixture of every registered {@link Codec} at its default level and
+ * block size for the given corpora and sizes. Invoked by the {@code generateCorpus} Gradle task before {@code jmh}.
+ * <p>
+ * Usage: {@code CorpusFixtures <output directory> <corpus>[,<corpus>...] <size>...}
+ */
+public class CorpusFixtures {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: CorpusFixtures <output directory> <corpus>[,<corpus>...] <size>...");
+        }
+
+        System.setProperty(Corpus.DIRECTORY_PROPERTY, args[0]);
+
+        for (String corpus : args[1].split(",")) {
+            for (String size : Arrays.copyOfRange(args, 2, args.length)) {
+                Corpus.plaintext(corpus, size);
+                for (Codec codec : Codecs.all()) {
+                    Corpus.fixture(corpus, size, codec, Codec.DEFAULT, Codec.DEFAULT);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates newline-delimited JSON log messages. The output only depends on the requested size and every
+ * corpus is a prefix of any larger one (apart from the padding of its last line), so results for different
+ * sizes measure the same data shape.
+ */
+public class CorpusGenerator {
+    private static final long SEED = 0x6772_6179_6c6f_67L;
+    private static final long START_MILLIS = 1501545600000L; // 2017-08-01T00:00:00Z
+
+    private static final String[] HOSTS = {"web-01", "web-02", "web-03", "api-01", "api-02", "ingest-01", "ingest-02", "db-01"};
+    private static final String[] FACILITIES = {"nginx", "graylog-server", "sshd", "kernel", "postgres", "elasticsearch"};
+    private static final String[] LEVELS = {"DEBUG", "INFO", "INFO", "INFO", "WARN", "ERROR"};
+    private static final String[] METHODS = {"GET", "GET", "GET", "POST", "PUT", "DELETE"};
+    private static final String[] PATHS = {"/api/system", "/api/search/universal/relative", "/api/streams", "/api/cluster/metrics",
+            "/api/system/inputs", "/api/dashboards", "/gelf", "/api/users/admin"};
+    private static final int[] STATUS_CODES = {200, 200, 200, 200, 201, 204, 304, 400, 404, 500};
+    private static final String[] MESSAGES = {
+            "Accepted publickey for deploy from 10.0.%d.%d port %d ssh2",
+            "Connection reset by peer while reading response header from upstream, request id %d, attempt %d, shard %d",
+            "Index rotation completed, new active index graylog_%d with %d shards and %d replicas",
+            "GC pause (G1 Evacuation Pause) young, %d ms, heap %dM->%dM",
+            "checkpoint complete: wrote %d buffers; %d WAL file(s) added, %d removed",
+            "Processing %d messages from journal took %d ms, %d messages left",
+    };
+
+    private final Random random;
+    private final StringBuilder line = new StringBuilder(512);
+    private long timestamp = START_MILLIS;
+    private long sequence;
+
+    private CorpusGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void generate(OutputStream outputStream, long size) throws IOException {
+        generate(outputStream, size, SEED);
+    }
+
+    /**
+     * Generates messages of the same shape as the default corpus but with different values, e.g. to train
+     * dictionaries on data the benchmarks do not measure.
+     */
+    public static void generate(OutputStream outputStream, long size, long seed) throws IOException {
+        new CorpusGenerator(seed).write(outputStream, size);
+    }
+
+    private void write(OutputStream outputStream, long size) throws IOException {
+        // Whitespace is valid between JSON values, so the tail stays parseable line by line.
+        Records.write(outputStream, size, this::nextRecord, (byte) ' ', (byte) '\n');
+    }
+
+    private byte[] nextRecord() {
+        timestamp += random.nextInt(250);
+        sequence++;
+
+        final String facility = pick(FACILITIES);
+        final String host = pick(HOSTS);
+        final String level = pick(LEVELS);
+
+        line.setLength(0);
+        line.append("{\"version\":\"1.1\",\"host\":\"").append(host)
+                .append("\",\"timestamp\":").append(timestamp / 1000).append('.').append(String.format(Locale.ROOT, "%03d", timestamp % 1000))
+                .append(",\"level\":\"").append(level)
+                .append("\",\"_facility\":\"").append(facility)
+                .append("\",\"_sequence\":").append(sequence);
+
+        if ("nginx".equals(facility)) {
+            line.append(",\"_http_method\":\"").append(pick(METHODS))
+                    .append("\",\"_http_path\":\"").append(pick(PATHS))
+                    .append("\",\"_http_status\":").append(STATUS_CODES[random.nextInt(STATUS_CODES.length)])
+                    .append(",\"_http_bytes\":").append(random.nextInt(65536))
+                    .append(",\"_took_ms\":").append(random.nextInt(2000))
+                    .append(",\"_client_ip\":\"10.").append(random.nextInt(256)).append('.').append(random.nextInt(256)).append('.').append(random.nextInt(256))
+                    .append("\",\"_user_agent\":\"Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/60.0.").append(3000 + random.nextInt(200)).append(".90 Safari/537.36\"");
+        } else {
+            line.append(",\"short_message\":\"").append(String.format(Locale.ROOT, pick(MESSAGES), random.nextInt(256), random.nextInt(10000), random.nextInt(65536))).append('"');
+        }
+
+        line.append(",\"_trace_id\":\"").append(Long.toHexString(random.nextLong())).append(Long.toHexString(random.nextLong())).append("\"}\n");
+
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,18 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Generates one kind of benchmark data. The output must only depend on the requested size, so every run and every
+ * machine measures the same bytes. Implementations are discovered with {@link java.util.ServiceLoader}, see
+ * {@link CorpusProviders}, and their name selects them in the {@code corpus} benchmark parameter.
+ */
+public interface CorpusProvider {
+    String name();
+
+    /**
+     * Writes exactly {@code size} bytes to {@code outputStream}.
+     */
+    void generate(OutputStream outputStream, long size) throws IOException;
+}
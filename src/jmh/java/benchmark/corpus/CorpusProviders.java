@@ -0,0 +1,38 @@
+package benchmark.corpus;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of all {@link CorpusProvider} implementations found on the classpath.
+ */
+public class CorpusProviders {
+    private static final Map<String, CorpusProvider> PROVIDERS = load();
+
+    private static Map<String, CorpusProvider> load() {
+        final Map<String, CorpusProvider> providers = new LinkedHashMap<>();
+        for (CorpusProvider provider : ServiceLoader.load(CorpusProvider.class)) {
+            final CorpusProvider previous = providers.put(provider.name(), provider);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate corpus name " + provider.name() + ": "
+                        + previous.getClass().getName() + ", " + provider.getClass().getName());
+            }
+        }
+        return Collections.unmodifiableMap(providers);
+    }
+
+    public static Collection<CorpusProvider> all() {
+        return PROVIDERS.values();
+    }
+
+    public static CorpusProvider get(String name) {
+        final CorpusProvider provider = PROVIDERS.get(name);
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown corpus " + name + ", available: " + PROVIDERS.keySet());
+        }
+        return provider;
+    }
+}
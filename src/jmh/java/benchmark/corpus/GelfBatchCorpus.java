@@ -0,0 +1,112 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * GELF 1.1 batches as a log shipper posts them: one JSON array of up to {@value #MAX_BATCH} messages per line. Messages
+ * come from Java applications with logger and thread fields, errors carry their stack trace in {@code full_message},
+ * so lines are longer and more repetitive than in the JSON corpus.
+ */
+public class GelfBatchCorpus implements CorpusProvider {
+    private static final long SEED = 0x6765_6c66L;
+    private static final long START_MILLIS = 1501545600000L; // 2017-08-01T00:00:00Z
+    private static final int MAX_BATCH = 32;
+
+    private static final String[] HOSTS = {"graylog-01", "graylog-02", "graylog-03", "billing-01", "billing-02", "search-01"};
+    private static final String[] LOGGERS = {"org.graylog2.periodical.IndexRotationThread", "org.graylog2.shared.buffers.processors.ProcessBufferProcessor",
+            "org.graylog2.inputs.gelf.http.GELFHttpHandler", "com.example.billing.InvoiceService", "com.example.billing.PaymentGatewayClient",
+            "org.elasticsearch.client.transport.TransportClientNodesService"};
+    private static final String[] THREADS = {"main", "periodical-org.graylog2.periodical.IndexRotationThread-0", "processbufferprocessor-3",
+            "outputbufferprocessor-1", "http-nio-8080-exec-7", "scheduled-task-2"};
+    private static final String[] MESSAGES = {
+            "Processed batch of %d messages in %d ms",
+            "Invoice %d created for customer %d",
+            "Deflector index <graylog_%d> (version %d) points to <graylog_%d>",
+            "Payment gateway responded with status %d after %d ms",
+            "Node %d joined the cluster, %d nodes total",
+    };
+    private static final String[] EXCEPTIONS = {"java.net.SocketTimeoutException: Read timed out",
+            "java.lang.IllegalStateException: Connection pool shut down",
+            "org.elasticsearch.ElasticsearchTimeoutException: Timeout waiting for task."};
+    private static final String[] FRAMES = {"java.net.SocketInputStream.socketRead0(Native Method)",
+            "java.net.SocketInputStream.read(SocketInputStream.java:171)",
+            "org.apache.http.impl.io.SessionInputBufferImpl.fillBuffer(SessionInputBufferImpl.java:153)",
+            "org.apache.http.impl.conn.DefaultHttpResponseParser.parseHead(DefaultHttpResponseParser.java:140)",
+            "com.example.billing.PaymentGatewayClient.charge(PaymentGatewayClient.java:88)",
+            "com.example.billing.InvoiceService.settle(InvoiceService.java:212)",
+            "org.graylog2.indexer.cluster.Cluster.waitForConnectedAndDeflectorHealthy(Cluster.java:204)",
+            "java.util.concurrent.ThreadPoolExecutor.runWorker(ThreadPoolExecutor.java:1142)",
+            "java.lang.Thread.run(Thread.java:748)"};
+
+    @Override
+    public String name() {
+        return "gelf";
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        final Random random = new Random(SEED);
+        final StringBuilder line = new StringBuilder(16384);
+        final StringBuilder message = new StringBuilder(1024);
+        final long[] state = {START_MILLIS, 0};
+        Records.write(outputStream, size, () -> {
+            // like a shipper flushing at a byte limit, batches end early rather than overflow the corpus
+            final long remaining = size - state[1];
+            final int messages = 1 + random.nextInt(MAX_BATCH);
+            line.setLength(0);
+            line.append('[');
+            for (int i = 0; i < messages; i++) {
+                state[0] += random.nextInt(50);
+                message.setLength(0);
+                appendMessage(random, state[0], message);
+                if (i > 0 && line.length() + message.length() + 3 > remaining) {
+                    break;
+                }
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(message);
+            }
+            final byte[] batch = line.append("]\n").toString().getBytes(StandardCharsets.UTF_8);
+            state[1] += batch.length;
+            return batch;
+        }, (byte) ' ', (byte) '\n');
+    }
+
+    private static void appendMessage(Random random, long millis, StringBuilder line) {
+        final boolean error = random.nextInt(10) == 0;
+        line.append("{\"version\":\"1.1\",\"host\":\"").append(pick(random, HOSTS))
+                .append("\",\"short_message\":\"");
+        if (error) {
+            line.append(pick(random, EXCEPTIONS));
+        } else {
+            line.append(String.format(Locale.ROOT, pick(random, MESSAGES), random.nextInt(100000), random.nextInt(5000), random.nextInt(1000)));
+        }
+        line.append('"');
+
+        if (error) {
+            line.append(",\"full_message\":\"").append(pick(random, EXCEPTIONS));
+            final int first = random.nextInt(FRAMES.length / 2);
+            for (int frame = first; frame < FRAMES.length; frame++) {
+                line.append("\\n\\tat ").append(FRAMES[frame]);
+            }
+            line.append('"');
+        }
+
+        line.append(",\"timestamp\":").append(millis / 1000).append('.').append(String.format(Locale.ROOT, "%03d", millis % 1000))
+                .append(",\"level\":").append(error ? 3 : 6 + random.nextInt(2))
+                .append(",\"_logger\":\"").append(pick(random, LOGGERS))
+                .append("\",\"_thread\":\"").append(pick(random, THREADS))
+                .append("\",\"_pid\":").append(1000 + random.nextInt(8))
+                .append(",\"_request_id\":\"").append(String.format(Locale.ROOT, "%08x-%04x-%04x", random.nextInt(), random.nextInt(65536), random.nextInt(65536)))
+                .append("\"}");
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,20 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Newline-delimited JSON log messages from {@link CorpusGenerator}, the corpus of every benchmark without a
+ * {@code corpus} parameter.
+ */
+public class JsonCorpus implements CorpusProvider {
+    @Override
+    public String name() {
+        return Corpus.DEFAULT;
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        CorpusGenerator.generate(outputStream, size);
+    }
+}
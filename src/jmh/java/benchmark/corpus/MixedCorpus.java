@@ -0,0 +1,32 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A mix in the spirit of the Silesia corpus: whole files of different kinds concatenated, so a stream has to adapt
+ * from text to structured binary data to incompressible content. The parts are the syslog, JSON, protobuf and random
+ * corpora, taking 35, 25, 25 and 15 per cent of the size. Unlike the other corpora a smaller mix is not a prefix of
+ * a larger one.
+ */
+public class MixedCorpus implements CorpusProvider {
+    private static final int SYSLOG_SHARE = 35;
+    private static final int JSON_SHARE = 25;
+    private static final int PROTOBUF_SHARE = 25;
+
+    @Override
+    public String name() {
+        return "mixed";
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        final long syslog = size * SYSLOG_SHARE / 100;
+        final long json = size * JSON_SHARE / 100;
+        final long protobuf = size * PROTOBUF_SHARE / 100;
+        new SyslogCorpus().generate(outputStream, syslog);
+        new JsonCorpus().generate(outputStream, json);
+        new ProtobufCorpus().generate(outputStream, protobuf);
+        new RandomCorpus().generate(outputStream, size - syslog - json - protobuf);
+    }
+}
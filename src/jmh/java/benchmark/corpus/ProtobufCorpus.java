@@ -0,0 +1,110 @@
+package benchmark.corpus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Length-delimited protocol buffer messages, as written by {@code writeDelimitedTo}, encoding log events with this
+ * schema:
+ * <pre>
+ * message Event {
+ *   uint64 timestamp = 1;
+ *   string host = 2;
+ *   uint32 level = 3;
+ *   fixed64 trace_id = 4;
+ *   string message = 5;
+ *   repeated uint32 metrics = 6 [packed = true];
+ *   double latency = 7;
+ *   uint64 sequence = 8;
+ * }
+ * </pre>
+ * Varints, random fixed-width ids and doubles make this binary data with short redundant strings in between. The
+ * padding at the end consists of zero bytes, which are empty messages.
+ */
+public class ProtobufCorpus implements CorpusProvider {
+    private static final long SEED = 0x7072_6f74_6f62_7566L;
+    private static final long START_MILLIS = 1501545600000L; // 2017-08-01T00:00:00Z
+
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+
+    private static final String[] HOSTS = {"web-01", "web-02", "web-03", "api-01", "api-02", "ingest-01", "ingest-02", "db-01"};
+    private static final String[] MESSAGES = {"request completed", "cache miss for key %d", "retrying shard %d",
+            "journal segment %d committed", "user %d logged in"};
+
+    @Override
+    public String name() {
+        return "protobuf";
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        final Random random = new Random(SEED);
+        final ByteArrayOutputStream message = new ByteArrayOutputStream(256);
+        final ByteArrayOutputStream packed = new ByteArrayOutputStream(64);
+        final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+        final long[] state = {START_MILLIS, 0};
+        Records.write(outputStream, size, () -> {
+            state[0] += random.nextInt(250);
+            state[1]++;
+
+            message.reset();
+            tag(message, 1, VARINT);
+            varint(message, state[0]);
+            tag(message, 2, LENGTH_DELIMITED);
+            bytes(message, HOSTS[random.nextInt(HOSTS.length)].getBytes(StandardCharsets.UTF_8));
+            tag(message, 3, VARINT);
+            varint(message, random.nextInt(8));
+            tag(message, 4, FIXED64);
+            fixed64(message, random.nextLong());
+            tag(message, 5, LENGTH_DELIMITED);
+            bytes(message, String.format(Locale.ROOT, MESSAGES[random.nextInt(MESSAGES.length)], random.nextInt(100000)).getBytes(StandardCharsets.UTF_8));
+
+            packed.reset();
+            final int metrics = 2 + random.nextInt(15);
+            for (int i = 0; i < metrics; i++) {
+                varint(packed, random.nextInt(1 << (4 + random.nextInt(16))));
+            }
+            tag(message, 6, LENGTH_DELIMITED);
+            bytes(message, packed.toByteArray());
+
+            tag(message, 7, FIXED64);
+            fixed64(message, Double.doubleToLongBits(random.nextDouble() * random.nextInt(2000)));
+            tag(message, 8, VARINT);
+            varint(message, state[1]);
+
+            record.reset();
+            bytes(record, message.toByteArray());
+            return record.toByteArray();
+        }, (byte) 0, (byte) 0);
+    }
+
+    private static void tag(ByteArrayOutputStream outputStream, int field, int wireType) {
+        varint(outputStream, field << 3 | wireType);
+    }
+
+    private static void varint(ByteArrayOutputStream outputStream, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7fL) != 0) {
+            outputStream.write((int) (remaining & 0x7f) | 0x80);
+            remaining >>>= 7;
+        }
+        outputStream.write((int) remaining);
+    }
+
+    private static void fixed64(ByteArrayOutputStream outputStream, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            outputStream.write((int) (value >>> shift));
+        }
+    }
+
+    private static void bytes(ByteArrayOutputStream outputStream, byte[] value) {
+        varint(outputStream, value.length);
+        outputStream.write(value, 0, value.length);
+    }
+}
@@ -0,0 +1,29 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Uniformly random bytes, standing in for encrypted or already compressed payloads. No codec can shrink them, so
+ * results show each codec's overhead and how quickly it gives up on incompressible input.
+ */
+public class RandomCorpus implements CorpusProvider {
+    private static final long SEED = 0x7261_6e64_6f6dL;
+    private static final int CHUNK_SIZE = 8192;
+
+    @Override
+    public String name() {
+        return "random";
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        final Random random = new Random(SEED);
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        for (long remaining = size; remaining > 0; remaining -= chunk.length) {
+            random.nextBytes(chunk);
+            outputStream.write(chunk, 0, (int) Math.min(chunk.length, remaining));
+        }
+    }
+}
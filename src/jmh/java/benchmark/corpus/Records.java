@@ -0,0 +1,32 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Writes generated records up to an exact size.
+ */
+class Records {
+    /**
+     * Writes records from {@code records} while they fit into {@code size} bytes and fills the rest with
+     * {@code padding}, ending in {@code terminator}, so a corpus is a prefix of any larger one apart from its padding.
+     */
+    static void write(OutputStream outputStream, long size, Supplier<byte[]> records, byte padding, byte terminator) throws IOException {
+        long remaining = size;
+        while (remaining > 0) {
+            final byte[] record = records.get();
+            if (record.length <= remaining) {
+                outputStream.write(record);
+                remaining -= record.length;
+            } else {
+                final byte[] tail = new byte[(int) remaining];
+                Arrays.fill(tail, padding);
+                tail[tail.length - 1] = terminator;
+                outputStream.write(tail);
+                remaining = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark.corpus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * BSD syslog (RFC 3164) lines as forwarded by rsyslog: sshd, cron, kernel and postfix messages and nginx access logs
+ * in the combined format. Unlike the JSON corpus there are no repeated field names, so most of the redundancy is in
+ * the message templates.
+ */
+public class SyslogCorpus implements CorpusProvider {
+    private static final long SEED = 0x7379_736c_6f67L;
+    private static final long START_SECONDS = 1501545600L; // 2017-08-01T00:00:00Z
+
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final String[] HOSTS = {"web-01", "web-02", "web-03", "api-01", "api-02", "ingest-01", "ingest-02", "db-01"};
+    private static final String[] USERS = {"deploy", "root", "admin", "graylog", "backup"};
+    private static final String[] METHODS = {"GET", "GET", "GET", "POST", "PUT", "DELETE"};
+    private static final String[] PATHS = {"/api/system", "/api/search/universal/relative?query=source%3Aweb-01&range=300",
+            "/api/streams", "/api/cluster/metrics/multiple", "/api/system/inputs", "/api/dashboards", "/gelf", "/favicon.ico"};
+    private static final int[] STATUS_CODES = {200, 200, 200, 200, 201, 204, 304, 400, 404, 500};
+    private static final String[] AGENTS = {
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/60.0.3112.90 Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:55.0) Gecko/20100101 Firefox/55.0",
+            "curl/7.52.1", "Go-http-client/1.1", "Graylog Collector Sidecar/0.1.3"};
+    private static final String[] CRON_COMMANDS = {"run-parts --report /etc/cron.hourly", "/usr/lib/php/sessionclean",
+            "test -x /usr/sbin/anacron || ( cd / && run-parts --report /etc/cron.daily )", "/opt/graylog/bin/rotate-journal"};
+
+    @Override
+    public String name() {
+        return "syslog";
+    }
+
+    @Override
+    public void generate(OutputStream outputStream, long size) throws IOException {
+        final Random random = new Random(SEED);
+        final StringBuilder line = new StringBuilder(512);
+        final long[] seconds = {START_SECONDS};
+        Records.write(outputStream, size, () -> {
+            seconds[0] += random.nextInt(3);
+            line.setLength(0);
+            nextLine(random, seconds[0], line);
+            return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        }, (byte) ' ', (byte) '\n');
+    }
+
+    private static void nextLine(Random random, long seconds, StringBuilder line) {
+        final LocalDateTime time = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+        final int facility;
+        final int severity;
+        final String program;
+        final String message;
+        switch (random.nextInt(8)) {
+            case 0:
+            case 1:
+                facility = 4;
+                severity = 6;
+                program = "sshd";
+                message = random.nextInt(4) == 0
+                        ? String.format(Locale.ROOT, "Failed password for invalid user %s from %s port %d ssh2", pick(random, USERS), ip(random), 1024 + random.nextInt(64511))
+                        : String.format(Locale.ROOT, "Accepted publickey for %s from %s port %d ssh2: RSA SHA256:%08x%08x", pick(random, USERS), ip(random), 1024 + random.nextInt(64511), random.nextInt(), random.nextInt());
+                break;
+            case 2:
+                facility = 9;
+                severity = 6;
+                program = "CRON";
+                message = String.format(Locale.ROOT, "(%s) CMD (%s)", pick(random, USERS), pick(random, CRON_COMMANDS));
+                break;
+            case 3:
+                facility = 0;
+                severity = random.nextInt(3) == 0 ? 4 : 6;
+                program = "kernel";
+                message = String.format(Locale.ROOT, "[%d.%06d] %s", random.nextInt(2000000), random.nextInt(1000000), random.nextInt(2) == 0
+                        ? String.format(Locale.ROOT, "TCP: request_sock_TCP: Possible SYN flooding on port %d. Sending cookies.", 8000 + random.nextInt(10))
+                        : String.format(Locale.ROOT, "EXT4-fs (sda%d): re-mounted. Opts: errors=remount-ro", 1 + random.nextInt(4)));
+                break;
+            case 4:
+                facility = 2;
+                severity = 6;
+                program = "postfix/smtp";
+                message = String.format(Locale.ROOT, "%010X: to=<alerts@example.com>, relay=mail.example.com[%s]:25, delay=%.2f, dsn=2.0.0, status=sent (250 2.0.0 Ok: queued as %010X)",
+                        random.nextLong() & 0xff_ffff_ffffL, ip(random), random.nextInt(500) / 100.0, random.nextLong() & 0xff_ffff_ffffL);
+                break;
+            default:
+                facility = 16;
+                severity = 6;
+                program = "nginx";
+                message = String.format(Locale.ROOT, "%s - - [%02d/%s/%d:%02d:%02d:%02d +0000] \"%s %s HTTP/1.1\" %d %d \"-\" \"%s\"",
+                        ip(random), time.getDayOfMonth(), MONTHS[time.getMonthValue() - 1], time.getYear(), time.getHour(),
+                        time.getMinute(), time.getSecond(), pick(random, METHODS), pick(random, PATHS),
+                        STATUS_CODES[random.nextInt(STATUS_CODES.length)], random.nextInt(65536), pick(random, AGENTS));
+                break;
+        }
+
+        line.append('<').append(facility * 8 + severity).append('>')
+                .append(MONTHS[time.getMonthValue() - 1]).append(' ')
+                .append(String.format(Locale.ROOT, "%2d %02d:%02d:%02d ", time.getDayOfMonth(), time.getHour(), time.getMinute(), time.getSecond()))
+                .append(pick(random, HOSTS)).append(' ').append(program);
+        if (facility != 0) {
+            line.append('[').append(100 + random.nextInt(32000)).append(']');
+        }
+        line.append(": ").append(message);
+    }
+
+    private static String ip(Random random) {
+        return "10." + random.nextInt(256) + '.' + random.nextInt(256) + '.' + random.nextInt(256);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
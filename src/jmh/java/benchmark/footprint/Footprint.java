@@ -0,0 +1,54 @@
+package benchmark.footprint;
+
+/**
+ * What a set of open streams adds to the memory of the JVM, the difference of a {@link MemorySample} taken before the
+ * streams were opened and one taken while all of them are open. Memory the JVM needs without them is kept as
+ * {@link #jvmBytes()}.
+ * <p>
+ * The resident set of the process also grows with the committed heap, so the native memory is only accurate when the
+ * heap is committed and touched up front ({@code -Xms} equal to {@code -Xmx} with {@code -XX:+AlwaysPreTouch}).
+ */
+public class Footprint {
+    private final long heapBytes;
+    private final long directBytes;
+    private final long nativeBytes;
+    private final long jvmBytes;
+
+    public Footprint(MemorySample before, MemorySample after) {
+        heapBytes = Math.max(0, after.liveHeapBytes - before.liveHeapBytes);
+        directBytes = Math.max(0, after.directBytes - before.directBytes);
+        // direct buffers are resident as well
+        nativeBytes = Math.max(0, after.residentBytes - before.residentBytes - directBytes);
+        jvmBytes = before.residentBytes == 0 ? 0 : before.residentBytes - before.committedHeapBytes + before.liveHeapBytes;
+    }
+
+    /**
+     * Heap reachable from the streams after a full collection.
+     */
+    public long heapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Direct buffers allocated through {@link java.nio.ByteBuffer#allocateDirect(int)}.
+     */
+    public long directBytes() {
+        return directBytes;
+    }
+
+    /**
+     * Growth of the resident set apart from direct buffers, the memory of native codecs, 0 where the resident set is
+     * not available.
+     */
+    public long nativeBytes() {
+        return nativeBytes;
+    }
+
+    /**
+     * Resident memory of the JVM before the streams were opened, counting the live heap rather than the committed
+     * heap, 0 where the resident set is not available.
+     */
+    public long jvmBytes() {
+        return jvmBytes;
+    }
+}
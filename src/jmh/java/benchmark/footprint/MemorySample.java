@@ -0,0 +1,71 @@
+package benchmark.footprint;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The memory of this JVM at one point in time: the live heap after a full collection, the committed heap, the direct
+ * buffers and the resident set size of the process. The resident set covers everything that is not on the heap,
+ * including memory native libraries allocate themselves, which neither the heap pools nor native memory tracking see.
+ * It is read from {@code /proc/self/status}, so it is 0 on other platforms than Linux.
+ */
+public class MemorySample {
+    private static final Path STATUS = Paths.get("/proc/self/status");
+    private static final String RESIDENT = "VmRSS:";
+
+    final long liveHeapBytes;
+    final long committedHeapBytes;
+    final long directBytes;
+    final long residentBytes;
+
+    private MemorySample(long liveHeapBytes, long committedHeapBytes, long directBytes, long residentBytes) {
+        this.liveHeapBytes = liveHeapBytes;
+        this.committedHeapBytes = committedHeapBytes;
+        this.directBytes = directBytes;
+        this.residentBytes = residentBytes;
+    }
+
+    /**
+     * Collects garbage and samples. Only meaningful as a difference between two samples on an otherwise idle JVM.
+     */
+    public static MemorySample take() throws IOException {
+        System.gc();
+        // first, reading the file can allocate a temporary direct buffer
+        final long resident = residentBytes();
+        long liveHeap = 0;
+        long committedHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                liveHeap += pool.getCollectionUsage().getUsed();
+                committedHeap += pool.getUsage().getCommitted();
+            }
+        }
+        long direct = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                direct = pool.getMemoryUsed();
+            }
+        }
+        return new MemorySample(liveHeap, committedHeap, direct, resident);
+    }
+
+    private static long residentBytes() throws IOException {
+        if (!Files.isReadable(STATUS)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(STATUS, StandardCharsets.US_ASCII)) {
+            if (line.startsWith(RESIDENT)) {
+                // VmRSS:    123456 kB
+                return Long.parseLong(line.substring(RESIDENT.length()).replace("kB", "").trim()) * 1024;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,180 @@
+package benchmark.http;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The HTTP content codings the server can answer with, in the server's order of preference. {@code deflate} is the
+ * zlib format as RFC 7230 defines it, not raw deflate.
+ */
+public enum ContentEncoding {
+    ZSTD("zstd") {
+        @Override
+        public OutputStream encode(OutputStream outputStream) throws IOException {
+            return new ZstdOutputStream(outputStream);
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) throws IOException {
+            return new ZstdInputStream(inputStream);
+        }
+    },
+    GZIP("gzip") {
+        @Override
+        public OutputStream encode(OutputStream outputStream) throws IOException {
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) throws IOException {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+    },
+    DEFLATE("deflate") {
+        @Override
+        public OutputStream encode(OutputStream outputStream) {
+            return new DeflaterOutputStream(outputStream, new Deflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return new InflaterInputStream(inputStream, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        }
+    },
+    IDENTITY("identity") {
+        @Override
+        public OutputStream encode(OutputStream outputStream) {
+            return outputStream;
+        }
+
+        @Override
+        public InputStream decode(InputStream inputStream) {
+            return inputStream;
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * The content coding as it appears in {@code Accept-Encoding} and {@code Content-Encoding} headers.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Wraps {@code outputStream} so that what is written to the result is encoded, closing it closes
+     * {@code outputStream}.
+     */
+    public abstract OutputStream encode(OutputStream outputStream) throws IOException;
+
+    public abstract InputStream decode(InputStream inputStream) throws IOException;
+
+    /**
+     * Returns the coding of a {@code Content-Encoding} header, {@link #IDENTITY} if there is none.
+     */
+    public static ContentEncoding of(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.trim().isEmpty()) {
+            return IDENTITY;
+        }
+        for (ContentEncoding encoding : values()) {
+            if (encoding.token.equalsIgnoreCase(contentEncoding.trim())) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown content encoding " + contentEncoding + ", available: " + Arrays.toString(tokens()));
+    }
+
+    /**
+     * Chooses the response coding for an {@code Accept-Encoding} header: the coding with the highest quality value,
+     * on equal values the first in the server's order of preference. {@code identity} is acceptable unless it or
+     * {@code *} is listed with {@code q=0}, a missing header accepts only {@code identity}. Returns {@code null} if
+     * nothing is acceptable.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+
+        final double[] quality = new double[values().length];
+        Arrays.fill(quality, Double.NaN);
+        double wildcard = Double.NaN;
+        for (String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("*")) {
+                wildcard = q;
+            }
+            for (ContentEncoding encoding : values()) {
+                if (encoding.token.equals(coding)) {
+                    quality[encoding.ordinal()] = q;
+                }
+            }
+        }
+
+        ContentEncoding chosen = null;
+        double best = 0;
+        for (ContentEncoding encoding : values()) {
+            double q = quality[encoding.ordinal()];
+            if (Double.isNaN(q)) {
+                q = !Double.isNaN(wildcard) ? wildcard : encoding == IDENTITY ? Double.MIN_VALUE : 0;
+            }
+            if (q > best) {
+                best = q;
+                chosen = encoding;
+            }
+        }
+        return chosen;
+    }
+
+    private static String[] tokens() {
+        return Arrays.stream(values()).map(ContentEncoding::token).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,111 @@
+package benchmark.http;
+
+import benchmark.io.ByteArraySink;
+import benchmark.io.Streams;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.common.io.CountingOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Client of the {@link EncodingServer} endpoints over {@link HttpURLConnection}, which keeps connections alive as
+ * long as response bodies are read to the end. Each method returns the number of body bytes on the wire. Instances
+ * reuse their buffers and are not thread-safe.
+ */
+public class EncodingClient {
+    private final URL payload;
+    private final URL chunkedPayload;
+    private final URL ingest;
+    private final ByteArraySink encoded;
+    private final byte[] copyBuffer = new byte[8192];
+
+    public EncodingClient(URI server, int payloadLength) throws IOException {
+        this.payload = server.resolve("payload").toURL();
+        this.chunkedPayload = server.resolve("payload?transfer=chunked").toURL();
+        this.ingest = server.resolve("ingest").toURL();
+        this.encoded = new ByteArraySink(ByteArraySink.capacityFor(payloadLength));
+    }
+
+    /**
+     * Requests the payload in {@code encoding} and decodes the response into {@code sink}.
+     */
+    public long download(ContentEncoding encoding, boolean chunked, ByteArraySink sink) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) (chunked ? chunkedPayload : payload).openConnection();
+        connection.setRequestProperty("Accept-Encoding", encoding.token());
+        check(connection, HttpURLConnection.HTTP_OK);
+
+        final ContentEncoding responseEncoding = ContentEncoding.of(connection.getHeaderField("Content-Encoding"));
+        if (responseEncoding != encoding) {
+            throw new IOException("Server answered with " + responseEncoding.token() + " instead of " + encoding.token());
+        }
+        try (final CountingInputStream wire = new CountingInputStream(connection.getInputStream());
+             final InputStream inputStream = responseEncoding.decode(wire)) {
+            Streams.copy(inputStream, sink, copyBuffer);
+            // the encoder may end before the response does, the rest has to be read for the connection to be reused
+            ByteStreams.exhaust(wire);
+            return wire.getCount();
+        }
+    }
+
+    /**
+     * Sends {@code data} in {@code encoding}, with {@code chunked} as a chunked request streamed through the encoder,
+     * otherwise encoded into a buffer first and sent with a {@code Content-Length}. Returns the wire bytes once the
+     * server confirmed it decoded all of {@code data}.
+     */
+    public long upload(byte[] data, ContentEncoding encoding, boolean chunked) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) ingest.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        if (encoding != ContentEncoding.IDENTITY) {
+            connection.setRequestProperty("Content-Encoding", encoding.token());
+        }
+
+        final long length;
+        if (chunked) {
+            connection.setChunkedStreamingMode(EncodingServer.CHUNK_SIZE);
+            final CountingOutputStream wire = new CountingOutputStream(connection.getOutputStream());
+            try (final OutputStream outputStream = encoding.encode(wire)) {
+                for (int offset = 0; offset < data.length; offset += EncodingServer.CHUNK_SIZE) {
+                    outputStream.write(data, offset, Math.min(EncodingServer.CHUNK_SIZE, data.length - offset));
+                }
+            }
+            length = wire.getCount();
+        } else {
+            encoded.reset();
+            try (final OutputStream outputStream = encoding.encode(encoded)) {
+                outputStream.write(data);
+            }
+            connection.setFixedLengthStreamingMode(encoded.size());
+            try (final OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(encoded.buffer(), 0, encoded.size());
+            }
+            length = encoded.size();
+        }
+
+        check(connection, HttpURLConnection.HTTP_NO_CONTENT);
+        final String decodedLength = connection.getHeaderField(EncodingServer.DECODED_LENGTH);
+        if (decodedLength == null || Long.parseLong(decodedLength) != data.length) {
+            throw new IOException("Server decoded " + decodedLength + " of " + data.length + " bytes");
+        }
+        return length;
+    }
+
+    private static void check(HttpURLConnection connection, int status) throws IOException {
+        if (connection.getResponseCode() != status) {
+            try (final InputStream errorStream = connection.getErrorStream()) {
+                if (errorStream != null) {
+                    ByteStreams.exhaust(errorStream);
+                }
+            }
+            throw new IOException(connection.getRequestMethod() + ' ' + connection.getURL() + " answered "
+                    + connection.getResponseCode() + " instead of " + status);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package benchmark.http;
+
+import benchmark.io.ByteArraySink;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback {@link HttpServer} with two endpoints:
+ * <ul>
+ * <li>{@code GET /payload}: answers with the payload in the coding negotiated from {@code Accept-Encoding}, with
+ * {@code ?transfer=chunked} streamed through the encoder as a chunked response in pieces of {@link #CHUNK_SIZE}
+ * bytes, the way a serializer writes a large response, otherwise encoded into a buffer first and sent with a
+ * {@code Content-Length}</li>
+ * <li>{@code POST /ingest}: decodes the request body according to its {@code Content-Encoding} and answers
+ * {@code 204} with the decoded length in the {@code X-Decoded-Length} header</li>
+ * </ul>
+ * Requests are handled on a pool of {@code threads} threads. The server disables Nagle's algorithm through
+ * {@code sun.net.httpserver.nodelay}, unless that is set already, as it writes headers and body separately and
+ * small responses would otherwise wait for the client's delayed acknowledgement.
+ */
+public class EncodingServer implements Closeable {
+    public static final int CHUNK_SIZE = 8192;
+    public static final String DECODED_LENGTH = "X-Decoded-Length";
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+
+    private final byte[] payload;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public EncodingServer(byte[] payload, int threads) throws IOException {
+        if (System.getProperty(NODELAY) == null) {
+            // read once when the first server is created
+            System.setProperty(NODELAY, "true");
+        }
+        this.payload = payload;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/payload", this::payload);
+        server.createContext("/ingest", this::ingest);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI uri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ':' + server.getAddress().getPort() + '/');
+    }
+
+    private void payload(HttpExchange exchange) throws IOException {
+        try {
+            drain(exchange);
+            final ContentEncoding encoding = ContentEncoding.negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            if (encoding == null) {
+                exchange.sendResponseHeaders(406, -1);
+                return;
+            }
+            if (encoding != ContentEncoding.IDENTITY) {
+                exchange.getResponseHeaders().set("Content-Encoding", encoding.token());
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+
+            if ("transfer=chunked".equals(exchange.getRequestURI().getQuery())) {
+                exchange.sendResponseHeaders(200, 0);
+                try (final OutputStream outputStream = encoding.encode(exchange.getResponseBody())) {
+                    for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+                        outputStream.write(payload, offset, Math.min(CHUNK_SIZE, payload.length - offset));
+                    }
+                }
+            } else {
+                final ByteArraySink sink = new ByteArraySink(ByteArraySink.capacityFor(payload.length));
+                try (final OutputStream outputStream = encoding.encode(sink)) {
+                    outputStream.write(payload);
+                }
+                exchange.sendResponseHeaders(200, sink.size());
+                try (final OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(sink.buffer(), 0, sink.size());
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void ingest(HttpExchange exchange) throws IOException {
+        try {
+            final ContentEncoding encoding;
+            try {
+                encoding = ContentEncoding.of(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            } catch (IllegalArgumentException e) {
+                drain(exchange);
+                exchange.sendResponseHeaders(415, -1);
+                return;
+            }
+
+            final long length;
+            try (final InputStream inputStream = encoding.decode(exchange.getRequestBody())) {
+                length = ByteStreams.exhaust(inputStream);
+            }
+            exchange.getResponseHeaders().set(DECODED_LENGTH, Long.toString(length));
+            exchange.sendResponseHeaders(204, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (final InputStream inputStream = exchange.getRequestBody()) {
+            ByteStreams.exhaust(inputStream);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
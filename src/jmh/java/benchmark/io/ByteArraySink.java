@@ -0,0 +1,63 @@
+package benchmark.io;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Unsynchronized replacement for {@link java.io.ByteArrayOutputStream} that is sized once and reused via
+ * {@link #reset()}, so benchmarks do not measure repeated buffer growth and copying.
+ */
+public class ByteArraySink extends OutputStream {
+    private byte[] buffer;
+    private int size;
+
+    public ByteArraySink(int capacity) {
+        buffer = new byte[capacity];
+    }
+
+    /**
+     * Capacity that holds the output of any codec for {@code inputSize} bytes of input without growing, which
+     * covers incompressible data plus framing overhead.
+     */
+    public static int capacityFor(int inputSize) {
+        return inputSize + (inputSize >> 3) + (1 << 16);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, buffer, size, len);
+        size += len;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+        }
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The backing array, valid up to {@link #size()}.
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,18 @@
+package benchmark.io;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * {@link ByteArrayInputStream} that can be rewound to the start regardless of marks set by the streams reading it
+ * (commons-compress' gzip stream marks its input to push back unused bytes), so benchmarks can reuse one instance.
+ */
+public class ByteArraySource extends ByteArrayInputStream {
+    public ByteArraySource(byte[] buffer) {
+        super(buffer);
+    }
+
+    public void rewind() {
+        pos = 0;
+        mark = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package benchmark.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class Streams {
+    /**
+     * Like {@link com.google.common.io.ByteStreams#copy(InputStream, OutputStream)} but with a caller supplied
+     * buffer so that the copy loop itself does not allocate.
+     */
+    public static long copy(InputStream inputStream, OutputStream outputStream, byte[] buffer) throws IOException {
+        long total = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,20 @@
+package benchmark.journal;
+
+/**
+ * Layout of the journal segments written by {@link SegmentWriter}. All integers are big-endian.
+ * <pre>
+ * frame:   int compressed length, int uncompressed length, int number of records, compressed bytes   (repeated)
+ * batch:   per record: int record length, record bytes                                             (uncompressed)
+ * </pre>
+ * Every frame is one batch compressed as a complete stream of the codec, so a reader can skip from frame to frame
+ * without decompressing and recovery after a crash only has to drop a torn last frame. Segments have no header, the
+ * codec is part of the journal's configuration.
+ */
+public class SegmentFormat {
+    public static final int FRAME_HEADER_LENGTH = 3 * Integer.BYTES;
+    public static final String SUFFIX = ".segment";
+
+    static String fileName(long segment) {
+        return String.format("%020d%s", segment, SUFFIX);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark.journal;
+
+import benchmark.codec.Codec;
+import com.google.common.io.ByteStreams;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads back the records of the segments written by {@link SegmentWriter}, oldest segment first.
+ */
+public class SegmentReader {
+    public static List<byte[]> read(Path directory, Codec codec) throws IOException {
+        final List<Path> segments;
+        try (final Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(path -> path.getFileName().toString().endsWith(SegmentFormat.SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        final List<byte[]> records = new ArrayList<>();
+        for (Path segment : segments) {
+            try (final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+                while (readFrame(inputStream, codec, records)) {
+                    // next frame
+                }
+            }
+        }
+        return records;
+    }
+
+    private static boolean readFrame(DataInputStream inputStream, Codec codec, List<byte[]> records) throws IOException {
+        final int compressedLength;
+        try {
+            compressedLength = inputStream.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        final int uncompressedLength = inputStream.readInt();
+        final int frameRecords = inputStream.readInt();
+        final byte[] compressed = new byte[compressedLength];
+        inputStream.readFully(compressed);
+
+        final byte[] batch = new byte[uncompressedLength];
+        try (final InputStream batchInputStream = codec.decompress(new ByteArrayInputStream(compressed), Codec.DEFAULT)) {
+            if (ByteStreams.read(batchInputStream, batch, 0, batch.length) != batch.length) {
+                throw new EOFException("Frame is shorter than its " + batch.length + " bytes");
+            }
+        }
+
+        final DataInputStream batchInputStream = new DataInputStream(new ByteArrayInputStream(batch));
+        for (int i = 0; i < frameRecords; i++) {
+            final byte[] record = new byte[batchInputStream.readInt()];
+            batchInputStream.readFully(record);
+            records.add(record);
+        }
+        if (batchInputStream.available() > 0) {
+            throw new IOException("Frame holds more than its " + frameRecords + " records");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,186 @@
+package benchmark.journal;
+
+import benchmark.codec.Codec;
+import benchmark.io.ByteArraySink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Append-only journal in the {@link SegmentFormat}: records are collected into a batch until it holds
+ * {@code batchSize} bytes or its first record is {@code lingerNanos} old, then the batch is compressed with
+ * {@code codec}, written as one frame through a {@link FileChannel} and, with {@code fsync}, forced to disk before
+ * {@link #append(byte[])} returns. Segments are rolled once they reach {@code segmentSize} bytes and only the newest
+ * {@code retainedSegments} are kept, so a long run does not fill the disk.
+ * <p>
+ * Lingering is checked on every append, a writer that stops receiving records has to call
+ * {@link #flushIfLingering()} or {@link #flush()}. Not thread-safe.
+ */
+public class SegmentWriter implements Closeable {
+    private final Path directory;
+    private final Codec codec;
+    private final int level;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long segmentSize;
+    private final int retainedSegments;
+    private final boolean fsync;
+
+    private final ByteArraySink batch;
+    private final ByteArraySink compressed;
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(SegmentFormat.FRAME_HEADER_LENGTH);
+    private final ByteBuffer[] frame = new ByteBuffer[2];
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private FileChannel channel;
+    private long segmentPosition;
+    private int batchRecords;
+    private long batchStartNanos;
+
+    private long records;
+    private long batches;
+    private long uncompressedBytes;
+    private long bytesWritten;
+    private boolean closed;
+
+    public SegmentWriter(Path directory, Codec codec, int level, int batchSize, long lingerNanos, long segmentSize,
+                         int retainedSegments, boolean fsync) throws IOException {
+        if (batchSize <= 0 || segmentSize <= 0 || retainedSegments <= 0) {
+            throw new IllegalArgumentException("Batch size, segment size and retained segments must be positive");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.level = level;
+        this.batchSize = batchSize;
+        this.lingerNanos = lingerNanos;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        this.fsync = fsync;
+        this.batch = new ByteArraySink(batchSize + (1 << 16));
+        this.compressed = new ByteArraySink(ByteArraySink.capacityFor(batch.buffer().length));
+
+        Files.createDirectories(directory);
+        roll();
+    }
+
+    public void append(byte[] record) throws IOException {
+        if (batchRecords == 0) {
+            batchStartNanos = System.nanoTime();
+        }
+        batch.write(record.length >>> 24);
+        batch.write(record.length >>> 16);
+        batch.write(record.length >>> 8);
+        batch.write(record.length);
+        batch.write(record, 0, record.length);
+        batchRecords++;
+
+        if (batch.size() >= batchSize || System.nanoTime() - batchStartNanos >= lingerNanos) {
+            flush();
+        }
+    }
+
+    public void flushIfLingering() throws IOException {
+        if (batchRecords > 0 && System.nanoTime() - batchStartNanos >= lingerNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Compresses and writes the current batch, if any, as one frame.
+     */
+    public void flush() throws IOException {
+        if (batchRecords == 0) {
+            return;
+        }
+
+        compressed.reset();
+        try (final OutputStream outputStream = codec.compress(compressed, level, Codec.DEFAULT)) {
+            outputStream.write(batch.buffer(), 0, batch.size());
+        }
+        frameHeader.clear();
+        frameHeader.putInt(compressed.size()).putInt(batch.size()).putInt(batchRecords).flip();
+        frame[0] = frameHeader;
+        frame[1] = ByteBuffer.wrap(compressed.buffer(), 0, compressed.size());
+        final long frameLength = SegmentFormat.FRAME_HEADER_LENGTH + compressed.size();
+        while (frame[1].hasRemaining()) {
+            channel.write(frame);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+
+        records += batchRecords;
+        batches++;
+        uncompressedBytes += batch.size();
+        bytesWritten += frameLength;
+        segmentPosition += frameLength;
+        batch.reset();
+        batchRecords = 0;
+
+        if (segmentPosition >= segmentSize) {
+            roll();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        final Path segment = directory.resolve(SegmentFormat.fileName(records));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentPosition = 0;
+        segments.add(segment);
+        while (segments.size() > retainedSegments) {
+            Files.delete(segments.poll());
+        }
+    }
+
+    /**
+     * Records written in flushed batches.
+     */
+    public long records() {
+        return records;
+    }
+
+    public long batches() {
+        return batches;
+    }
+
+    /**
+     * Size of the flushed batches before compression, including the record length prefixes.
+     */
+    public long uncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    /**
+     * Bytes written to segments, frame headers included.
+     */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            flush();
+            if (fsync) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package benchmark.parity;
+
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+import java.io.IOException;
+
+/**
+ * aircompressor's zstd decoder, written in Java on top of {@code sun.misc.Unsafe} without native code. It has no
+ * encoder and only decompresses whole buffers.
+ */
+class AircompressorZstdDecoder implements Decoder {
+    private final ZstdDecompressor decompressor = new ZstdDecompressor();
+
+    @Override
+    public int decompress(byte[] source, byte[] destination) throws IOException {
+        try {
+            return decompressor.decompress(source, 0, source.length, destination, 0, destination.length);
+        } catch (MalformedInputException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package benchmark.parity;
+
+import java.io.IOException;
+
+/**
+ * Decompresses a complete compressed buffer whose uncompressed size is known, the common ground of stream codecs and
+ * decoders that only work on whole buffers.
+ */
+public interface Decoder {
+    /**
+     * Decompresses {@code source} into {@code destination}, which is exactly as long as the uncompressed data, and
+     * returns the number of bytes written.
+     */
+    int decompress(byte[] source, byte[] destination) throws IOException;
+}
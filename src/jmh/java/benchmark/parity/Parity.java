@@ -0,0 +1,66 @@
+package benchmark.parity;
+
+import benchmark.codec.Codecs;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups implementations by the format they read and write. Implementations are codec names plus
+ * {@value #ZSTD_JAVA}, which only decompresses:
+ * <table summary="Implementations by format">
+ * <tr><th>format</th><th>native code</th><th>Java</th></tr>
+ * <tr><td>gzip</td><td>gzip, gzip-commons, gzip-optimized, gzip-parallel (the JDK's zlib)</td><td>gzip-jzlib</td></tr>
+ * <tr><td>snappy-framed</td><td>snappy-native (snappy-java)</td><td>snappy (commons-compress)</td></tr>
+ * <tr><td>zstd</td><td>zstd (zstd-jni)</td><td>zstd-java (aircompressor, decoder only)</td></tr>
+ * <tr><td>lz4-block</td><td>lz4-native</td><td>lz4-safe, lz4-unsafe</td></tr>
+ * </table>
+ */
+public class Parity {
+    public static final String ZSTD_JAVA = "zstd-java";
+
+    private static final Map<String, List<String>> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put("gzip", Arrays.asList("gzip", "gzip-commons", "gzip-optimized", "gzip-parallel", "gzip-jzlib"));
+        FORMATS.put("snappy-framed", Arrays.asList("snappy", "snappy-native"));
+        FORMATS.put("zstd", Arrays.asList("zstd", ZSTD_JAVA));
+        FORMATS.put("lz4-block", Arrays.asList("lz4-safe", "lz4-unsafe", "lz4-native"));
+    }
+
+    public static String format(String implementation) {
+        for (Map.Entry<String, List<String>> format : FORMATS.entrySet()) {
+            if (format.getValue().contains(implementation)) {
+                return format.getKey();
+            }
+        }
+        throw new IllegalArgumentException("No format for " + implementation + ", available: " + FORMATS.values());
+    }
+
+    /**
+     * All implementations of {@code format}, including those that only decompress.
+     */
+    public static List<String> implementations(String format) {
+        return FORMATS.get(format);
+    }
+
+    public static boolean compresses(String implementation) {
+        return !ZSTD_JAVA.equals(implementation);
+    }
+
+    /**
+     * The whole-buffer decoders for zstd, both implementations decompress without a stream, and the codec's stream
+     * for all other formats.
+     */
+    public static Decoder decoder(String implementation) {
+        if (ZSTD_JAVA.equals(implementation)) {
+            return new AircompressorZstdDecoder();
+        }
+        if ("zstd".equals(implementation)) {
+            return new ZstdJniDecoder();
+        }
+        return new StreamDecoder(Codecs.get(implementation));
+    }
+}
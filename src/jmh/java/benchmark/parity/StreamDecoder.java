@@ -0,0 +1,36 @@
+package benchmark.parity;
+
+import benchmark.codec.Codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a {@link Codec}'s decompressing stream into the destination and checks that it ends there.
+ */
+class StreamDecoder implements Decoder {
+    private final Codec codec;
+
+    StreamDecoder(Codec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public int decompress(byte[] source, byte[] destination) throws IOException {
+        try (final InputStream inputStream = codec.decompress(new ByteArrayInputStream(source), Codec.DEFAULT)) {
+            int length = 0;
+            while (length < destination.length) {
+                final int read = inputStream.read(destination, length, destination.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+            if (inputStream.read() >= 0) {
+                throw new IOException(codec.name() + " decompressed more than " + destination.length + " bytes");
+            }
+            return length;
+        }
+    }
+}
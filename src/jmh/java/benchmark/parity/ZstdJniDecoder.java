@@ -0,0 +1,20 @@
+package benchmark.parity;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+
+/**
+ * zstd-jni's one-shot decompression of whole buffers, the counterpart of {@link AircompressorZstdDecoder} without the
+ * stream and the context a {@code ZstdInputStream} creates per call.
+ */
+class ZstdJniDecoder implements Decoder {
+    @Override
+    public int decompress(byte[] source, byte[] destination) throws IOException {
+        final long length = Zstd.decompress(destination, source);
+        if (Zstd.isError(length)) {
+            throw new IOException(Zstd.getErrorName(length));
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark.pipeline;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+/**
+ * AES-GCM encryption with a random 128 bit key per instance and a counter as nonce, so no nonce repeats under the
+ * key. Every encrypted message is the 12 byte nonce followed by the ciphertext and the 16 byte tag. Not thread-safe.
+ */
+public class AesGcm {
+    public static final int NONCE_LENGTH = 12;
+    public static final int TAG_LENGTH = 16;
+
+    private final SecretKey key;
+    private final Cipher cipher;
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+    private long counter;
+
+    public AesGcm() throws IOException {
+        try {
+            final KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(128);
+            key = keyGenerator.generateKey();
+            cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IOException("AES-GCM is not available", e);
+        }
+    }
+
+    /**
+     * Initializes the cipher for the next message with the next nonce, see {@link #nonce()}.
+     */
+    public Cipher encryptor() throws IOException {
+        ByteBuffer.wrap(nonce).putLong(NONCE_LENGTH - Long.BYTES, ++counter);
+        return init(Cipher.ENCRYPT_MODE, nonce);
+    }
+
+    /**
+     * The nonce of the current message, which has to be stored with the ciphertext. The array is reused by the next
+     * {@link #encryptor()} call.
+     */
+    public byte[] nonce() {
+        return nonce;
+    }
+
+    public Cipher decryptor(byte[] nonce) throws IOException {
+        return init(Cipher.DECRYPT_MODE, nonce);
+    }
+
+    private Cipher init(int mode, byte[] nonce) throws IOException {
+        try {
+            cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, nonce));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Initializing AES-GCM failed", e);
+        }
+    }
+
+    /**
+     * Encrypts {@code length} bytes of {@code source} into {@code destination}, which must hold
+     * {@link #encryptedLength(int)} bytes, and returns the encrypted length.
+     */
+    public int encrypt(byte[] source, int length, byte[] destination) throws IOException {
+        final Cipher encryptor = encryptor();
+        System.arraycopy(nonce, 0, destination, 0, NONCE_LENGTH);
+        try {
+            return NONCE_LENGTH + encryptor.doFinal(source, 0, length, destination, NONCE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Encrypting failed", e);
+        }
+    }
+
+    /**
+     * Decrypts and authenticates a message written by {@link #encrypt(byte[], int, byte[])} or a stream started with
+     * the nonce of {@link #encryptor()}.
+     */
+    public byte[] decrypt(byte[] message) throws IOException {
+        final byte[] messageNonce = new byte[NONCE_LENGTH];
+        System.arraycopy(message, 0, messageNonce, 0, NONCE_LENGTH);
+        try {
+            return decryptor(messageNonce).doFinal(message, NONCE_LENGTH, message.length - NONCE_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Decrypting failed", e);
+        }
+    }
+
+    public static int encryptedLength(int length) {
+        return NONCE_LENGTH + length + TAG_LENGTH;
+    }
+}
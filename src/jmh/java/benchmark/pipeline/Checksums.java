@@ -0,0 +1,65 @@
+package benchmark.pipeline;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import net.jpountz.xxhash.XXHashFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * The checksums a write pipeline can add to the compressed data, by the name used as the {@code checksum}
+ * benchmark parameter.
+ */
+public class Checksums {
+    public static final String NONE = "none";
+    private static final List<String> NAMES = Arrays.asList(NONE, "crc32", "crc32c", "xxhash64");
+
+    /**
+     * Returns a new checksum, {@code null} for {@link #NONE}.
+     */
+    public static Checksum create(String name) {
+        switch (name) {
+            case NONE:
+                return null;
+            case "crc32":
+                return new CRC32();
+            case "crc32c":
+                return new Crc32c();
+            case "xxhash64":
+                return XXHashFactory.fastestInstance().newStreamingHash64(0).asChecksum();
+            default:
+                throw new IllegalArgumentException("Unknown checksum " + name + ", available: " + NAMES);
+        }
+    }
+
+    /**
+     * CRC32C through Guava, as {@code java.util.zip.CRC32C} only exists from Java 9 on. Reading the value completes
+     * the hash, so it has to be reset before the next update.
+     */
+    private static class Crc32c implements Checksum {
+        private Hasher hasher = Hashing.crc32c().newHasher();
+
+        @Override
+        public void update(int b) {
+            hasher.putByte((byte) b);
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            hasher.putBytes(b, off, len);
+        }
+
+        @Override
+        public long getValue() {
+            return hasher.hash().padToLong();
+        }
+
+        @Override
+        public void reset() {
+            hasher = Hashing.crc32c().newHasher();
+        }
+    }
+}
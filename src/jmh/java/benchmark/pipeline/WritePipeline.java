@@ -0,0 +1,95 @@
+package benchmark.pipeline;
+
+import javax.crypto.CipherOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+
+/**
+ * The stages of a write after compression: an optional checksum of the compressed data, then optional AES-GCM
+ * encryption. Both the stream variant, wrapped around the destination of a compressing stream, and the buffer
+ * variant, applied to a compressed block, produce the same output for the same compressed data. Not thread-safe.
+ */
+public class WritePipeline {
+    private final String checksumName;
+    private final Checksum checksum;
+    private final AesGcm encryption;
+    private long value;
+
+    /**
+     * @param checksum   one of the names of {@link Checksums}
+     * @param encryption whether to encrypt with AES-GCM
+     */
+    public WritePipeline(String checksum, boolean encryption) throws IOException {
+        this.checksumName = checksum;
+        this.checksum = Checksums.create(checksum);
+        this.encryption = encryption ? new AesGcm() : null;
+    }
+
+    public boolean encrypts() {
+        return encryption != null;
+    }
+
+    /**
+     * Returns a stream that checksums and encrypts what is written to it into {@code outputStream}. The checksum is
+     * available from {@link #checksum()} once the stream is closed, closing also closes {@code outputStream}.
+     */
+    public OutputStream stream(OutputStream outputStream) throws IOException {
+        OutputStream stage = outputStream;
+        if (encryption != null) {
+            final CipherOutputStream cipherOutputStream = new CipherOutputStream(outputStream, encryption.encryptor());
+            outputStream.write(encryption.nonce());
+            stage = cipherOutputStream;
+        }
+        if (checksum != null) {
+            checksum.reset();
+            final OutputStream checksummed = stage;
+            stage = new CheckedOutputStream(checksummed, checksum) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    value = checksum.getValue();
+                }
+            };
+        }
+        return stage;
+    }
+
+    /**
+     * Checksums the first {@code length} bytes of {@code data} and, if this pipeline encrypts, encrypts them into
+     * {@code destination}, which must hold {@link AesGcm#encryptedLength(int)} bytes. Returns the length of the
+     * output, which is in {@code destination} if encrypted and left in {@code data} otherwise.
+     */
+    public int buffer(byte[] data, int length, byte[] destination) throws IOException {
+        if (checksum != null) {
+            checksum.reset();
+            checksum.update(data, 0, length);
+            value = checksum.getValue();
+        }
+        return encryption == null ? length : encryption.encrypt(data, length, destination);
+    }
+
+    /**
+     * Checksum of the data of the last write, 0 without a checksum.
+     */
+    public long checksum() {
+        return value;
+    }
+
+    /**
+     * Reverses the last write: decrypts and authenticates {@code output} if this pipeline encrypts and checks the
+     * compressed data against the checksum of the last write. Returns the compressed data.
+     */
+    public byte[] verify(byte[] output) throws IOException {
+        final byte[] data = encryption == null ? output : encryption.decrypt(output);
+        final Checksum check = Checksums.create(checksumName);
+        if (check != null) {
+            check.update(data, 0, data.length);
+            if (check.getValue() != value) {
+                throw new IOException(checksumName + " of the written data does not match");
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,22 @@
+package benchmark.pool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compressing and decompressing streams backed by pooled contexts. Closing a stream hands its context back for the
+ * next stream, or frees it if the context cannot be reset from where the stream left off. Thread-safe, each stream
+ * is confined to one thread.
+ */
+public interface CodecContexts extends AutoCloseable {
+    OutputStream compress(OutputStream outputStream) throws IOException;
+
+    InputStream decompress(InputStream inputStream) throws IOException;
+
+    /**
+     * Frees the idle contexts.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,80 @@
+package benchmark.pool;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe pool of reusable objects with reset semantics. {@link #acquire()} hands out an idle instance or creates
+ * a new one, {@link #release(Object)} resets an instance and keeps it for the next caller unless {@code maxIdle}
+ * instances are idle already, in which case it is disposed of like {@link #discard(Object)} does.
+ */
+public class Pool<T> implements AutoCloseable {
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final Consumer<T> dispose;
+    private final int maxIdle;
+    private final Deque<T> idle = new ArrayDeque<>();
+    private boolean closed;
+
+    public Pool(Supplier<T> factory, Consumer<T> reset, Consumer<T> dispose, int maxIdle) {
+        this.factory = factory;
+        this.reset = reset;
+        this.dispose = dispose;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Pool that keeps up to one idle instance per available processor.
+     */
+    public Pool(Supplier<T> factory, Consumer<T> reset, Consumer<T> dispose) {
+        this(factory, reset, dispose, Runtime.getRuntime().availableProcessors());
+    }
+
+    public T acquire() {
+        synchronized (idle) {
+            final T instance = idle.pollFirst();
+            if (instance != null) {
+                return instance;
+            }
+        }
+        return factory.get();
+    }
+
+    public void release(T instance) {
+        reset.accept(instance);
+        synchronized (idle) {
+            if (!closed && idle.size() < maxIdle) {
+                idle.addFirst(instance);
+                return;
+            }
+        }
+        dispose.accept(instance);
+    }
+
+    /**
+     * Disposes of an instance that is in an unknown state and must not be handed out again.
+     */
+    public void discard(T instance) {
+        dispose.accept(instance);
+    }
+
+    public int idle() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Disposes of all idle instances, instances still in use are disposed of when they are released.
+     */
+    @Override
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            idle.forEach(dispose);
+            idle.clear();
+        }
+    }
+}
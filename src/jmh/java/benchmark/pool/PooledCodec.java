@@ -0,0 +1,16 @@
+package benchmark.pool;
+
+/**
+ * A {@link benchmark.codec.Codec} format written and read through contexts that are reused across streams instead
+ * of being created and freed by every stream. Each implementation has the name of the codec whose format it reads and
+ * writes. Implementations are discovered with {@link java.util.ServiceLoader}, see {@link PooledCodecs}.
+ */
+public interface PooledCodec {
+    String name();
+
+    /**
+     * Creates an empty set of contexts for {@code level}, {@link benchmark.codec.Codec#DEFAULT} selects the level
+     * the codec's streams use by default.
+     */
+    CodecContexts create(int level);
+}
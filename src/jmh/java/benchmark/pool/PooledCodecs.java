@@ -0,0 +1,70 @@
+package benchmark.pool;
+
+import benchmark.codec.Codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of all {@link PooledCodec} implementations found on the classpath.
+ */
+public class PooledCodecs {
+    private static final Map<String, PooledCodec> CODECS = load();
+
+    private static Map<String, PooledCodec> load() {
+        final Map<String, PooledCodec> codecs = new LinkedHashMap<>();
+        for (PooledCodec codec : ServiceLoader.load(PooledCodec.class)) {
+            final PooledCodec previous = codecs.put(codec.name(), codec);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate pooled codec name " + codec.name() + ": "
+                        + previous.getClass().getName() + ", " + codec.getClass().getName());
+            }
+        }
+        return Collections.unmodifiableMap(codecs);
+    }
+
+    public static Collection<PooledCodec> all() {
+        return CODECS.values();
+    }
+
+    public static PooledCodec get(String name) {
+        final PooledCodec codec = CODECS.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown pooled codec " + name + ", available: " + CODECS.keySet());
+        }
+        return codec;
+    }
+
+    /**
+     * Contexts of the pooled implementation of {@code codec} at {@code level}, or the codec's own streams, which create
+     * their context each time, if it has none.
+     */
+    public static CodecContexts contexts(Codec codec, int level) {
+        final PooledCodec pooled = CODECS.get(codec.name());
+        if (pooled != null) {
+            return pooled.create(level);
+        }
+        return new CodecContexts() {
+            @Override
+            public OutputStream compress(OutputStream outputStream) throws IOException {
+                return codec.compress(outputStream, level, Codec.DEFAULT);
+            }
+
+            @Override
+            public InputStream decompress(InputStream inputStream) throws IOException {
+                return codec.decompress(inputStream, Codec.DEFAULT);
+            }
+
+            @Override
+            public void close() {
+                // the codec's streams free their own contexts
+            }
+        };
+    }
+}
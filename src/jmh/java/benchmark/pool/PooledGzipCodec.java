@@ -0,0 +1,232 @@
+package benchmark.pool;
+
+import benchmark.codec.Codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * The {@code gzip} format on pooled {@link Deflater}s and {@link Inflater}s, which {@code reset()} returns to their
+ * initial state from any point of a stream. {@link java.util.zip.GZIPOutputStream} and
+ * {@link java.util.zip.GZIPInputStream} always create and end their own, so the gzip header and trailer are written
+ * and checked here. Only single member files are read, as written by {@code GZIPOutputStream}, and the optional
+ * header CRC is skipped rather than verified.
+ */
+public class PooledGzipCodec implements PooledCodec {
+    private static final int BUFFER_SIZE = 512;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    @Override
+    public String name() {
+        return "gzip";
+    }
+
+    @Override
+    public CodecContexts create(int level) {
+        final int deflaterLevel = level == Codec.DEFAULT ? Deflater.DEFAULT_COMPRESSION : level;
+        final Pool<Deflater> deflaters = new Pool<>(() -> new Deflater(deflaterLevel, true), Deflater::reset, Deflater::end);
+        final Pool<Inflater> inflaters = new Pool<>(() -> new Inflater(true), Inflater::reset, Inflater::end);
+
+        return new CodecContexts() {
+            @Override
+            public OutputStream compress(OutputStream outputStream) throws IOException {
+                return new PooledGzipOutputStream(outputStream, deflaters);
+            }
+
+            @Override
+            public InputStream decompress(InputStream inputStream) throws IOException {
+                return new PooledGzipInputStream(inputStream, inflaters);
+            }
+
+            @Override
+            public void close() {
+                deflaters.close();
+                inflaters.close();
+            }
+        };
+    }
+
+    private static class PooledGzipOutputStream extends DeflaterOutputStream {
+        private final Pool<Deflater> pool;
+        private final CRC32 crc = new CRC32();
+        private boolean released;
+
+        PooledGzipOutputStream(OutputStream outputStream, Pool<Deflater> pool) throws IOException {
+            this(outputStream, pool, pool.acquire());
+        }
+
+        private PooledGzipOutputStream(OutputStream outputStream, Pool<Deflater> pool, Deflater deflater) throws IOException {
+            super(outputStream, deflater, BUFFER_SIZE);
+            this.pool = pool;
+            try {
+                outputStream.write(HEADER);
+            } catch (IOException e) {
+                release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished()) {
+                return;
+            }
+            super.finish();
+            writeInt((int) crc.getValue());
+            writeInt((int) def.getBytesRead());
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                pool.release(def);
+            }
+        }
+    }
+
+    private static class PooledGzipInputStream extends InflaterInputStream {
+        private final Pool<Inflater> pool;
+        private final CRC32 crc = new CRC32();
+        private boolean ended;
+        private boolean released;
+
+        PooledGzipInputStream(InputStream inputStream, Pool<Inflater> pool) throws IOException {
+            this(inputStream, pool, pool.acquire());
+        }
+
+        private PooledGzipInputStream(InputStream inputStream, Pool<Inflater> pool, Inflater inflater) throws IOException {
+            super(inputStream, inflater, BUFFER_SIZE);
+            this.pool = pool;
+            try {
+                readHeader();
+            } catch (IOException e) {
+                release();
+                throw e;
+            }
+        }
+
+        private void readHeader() throws IOException {
+            if (readUnsignedByte(in) != 0x1f || readUnsignedByte(in) != 0x8b) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (readUnsignedByte(in) != Deflater.DEFLATED) {
+                throw new ZipException("Unsupported compression method");
+            }
+            final int flags = readUnsignedByte(in);
+            skip(6);
+            if ((flags & FEXTRA) != 0) {
+                skip(readUnsignedByte(in) | readUnsignedByte(in) << 8);
+            }
+            if ((flags & FNAME) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FCOMMENT) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+        }
+
+        private void skip(int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                readUnsignedByte(in);
+            }
+        }
+
+        private void skipZeroTerminated() throws IOException {
+            int b;
+            do {
+                b = readUnsignedByte(in);
+            } while (b != 0);
+        }
+
+        private static int readUnsignedByte(InputStream inputStream) throws IOException {
+            final int b = inputStream.read();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of GZIP stream");
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (ended) {
+                return -1;
+            }
+            final int read = super.read(b, off, len);
+            if (read == -1) {
+                readTrailer();
+                ended = true;
+            } else {
+                crc.update(b, off, read);
+            }
+            return read;
+        }
+
+        /**
+         * The trailer starts in the part of the input buffer the inflater did not consume.
+         */
+        private void readTrailer() throws IOException {
+            int position = len - inf.getRemaining();
+            long trailer = 0;
+            for (int i = 0; i < 8; i++) {
+                final long b = position < len ? buf[position++] & 0xff : readUnsignedByte(in);
+                trailer |= b << (8 * i);
+            }
+            if ((int) trailer != (int) crc.getValue() || (int) (trailer >>> 32) != (int) inf.getBytesWritten()) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                pool.release(inf);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark.pool;
+
+import org.tukaani.xz.ArrayCache;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.LZMAInputStream;
+import org.tukaani.xz.LZMAOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The legacy {@code .lzma} format written with the preset commons-compress uses, with the same {@link ArrayCache}
+ * reuse as {@link PooledXZCodec}.
+ *
+ * @see benchmark.codec.LZMACodec
+ */
+public class PooledLZMACodec implements PooledCodec {
+    @Override
+    public String name() {
+        return "lzma";
+    }
+
+    @Override
+    public CodecContexts create(int level) {
+        final LZMA2Options options = PooledXZCodec.options(LZMA2Options.PRESET_DEFAULT);
+        final ArrayCache arrayCache = new BasicArrayCache();
+
+        return new CodecContexts() {
+            @Override
+            public OutputStream compress(OutputStream outputStream) throws IOException {
+                return new LZMAOutputStream(outputStream, options, -1, arrayCache);
+            }
+
+            @Override
+            public InputStream decompress(InputStream inputStream) throws IOException {
+                return new LZMAInputStream(inputStream, arrayCache);
+            }
+
+            @Override
+            public void close() {
+                // cached arrays are softly referenced and left to the garbage collector
+            }
+        };
+    }
+}
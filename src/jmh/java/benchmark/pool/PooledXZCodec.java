@@ -0,0 +1,59 @@
+package benchmark.pool;
+
+import benchmark.codec.Codec;
+import org.tukaani.xz.ArrayCache;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.UnsupportedOptionsException;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The {@code xz} format with one {@link LZMA2Options} instance per level and the encoder and decoder buffers, the
+ * dictionary and match finder arrays that make up most of xz's setup cost, taken from a {@link BasicArrayCache}.
+ * Streams return their arrays to the cache when they are finished or closed, {@code XZCodec} streams use the no-op
+ * default cache and allocate them every time.
+ *
+ * @see benchmark.codec.XZCodec
+ */
+public class PooledXZCodec implements PooledCodec {
+    @Override
+    public String name() {
+        return "xz";
+    }
+
+    @Override
+    public CodecContexts create(int level) {
+        final LZMA2Options options = options(level == Codec.DEFAULT ? LZMA2Options.PRESET_DEFAULT : level);
+        final ArrayCache arrayCache = new BasicArrayCache();
+
+        return new CodecContexts() {
+            @Override
+            public OutputStream compress(OutputStream outputStream) throws IOException {
+                return new XZOutputStream(outputStream, options, arrayCache);
+            }
+
+            @Override
+            public InputStream decompress(InputStream inputStream) throws IOException {
+                return new XZInputStream(inputStream, -1, arrayCache);
+            }
+
+            @Override
+            public void close() {
+                // cached arrays are softly referenced and left to the garbage collector
+            }
+        };
+    }
+
+    static LZMA2Options options(int preset) {
+        try {
+            return new LZMA2Options(preset);
+        } catch (UnsupportedOptionsException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package benchmark.pool;
+
+import benchmark.codec.Codec;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The {@code zstd} format on pooled native stream contexts. zstd-jni 1.3 cannot reset a context, instead each
+ * compression context is a {@link ZstdOutputStream} that ends a frame on {@code flush()} and starts the next frame on
+ * the same native stream, written to whichever output the current stream targets. Each decompression context is a
+ * {@link ZstdInputStream} whose input is replaced once it has read a whole frame, the native stream then starts over
+ * with the next input. A decompressing stream closed before the end of its frame frees its context.
+ */
+public class PooledZstdCodec implements PooledCodec {
+    private static final int DEFAULT_COMPRESSION_LEVEL = 3;
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final InputStream EMPTY = new ByteArrayInputStream(NO_BYTES);
+
+    @Override
+    public String name() {
+        return "zstd";
+    }
+
+    @Override
+    public CodecContexts create(int level) {
+        final int compressionLevel = level == Codec.DEFAULT ? DEFAULT_COMPRESSION_LEVEL : level;
+        final Pool<CompressionContext> compressors = new Pool<>(() -> new CompressionContext(compressionLevel),
+                context -> context.target.to(ByteStreams.nullOutputStream()), CompressionContext::close);
+        final Pool<DecompressionContext> decompressors = new Pool<>(DecompressionContext::create,
+                context -> context.source(EMPTY), DecompressionContext::free);
+
+        return new CodecContexts() {
+            @Override
+            public OutputStream compress(OutputStream outputStream) {
+                return new PooledZstdOutputStream(outputStream, compressors);
+            }
+
+            @Override
+            public InputStream decompress(InputStream inputStream) {
+                return new PooledZstdInputStream(inputStream, decompressors);
+            }
+
+            @Override
+            public void close() {
+                compressors.close();
+                decompressors.close();
+            }
+        };
+    }
+
+    private static class Target extends FilterOutputStream {
+        Target() {
+            super(ByteStreams.nullOutputStream());
+        }
+
+        void to(OutputStream outputStream) {
+            out = outputStream;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+    }
+
+    private static class CompressionContext {
+        private final Target target = new Target();
+        private final ZstdOutputStream zstdOutputStream;
+
+        CompressionContext(int level) {
+            try {
+                zstdOutputStream = new ZstdOutputStream(target, level, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            target.to(ByteStreams.nullOutputStream());
+            try {
+                zstdOutputStream.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class PooledZstdOutputStream extends OutputStream {
+        private final OutputStream outputStream;
+        private final Pool<CompressionContext> pool;
+        private CompressionContext context;
+
+        PooledZstdOutputStream(OutputStream outputStream, Pool<CompressionContext> pool) {
+            this.outputStream = outputStream;
+            this.pool = pool;
+            context = pool.acquire();
+            context.target.to(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            context.zstdOutputStream.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            context.zstdOutputStream.write(b, off, len);
+        }
+
+        /**
+         * Only flushes the output, flushing the zstd stream would end the frame.
+         */
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (context == null) {
+                return;
+            }
+            try {
+                // an empty write starts a frame if nothing was written, so empty input still yields an empty frame
+                context.zstdOutputStream.write(NO_BYTES, 0, 0);
+                context.zstdOutputStream.flush();
+                outputStream.close();
+                pool.release(context);
+            } catch (IOException | RuntimeException e) {
+                pool.discard(context);
+                throw e;
+            } finally {
+                context = null;
+            }
+        }
+    }
+
+    private static class DecompressionContext extends ZstdInputStream {
+        private DecompressionContext() throws IOException {
+            super(EMPTY);
+        }
+
+        static DecompressionContext create() {
+            try {
+                return new DecompressionContext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void source(InputStream inputStream) {
+            in = inputStream;
+        }
+
+        void free() {
+            source(EMPTY);
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class PooledZstdInputStream extends InputStream {
+        private final InputStream inputStream;
+        private final Pool<DecompressionContext> pool;
+        private DecompressionContext context;
+        private boolean ended;
+
+        PooledZstdInputStream(InputStream inputStream, Pool<DecompressionContext> pool) {
+            this.inputStream = inputStream;
+            this.pool = pool;
+            context = pool.acquire();
+            context.source(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = context.read();
+            ended = b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = context.read(b, off, len);
+            ended = read == -1;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (context == null) {
+                return;
+            }
+            try {
+                inputStream.close();
+            } finally {
+                if (ended) {
+                    pool.release(context);
+                } else {
+                    pool.discard(context);
+                }
+                context = null;
+            }
+        }
+    }
+}
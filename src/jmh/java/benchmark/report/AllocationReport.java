@@ -0,0 +1,101 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks benchmark results recorded with JMH's {@code gc} profiler by heap bytes allocated per megabyte (10^6 bytes)
+ * of uncompressed data, within groups of the same benchmark method and parameters apart from {@code codec}. The
+ * uncompressed size per operation comes from {@code CodecCounters}, results without it or without
+ * {@code gc.alloc.rate.norm} are skipped.
+ * <p>
+ * Usage: {@code AllocationReport <results.json> <report.md>}
+ */
+public class AllocationReport {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final String GC_COUNT = "gc.count";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AllocationReport <results.json> <report.md>");
+        }
+
+        final List<Row> rows = read(Paths.get(args[0]));
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(rows, out);
+        }
+        write(rows, System.out);
+    }
+
+    private static List<Row> read(Path results) throws IOException {
+        final List<Row> rows = new ArrayList<>();
+        for (JmhResult result : JmhResult.read(results)) {
+            final Double allocated = result.metrics.get(ALLOCATION);
+            final Double uncompressed = result.uncompressedBytes();
+            if (allocated == null || uncompressed == null || uncompressed == 0) {
+                continue;
+            }
+
+            final String codec = result.params.get("codec");
+            rows.add(new Row(result.method(), result.paramsWithout("codec").toString(), codec == null ? "-" : codec,
+                    allocated, allocated * 1e6 / uncompressed, result.metrics.getOrDefault(GC_COUNT, 0.0)));
+        }
+        return rows;
+    }
+
+    private static void write(List<Row> rows, PrintStream out) {
+        out.println("# Heap allocation per MB of uncompressed data");
+        out.println();
+        if (rows.isEmpty()) {
+            out.println("No results with " + ALLOCATION + ", run the benchmarks with -Pprofile or -Pprofilers=gc.");
+            return;
+        }
+
+        final Map<String, List<Row>> groups = rows.stream().collect(Collectors.groupingBy(
+                row -> row.benchmark + " " + row.params, TreeMap::new, Collectors.toList()));
+        for (Map.Entry<String, List<Row>> group : groups.entrySet()) {
+            out.println("## " + group.getKey());
+            out.println();
+            out.println("| rank | codec | bytes/MB | bytes/op | gc count |");
+            out.println("|---:|---|---:|---:|---:|");
+            final List<Row> ranked = new ArrayList<>(group.getValue());
+            ranked.sort(Comparator.comparingDouble(row -> row.bytesPerMegabyte));
+            for (int i = 0; i < ranked.size(); i++) {
+                final Row row = ranked.get(i);
+                out.println(String.format(Locale.ROOT, "| %d | %s | %,.0f | %,.0f | %.0f |",
+                        i + 1, row.codec, row.bytesPerMegabyte, row.bytesPerOperation, row.gcCount));
+            }
+            out.println();
+        }
+    }
+
+    private static class Row {
+        private final String benchmark;
+        private final String params;
+        private final String codec;
+        private final double bytesPerOperation;
+        private final double bytesPerMegabyte;
+        private final double gcCount;
+
+        Row(String benchmark, String params, String codec, double bytesPerOperation, double bytesPerMegabyte, double gcCount) {
+            this.benchmark = benchmark;
+            this.params = params;
+            this.codec = codec;
+            this.bytesPerOperation = bytesPerOperation;
+            this.bytesPerMegabyte = bytesPerMegabyte;
+            this.gcCount = gcCount;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark.report;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Writes the metrics derived from the {@code CodecCounters} totals of every result as JSON, next to the JMH result
+ * file, for scripts and dashboards that would otherwise divide the counters themselves:
+ * <ul>
+ * <li>{@code ratio}: uncompressed size divided by compressed size</li>
+ * <li>{@code mbPerSecond}: uncompressed megabytes (10^6 bytes) per second of all threads together</li>
+ * <li>{@code uncompressedBytesPerOperation}: the uncompressed size of one operation</li>
+ * <li>{@code retainedHeapBytes}: the heap retained per stream from {@code HeapCounters}, averaged over the forks,
+ * where recorded</li>
+ * </ul>
+ * Results without the counters are left out.
+ * <p>
+ * Usage: {@code CodecMetricsReport <results.json> <codec-metrics.json>}
+ */
+public class CodecMetricsReport {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CodecMetricsReport <results.json> <codec-metrics.json>");
+        }
+
+        final JsonArray metrics = toJson(JmhResult.read(Paths.get(args[0])));
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(metrics, writer);
+        }
+        System.out.println("Codec metrics of " + metrics.size() + " results written to " + report);
+    }
+
+    private static JsonArray toJson(List<JmhResult> results) {
+        final JsonArray array = new JsonArray();
+        for (JmhResult result : results) {
+            final Double ratio = result.ratio();
+            final Double mbPerSecond = result.mbPerSecond();
+            if (ratio == null || mbPerSecond == null) {
+                continue;
+            }
+
+            final JsonObject object = new JsonObject();
+            object.addProperty("benchmark", result.benchmark);
+            object.addProperty("mode", result.mode);
+            final JsonObject params = new JsonObject();
+            result.params.forEach(params::addProperty);
+            object.add("params", params);
+            object.addProperty("ratio", ratio);
+            object.addProperty("mbPerSecond", mbPerSecond);
+            object.addProperty("uncompressedBytesPerOperation", result.uncompressedBytes());
+            final Double retainedHeapBytes = result.perFork("retainedHeapBytes");
+            if (retainedHeapBytes != null) {
+                object.addProperty("retainedHeapBytes", retainedHeapBytes);
+            }
+            array.add(object);
+        }
+        return array;
+    }
+}
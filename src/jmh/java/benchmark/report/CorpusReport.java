@@ -0,0 +1,113 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compares codecs across corpora: for every benchmark method and parameters apart from {@code codec} and
+ * {@code corpus}, one table with a row per codec and a column per corpus holding the codec's rank by throughput on that
+ * corpus, its throughput in MB/s (10^6 uncompressed bytes) and its compression ratio. The last column is the
+ * difference between the codec's best and worst rank, codecs whose position depends on the data stand out there.
+ * Throughput and ratio come from {@code CodecCounters}, results without a {@code corpus} parameter or without the
+ * counters are skipped.
+ * <p>
+ * Usage: {@code CorpusReport <results.json> <report.md>}
+ */
+public class CorpusReport {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CorpusReport <results.json> <report.md>");
+        }
+
+        final Map<String, List<JmhResult>> groups = group(JmhResult.read(Paths.get(args[0])));
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(groups, out);
+        }
+        write(groups, System.out);
+    }
+
+    private static Map<String, List<JmhResult>> group(List<JmhResult> results) {
+        final Map<String, List<JmhResult>> groups = new TreeMap<>();
+        for (JmhResult result : results) {
+            if (result.params.containsKey("corpus") && result.mbPerSecond() != null && result.ratio() != null) {
+                groups.computeIfAbsent(result.method() + " " + result.paramsWithout("codec", "corpus"), key -> new ArrayList<>())
+                        .add(result);
+            }
+        }
+        return groups;
+    }
+
+    private static void write(Map<String, List<JmhResult>> groups, PrintStream out) {
+        out.println("# Codecs by corpus");
+        out.println();
+        if (groups.isEmpty()) {
+            out.println("No results with a corpus parameter, run CompressionBenchmark or DecompressionBenchmark.");
+            return;
+        }
+
+        for (Map.Entry<String, List<JmhResult>> group : groups.entrySet()) {
+            final Map<String, Map<String, JmhResult>> byCodec = new TreeMap<>();
+            final Map<String, List<JmhResult>> byCorpus = new LinkedHashMap<>();
+            for (JmhResult result : group.getValue()) {
+                byCodec.computeIfAbsent(codec(result), key -> new TreeMap<>()).put(result.params.get("corpus"), result);
+                byCorpus.computeIfAbsent(result.params.get("corpus"), key -> new ArrayList<>()).add(result);
+            }
+            final Map<JmhResult, Integer> ranks = new LinkedHashMap<>();
+            for (List<JmhResult> corpusResults : byCorpus.values()) {
+                corpusResults.sort(Comparator.comparingDouble((JmhResult result) -> result.mbPerSecond()).reversed());
+                for (int i = 0; i < corpusResults.size(); i++) {
+                    ranks.put(corpusResults.get(i), i + 1);
+                }
+            }
+            final TreeSet<String> corpora = new TreeSet<>(byCorpus.keySet());
+
+            out.println("## " + group.getKey());
+            out.println();
+            final StringBuilder header = new StringBuilder("| codec |");
+            final StringBuilder separator = new StringBuilder("|---|");
+            for (String corpus : corpora) {
+                header.append(' ').append(corpus).append(" |");
+                separator.append("---:|");
+            }
+            out.println(header.append(" rank spread |"));
+            out.println(separator.append("---:|"));
+
+            for (Map.Entry<String, Map<String, JmhResult>> codec : byCodec.entrySet()) {
+                final StringBuilder row = new StringBuilder("| ").append(codec.getKey()).append(" |");
+                int best = Integer.MAX_VALUE;
+                int worst = 0;
+                for (String corpus : corpora) {
+                    final JmhResult result = codec.getValue().get(corpus);
+                    if (result == null) {
+                        row.append(" - |");
+                        continue;
+                    }
+                    final int rank = ranks.get(result);
+                    best = Math.min(best, rank);
+                    worst = Math.max(worst, rank);
+                    row.append(String.format(Locale.ROOT, " #%d %,.1f MB/s %.2fx |", rank, result.mbPerSecond(), result.ratio()));
+                }
+                out.println(row.append(' ').append(worst - best).append(" |"));
+            }
+            out.println();
+        }
+    }
+
+    private static String codec(JmhResult result) {
+        final String codec = result.params.get("codec");
+        return codec == null ? "-" : codec;
+    }
+}
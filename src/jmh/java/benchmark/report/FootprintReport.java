@@ -0,0 +1,116 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Turns the counters of {@code FootprintBenchmark} into the memory per concurrent stream of each configuration and the
+ * number of streams that fit in a memory budget. Results of the same configuration with different {@code streams}
+ * are fitted with a line through the fewest and the most streams: its slope is the memory per stream, its intercept
+ * the memory the codec needs once. A configuration measured with one stream count only is taken as all per stream.
+ * <p>
+ * The streams that fit in the {@value #BUDGET_PROPERTY} system property (default {@value #DEFAULT_BUDGET}, with a
+ * {@code KB}, {@code MB} or {@code GB} suffix) are the budget less the resident memory of the idle JVM and the
+ * memory needed once, divided by the heap, direct and native memory per stream. Heap figures are live bytes, the
+ * maximum heap has to leave the garbage collector room on top of them, and the budget covers the codecs only, not the
+ * data the application keeps around them.
+ * <p>
+ * Usage: {@code FootprintReport <results.json> <report.md>}
+ */
+public class FootprintReport {
+    public static final String BUDGET_PROPERTY = "budget";
+
+    private static final String DEFAULT_BUDGET = "4GB";
+    private static final String[] KINDS = {"heapBytes", "directBytes", "nativeBytes"};
+    private static final String FORKS = "forks";
+    private static final double MEGABYTE = 1 << 20;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: FootprintReport <results.json> <report.md>");
+        }
+
+        final String budget = System.getProperty(BUDGET_PROPERTY, DEFAULT_BUDGET);
+        final Map<String, TreeMap<Integer, JmhResult>> configurations = read(Paths.get(args[0]));
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(configurations, budget, out);
+        }
+        write(configurations, budget, System.out);
+    }
+
+    /**
+     * Results with the footprint counters by configuration and stream count.
+     */
+    private static Map<String, TreeMap<Integer, JmhResult>> read(Path results) throws IOException {
+        final Map<String, TreeMap<Integer, JmhResult>> configurations = new TreeMap<>();
+        for (JmhResult result : JmhResult.read(results)) {
+            if (result.params.containsKey("streams") && result.metrics.getOrDefault(FORKS, 0.0) > 0
+                    && result.metrics.keySet().containsAll(Arrays.asList(KINDS))) {
+                configurations.computeIfAbsent(result.paramsWithout("streams").toString(), key -> new TreeMap<>())
+                        .put(Integer.parseInt(result.params.get("streams")), result);
+            }
+        }
+        return configurations;
+    }
+
+    private static void write(Map<String, TreeMap<Integer, JmhResult>> configurations, String budget, PrintStream out) {
+        final long budgetBytes = parseBytes(budget);
+        out.println("# Memory per concurrent stream");
+        out.println();
+        if (configurations.isEmpty()) {
+            out.println("No FootprintBenchmark results, run jmhFootprint first.");
+            return;
+        }
+
+        out.println("Megabytes (2^20 bytes) per open stream, fitted over the stream counts measured. Native memory is "
+                + "the growth of the resident set apart from direct buffers, 0 off Linux.");
+        out.println();
+        out.println("| configuration | streams measured | heap MB | direct MB | native MB | total MB | once MB | JVM MB | streams in " + budget + " |");
+        out.println("|---|---|---:|---:|---:|---:|---:|---:|---:|");
+        for (Map.Entry<String, TreeMap<Integer, JmhResult>> configuration : configurations.entrySet()) {
+            final TreeMap<Integer, JmhResult> byStreams = configuration.getValue();
+            final int fewest = byStreams.firstKey();
+            final int most = byStreams.lastKey();
+
+            final double[] perStream = new double[KINDS.length];
+            double once = 0;
+            for (int i = 0; i < KINDS.length; i++) {
+                final double atFewest = byStreams.get(fewest).perFork(KINDS[i]);
+                final double atMost = byStreams.get(most).perFork(KINDS[i]);
+                perStream[i] = fewest == most ? atMost / most : Math.max(0, (atMost - atFewest) / (most - fewest));
+                once += Math.max(0, atFewest - fewest * perStream[i]);
+            }
+            final double total = perStream[0] + perStream[1] + perStream[2];
+            final Double jvmPerFork = byStreams.get(fewest).perFork("jvmBytes");
+            final double jvm = jvmPerFork == null ? 0 : jvmPerFork;
+            final long fitting = total == 0 ? -1 : (long) Math.max(0, Math.floor((budgetBytes - jvm - once) / total));
+
+            out.println(String.format(Locale.ROOT, "| %s | %s | %,.1f | %,.1f | %,.1f | %,.1f | %,.1f | %,.1f | %s |",
+                    configuration.getKey(), byStreams.keySet(), perStream[0] / MEGABYTE, perStream[1] / MEGABYTE,
+                    perStream[2] / MEGABYTE, total / MEGABYTE, once / MEGABYTE, jvm / MEGABYTE,
+                    fitting < 0 ? "unlimited" : Long.toString(fitting)));
+        }
+        out.println();
+        out.println("Set the maximum heap to at least the streams times the heap per stream plus the collector's headroom.");
+    }
+
+    private static long parseBytes(String size) {
+        final String value = size.trim().toUpperCase(Locale.ROOT);
+        final String[] suffixes = {"GB", "MB", "KB"};
+        for (int i = 0; i < suffixes.length; i++) {
+            if (value.endsWith(suffixes[i])) {
+                return Long.parseLong(value.substring(0, value.length() - 2).trim()) << (10 * (suffixes.length - i));
+            }
+        }
+        return Long.parseLong(value.endsWith("B") ? value.substring(0, value.length() - 1).trim() : value);
+    }
+}
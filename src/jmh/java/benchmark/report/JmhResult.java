@@ -0,0 +1,246 @@
+package benchmark.report;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * One benchmark result of a JMH JSON result file.
+ */
+class JmhResult {
+    private static final String PROFILER_PREFIX = "\u00b7";
+
+    final String benchmark;
+    final String mode;
+    /**
+     * Version of the JDK that ran the benchmark, {@code null} if the file does not record it.
+     */
+    final String jdkVersion;
+    /**
+     * Threads per fork, which event counters are summed over.
+     */
+    final int threads;
+    final Map<String, String> params;
+    final double score;
+    final double scoreError;
+    final String scoreUnit;
+    final Map<String, Double> metrics;
+    /**
+     * Score percentiles by percentile from 0 to 100, only for the sample time mode.
+     */
+    final SortedMap<Double, Double> percentiles;
+    /**
+     * Count of samples by score over all forks and iterations, only for the sample time mode.
+     */
+    final SortedMap<Double, Long> histogram;
+    /**
+     * Score of every measurement iteration per fork, empty for the sample time mode.
+     */
+    final List<List<Double>> iterations;
+
+    private JmhResult(String benchmark, String mode, String jdkVersion, int threads, Map<String, String> params, double score, double scoreError, String scoreUnit,
+                      Map<String, Double> metrics, SortedMap<Double, Double> percentiles, SortedMap<Double, Long> histogram,
+                      List<List<Double>> iterations) {
+        this.benchmark = benchmark;
+        this.mode = mode;
+        this.jdkVersion = jdkVersion;
+        this.threads = threads;
+        this.params = params;
+        this.score = score;
+        this.scoreError = scoreError;
+        this.scoreUnit = scoreUnit;
+        this.metrics = metrics;
+        this.percentiles = percentiles;
+        this.histogram = histogram;
+        this.iterations = iterations;
+    }
+
+    static List<JmhResult> read(Path results) throws IOException {
+        final JsonArray array;
+        try (final Reader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+            array = new JsonParser().parse(reader).getAsJsonArray();
+        }
+
+        final List<JmhResult> list = new ArrayList<>();
+        for (JsonElement element : array) {
+            final JsonObject result = element.getAsJsonObject();
+            final Map<String, String> params = new TreeMap<>();
+            if (result.has("params")) {
+                for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                    params.put(param.getKey(), param.getValue().getAsString());
+                }
+            }
+            final JsonObject primaryMetric = result.getAsJsonObject("primaryMetric");
+            list.add(new JmhResult(result.get("benchmark").getAsString(), result.get("mode").getAsString(),
+                    result.has("jdkVersion") ? result.get("jdkVersion").getAsString() : null,
+                    result.has("threads") ? result.get("threads").getAsInt() : 1, params,
+                    primaryMetric.get("score").getAsDouble(), number(primaryMetric.get("scoreError")),
+                    primaryMetric.get("scoreUnit").getAsString(), secondaryMetrics(result), percentiles(primaryMetric),
+                    histogram(primaryMetric), iterations(primaryMetric)));
+        }
+        return list;
+    }
+
+    /**
+     * Secondary metrics by name, without the middle dot prefix JMH puts in front of profiler metrics.
+     */
+    private static Map<String, Double> secondaryMetrics(JsonObject result) {
+        final Map<String, Double> metrics = new LinkedHashMap<>();
+        if (result.has("secondaryMetrics")) {
+            for (Map.Entry<String, JsonElement> metric : result.getAsJsonObject("secondaryMetrics").entrySet()) {
+                final String name = metric.getKey().startsWith(PROFILER_PREFIX) ? metric.getKey().substring(1) : metric.getKey();
+                final double score = number(metric.getValue().getAsJsonObject().get("score"));
+                if (!Double.isNaN(score)) {
+                    metrics.put(name, score);
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private static SortedMap<Double, Double> percentiles(JsonObject primaryMetric) {
+        final SortedMap<Double, Double> percentiles = new TreeMap<>();
+        if (primaryMetric.has("scorePercentiles")) {
+            for (Map.Entry<String, JsonElement> percentile : primaryMetric.getAsJsonObject("scorePercentiles").entrySet()) {
+                percentiles.put(Double.parseDouble(percentile.getKey()), number(percentile.getValue()));
+            }
+        }
+        return percentiles;
+    }
+
+    /**
+     * Merges {@code rawDataHistogram}, which holds {@code [score, count]} pairs per iteration per fork.
+     */
+    private static SortedMap<Double, Long> histogram(JsonObject primaryMetric) {
+        final SortedMap<Double, Long> histogram = new TreeMap<>();
+        if (primaryMetric.has("rawDataHistogram")) {
+            for (JsonElement fork : primaryMetric.getAsJsonArray("rawDataHistogram")) {
+                for (JsonElement iteration : fork.getAsJsonArray()) {
+                    for (JsonElement pair : iteration.getAsJsonArray()) {
+                        final JsonArray scoreAndCount = pair.getAsJsonArray();
+                        histogram.merge(scoreAndCount.get(0).getAsDouble(), scoreAndCount.get(1).getAsLong(), Long::sum);
+                    }
+                }
+            }
+        }
+        return histogram;
+    }
+
+    private static List<List<Double>> iterations(JsonObject primaryMetric) {
+        final List<List<Double>> forks = new ArrayList<>();
+        if (primaryMetric.has("rawData")) {
+            for (JsonElement fork : primaryMetric.getAsJsonArray("rawData")) {
+                final List<Double> scores = new ArrayList<>();
+                for (JsonElement score : fork.getAsJsonArray()) {
+                    scores.add(number(score));
+                }
+                forks.add(scores);
+            }
+        }
+        return forks;
+    }
+
+    /**
+     * JMH writes {@code "NaN"} as a string where a score is undefined, such as the error of a single iteration.
+     */
+    private static double number(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()
+                ? element.getAsDouble() : Double.NaN;
+    }
+
+    /**
+     * The benchmark name without its package, {@code CompressionBenchmark.compress}.
+     */
+    String method() {
+        return benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+    }
+
+    /**
+     * Identifies the same benchmark and parameters across result files.
+     */
+    String key() {
+        return benchmark + " " + params;
+    }
+
+    /**
+     * True for throughput modes, whose unit is operations per time, false for the time per operation modes.
+     */
+    boolean higherIsBetter() {
+        return scoreUnit.startsWith("ops/");
+    }
+
+    /**
+     * Parameters without the given names, in name order.
+     */
+    Map<String, String> paramsWithout(String... names) {
+        final Map<String, String> remaining = new TreeMap<>(params);
+        for (String name : names) {
+            remaining.remove(name);
+        }
+        return remaining;
+    }
+
+    /**
+     * Uncompressed bytes per operation from the {@code uncompressedBytes} and {@code operations} totals of
+     * {@code CodecCounters}, null without the counters.
+     */
+    Double uncompressedBytes() {
+        final Double uncompressed = metrics.get("uncompressedBytes");
+        final Double operations = metrics.get("operations");
+        if (uncompressed == null || operations == null || operations == 0) {
+            return null;
+        }
+        return uncompressed / operations;
+    }
+
+    /**
+     * A counter published once per fork, such as a footprint measured in setup, averaged over the {@code forks}
+     * counter published with it, null without either.
+     */
+    Double perFork(String metric) {
+        final Double value = metrics.get(metric);
+        final Double forks = metrics.get("forks");
+        if (value == null || forks == null || forks == 0) {
+            return null;
+        }
+        return value / forks;
+    }
+
+    /**
+     * Uncompressed size divided by compressed size over all operations, null without {@code CodecCounters}.
+     */
+    Double ratio() {
+        final Double uncompressed = metrics.get("uncompressedBytes");
+        final Double compressed = metrics.get("compressedBytes");
+        if (uncompressed == null || compressed == null || compressed == 0) {
+            return null;
+        }
+        return uncompressed / compressed;
+    }
+
+    /**
+     * Uncompressed megabytes (10^6 bytes) per second of all threads together, null without {@code CodecCounters}. The
+     * elapsed time is summed over the threads like the bytes, so it is divided by their number.
+     */
+    Double mbPerSecond() {
+        final Double uncompressed = metrics.get("uncompressedBytes");
+        final Double elapsedNanos = metrics.get("elapsedNanos");
+        if (uncompressed == null || elapsedNanos == null || elapsedNanos == 0) {
+            return null;
+        }
+        return uncompressed * 1000 / (elapsedNanos / threads);
+    }
+}
@@ -0,0 +1,166 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Puts the results of the same benchmarks on two JVMs side by side, typically the Java 8 suite and the Java 17
+ * source set. Results are matched by benchmark, parameters and mode and grouped by benchmark method and parameters
+ * apart from {@code codec}. Every group gets one table with the score on each JVM, the speedup of the second JVM
+ * (positive when it is faster, whatever the mode) and the codec's rank on each JVM, groups whose ranking changes are
+ * listed first. Results that only exist on the second JVM, such as the benchmarks of APIs Java 8 does not have, follow
+ * in a table of their own.
+ * <p>
+ * Usage: {@code JvmComparisonReport <baseline.json> <results.json> <report.md>}
+ */
+public class JvmComparisonReport {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: JvmComparisonReport <baseline.json> <results.json> <report.md>");
+        }
+
+        final List<JmhResult> baseline = JmhResult.read(Paths.get(args[0]));
+        final List<JmhResult> results = JmhResult.read(Paths.get(args[1]));
+        final Path report = Paths.get(args[2]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(baseline, results, out);
+        }
+        write(baseline, results, System.out);
+    }
+
+    private static void write(List<JmhResult> baseline, List<JmhResult> results, PrintStream out) {
+        final String baselineJvm = jvm(baseline, "baseline");
+        final String resultsJvm = jvm(results, "results");
+        final Map<String, JmhResult> baselineByKey = new HashMap<>();
+        for (JmhResult result : baseline) {
+            baselineByKey.put(result.key() + " " + result.mode, result);
+        }
+
+        final Map<String, List<Pair>> groups = new TreeMap<>();
+        final List<JmhResult> unmatched = new ArrayList<>();
+        for (JmhResult result : results) {
+            final JmhResult before = baselineByKey.get(result.key() + " " + result.mode);
+            if (before == null) {
+                unmatched.add(result);
+            } else {
+                groups.computeIfAbsent(result.method() + " " + result.mode + " " + result.paramsWithout("codec"), key -> new ArrayList<>())
+                        .add(new Pair(before, result));
+            }
+        }
+
+        final Map<String, List<Pair>> changed = new LinkedHashMap<>();
+        final Map<String, List<Pair>> unchanged = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Pair>> group : groups.entrySet()) {
+            rank(group.getValue());
+            final boolean reordered = group.getValue().stream().anyMatch(pair -> pair.baselineRank != pair.rank);
+            (reordered ? changed : unchanged).put(group.getKey(), group.getValue());
+        }
+
+        out.println("# " + baselineJvm + " versus " + resultsJvm);
+        out.println();
+        if (groups.isEmpty() && unmatched.isEmpty()) {
+            out.println("No results to compare.");
+            return;
+        }
+        out.printf(Locale.ROOT, "%d of %d groups rank their codecs differently on %s.%n%n", changed.size(), groups.size(), resultsJvm);
+
+        if (!changed.isEmpty()) {
+            out.println("## Rankings that change");
+            out.println();
+            writeGroups(changed, baselineJvm, resultsJvm, out);
+        }
+        if (!unchanged.isEmpty()) {
+            out.println("## Rankings that stay the same");
+            out.println();
+            writeGroups(unchanged, baselineJvm, resultsJvm, out);
+        }
+        if (!unmatched.isEmpty()) {
+            unmatched.sort(Comparator.comparing(JmhResult::key));
+            out.println("## Only on " + resultsJvm);
+            out.println();
+            out.println("| benchmark | mode | params | score |");
+            out.println("|---|---|---|---:|");
+            for (JmhResult result : unmatched) {
+                out.printf(Locale.ROOT, "| %s | %s | %s | %s |%n", result.method(), result.mode, result.params, score(result));
+            }
+            out.println();
+        }
+    }
+
+    private static void writeGroups(Map<String, List<Pair>> groups, String baselineJvm, String resultsJvm, PrintStream out) {
+        for (Map.Entry<String, List<Pair>> group : groups.entrySet()) {
+            out.println("### " + group.getKey());
+            out.println();
+            out.println("| codec | " + baselineJvm + " | " + resultsJvm + " | speedup | rank |");
+            out.println("|---|---:|---:|---:|---:|");
+            final List<Pair> pairs = new ArrayList<>(group.getValue());
+            pairs.sort(Comparator.comparingInt(pair -> pair.rank));
+            for (Pair pair : pairs) {
+                out.printf(Locale.ROOT, "| %s | %s | %s | %+.1f%% | %s |%n", codec(pair.result), score(pair.baseline),
+                        score(pair.result), pair.speedup() * 100,
+                        pair.baselineRank == pair.rank ? Integer.toString(pair.rank) : pair.baselineRank + " -> " + pair.rank);
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * Ranks the pairs from the best score to the worst on each JVM.
+     */
+    private static void rank(List<Pair> pairs) {
+        final List<Pair> sorted = new ArrayList<>(pairs);
+        sorted.sort(Comparator.comparingDouble(pair -> pair.baseline.higherIsBetter() ? -pair.baseline.score : pair.baseline.score));
+        for (int i = 0; i < sorted.size(); i++) {
+            sorted.get(i).baselineRank = i + 1;
+        }
+        sorted.sort(Comparator.comparingDouble(pair -> pair.result.higherIsBetter() ? -pair.result.score : pair.result.score));
+        for (int i = 0; i < sorted.size(); i++) {
+            sorted.get(i).rank = i + 1;
+        }
+    }
+
+    private static String jvm(List<JmhResult> results, String fallback) {
+        return results.stream().filter(result -> result.jdkVersion != null).findFirst()
+                .map(result -> "Java " + result.jdkVersion).orElse(fallback);
+    }
+
+    private static String score(JmhResult result) {
+        return String.format(Locale.ROOT, "%,.3f %s", result.score, result.scoreUnit);
+    }
+
+    private static String codec(JmhResult result) {
+        final String codec = result.params.get("codec");
+        return codec == null ? "-" : codec;
+    }
+
+    private static class Pair {
+        private final JmhResult baseline;
+        private final JmhResult result;
+        private int baselineRank;
+        private int rank;
+
+        Pair(JmhResult baseline, JmhResult result) {
+            this.baseline = baseline;
+            this.result = result;
+        }
+
+        /**
+         * Relative improvement of the result over the baseline, positive when it is faster.
+         */
+        double speedup() {
+            return result.higherIsBetter() ? result.score / baseline.score - 1 : baseline.score / result.score - 1;
+        }
+    }
+}
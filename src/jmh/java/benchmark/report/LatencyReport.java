@@ -0,0 +1,141 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes results recorded in JMH's sample time mode, within groups of the same benchmark method and parameters
+ * apart from {@code codec} (or {@code encoding} for HTTP content codings): one table of latency percentiles per
+ * codec, ordered by p99, and one histogram of the share
+ * of samples per power of two of the latency, so a tail of outliers is visible next to the bulk of the samples.
+ * Results of other modes are skipped.
+ * <p>
+ * Usage: {@code LatencyReport <results.json> <report.md>}
+ */
+public class LatencyReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99, 100};
+    private static final double P99 = 99;
+    private static final String[] SERIES = {"codec", "encoding"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: LatencyReport <results.json> <report.md>");
+        }
+
+        final Map<String, List<JmhResult>> groups = new TreeMap<>();
+        for (JmhResult result : JmhResult.read(Paths.get(args[0]))) {
+            if (!result.histogram.isEmpty()) {
+                groups.computeIfAbsent(result.method() + " " + result.paramsWithout(SERIES), key -> new ArrayList<>()).add(result);
+            }
+        }
+
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(groups, out);
+        }
+        write(groups, System.out);
+    }
+
+    private static void write(Map<String, List<JmhResult>> groups, PrintStream out) {
+        out.println("# Latency percentiles");
+        out.println();
+        if (groups.isEmpty()) {
+            out.println("No sample time results, run the jmhLatency task or JMH with -bm sample.");
+            return;
+        }
+
+        for (Map.Entry<String, List<JmhResult>> group : groups.entrySet()) {
+            final List<JmhResult> results = new ArrayList<>(group.getValue());
+            results.sort(Comparator.comparingDouble(result -> result.percentiles.getOrDefault(P99, Double.NaN)));
+            final String unit = results.get(0).scoreUnit;
+
+            out.println("## " + group.getKey());
+            out.println();
+            final StringBuilder header = new StringBuilder("| codec | samples |");
+            final StringBuilder separator = new StringBuilder("|---|---:|");
+            for (double percentile : PERCENTILES) {
+                header.append(percentile == 100 ? " max" : " p" + format(percentile)).append(" (").append(unit).append(") |");
+                separator.append("---:|");
+            }
+            out.println(header);
+            out.println(separator);
+            for (JmhResult result : results) {
+                final StringBuilder row = new StringBuilder("| ").append(codec(result)).append(" | ").append(samples(result)).append(" |");
+                for (double percentile : PERCENTILES) {
+                    final Double value = result.percentiles.get(percentile);
+                    row.append(' ').append(value == null ? "-" : String.format(Locale.ROOT, "%,.1f", value)).append(" |");
+                }
+                out.println(row);
+            }
+            out.println();
+            writeHistogram(results, unit, out);
+        }
+    }
+
+    /**
+     * Share of samples with a latency in {@code [2^(i-1), 2^i)} per column i, from the smallest to the largest sample
+     * of the group.
+     */
+    private static void writeHistogram(List<JmhResult> results, String unit, PrintStream out) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (JmhResult result : results) {
+            first = Math.min(first, bucket(result.histogram.firstKey()));
+            last = Math.max(last, bucket(result.histogram.lastKey()));
+        }
+
+        final StringBuilder header = new StringBuilder("| codec |");
+        final StringBuilder separator = new StringBuilder("|---|");
+        for (int bucket = first; bucket <= last; bucket++) {
+            header.append(" <").append(format(Math.pow(2, bucket))).append(' ').append(unit).append(" |");
+            separator.append("---:|");
+        }
+        out.println(header);
+        out.println(separator);
+
+        for (JmhResult result : results) {
+            final long[] counts = new long[last - first + 1];
+            for (Map.Entry<Double, Long> sample : result.histogram.entrySet()) {
+                counts[bucket(sample.getKey()) - first] += sample.getValue();
+            }
+            final long samples = samples(result);
+            final StringBuilder row = new StringBuilder("| ").append(codec(result)).append(" |");
+            for (long count : counts) {
+                row.append(count == 0 ? "" : String.format(Locale.ROOT, " %.2f%%", count * 100.0 / samples)).append(" |");
+            }
+            out.println(row);
+        }
+        out.println();
+    }
+
+    private static int bucket(double value) {
+        return value <= 0 ? 0 : Math.getExponent(value) + 1;
+    }
+
+    private static long samples(JmhResult result) {
+        return result.histogram.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static String codec(JmhResult result) {
+        for (String series : SERIES) {
+            if (result.params.containsKey(series)) {
+                return result.params.get(series);
+            }
+        }
+        return "-";
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.format(Locale.ROOT, "%.0f", value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,354 @@
+package benchmark.report;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Post-processes a JMH result file in two parts:
+ * <ul>
+ * <li>The Pareto frontier of ratio against throughput: within groups of the same benchmark method and parameters
+ * apart from {@code codec}, {@code level} and {@code blockSize}, so one group per corpus and size, a configuration is
+ * dominated if another one is at least as fast and compresses at least as well, and also allocates no more per MB when
+ * both were recorded with the {@code gc} profiler. Throughput and ratio come from {@code CodecCounters}.</li>
+ * <li>A comparison with a baseline result file, if the {@value #BASELINE_PROPERTY} system property names an existing
+ * one: every benchmark present in both is compared by score, ratio and allocation per operation. A change for the
+ * worse by more than {@value #THRESHOLD_PROPERTY} per cent (default {@value #DEFAULT_THRESHOLD}) is a regression
+ * unless the score difference is within the sum of both score errors. Regressions are printed as a warning, or fail
+ * the run with exit code 1 if {@value #FAIL_PROPERTY} is {@code true}.</li>
+ * </ul>
+ * Both parts are written as markdown and as JSON, so scripts can answer whether an upgrade made things faster or
+ * slower without parsing the report.
+ * <p>
+ * Usage: {@code ParetoReport <results.json> <report.md> <report.json>}
+ */
+public class ParetoReport {
+    public static final String BASELINE_PROPERTY = "baseline";
+    public static final String THRESHOLD_PROPERTY = "regressionThreshold";
+    public static final String FAIL_PROPERTY = "failOnRegression";
+
+    private static final String DEFAULT_THRESHOLD = "10";
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final String[] CONFIGURATION = {"codec", "level", "blockSize"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: ParetoReport <results.json> <report.md> <report.json>");
+        }
+
+        final List<JmhResult> results = JmhResult.read(Paths.get(args[0]));
+        final Map<String, List<Point>> frontiers = frontiers(results);
+
+        final String baselineFile = System.getProperty(BASELINE_PROPERTY, "");
+        final Path baseline = baselineFile.isEmpty() ? null : Paths.get(baselineFile);
+        final double threshold = Double.parseDouble(System.getProperty(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+        final Comparison comparison = baseline != null && Files.exists(baseline)
+                ? compare(JmhResult.read(baseline), results, threshold) : null;
+
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(frontiers, baseline, comparison, out);
+        }
+        write(frontiers, baseline, comparison, System.out);
+
+        final Path json = Paths.get(args[2]);
+        Files.createDirectories(json.toAbsolutePath().getParent());
+        try (final Writer writer = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(toJson(frontiers, baseline, threshold, comparison), writer);
+        }
+
+        final long regressions = comparison == null ? 0 : comparison.count(Status.REGRESSION);
+        if (regressions > 0) {
+            System.err.println(String.format(Locale.ROOT, "WARNING: %d regressions of more than %s%% against %s, see %s",
+                    regressions, threshold, baseline, report));
+            if (Boolean.getBoolean(FAIL_PROPERTY)) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Map<String, List<Point>> frontiers(List<JmhResult> results) {
+        final Map<String, List<Point>> groups = new TreeMap<>();
+        for (JmhResult result : results) {
+            final Double throughput = result.mbPerSecond();
+            final Double ratio = result.ratio();
+            if (throughput == null || ratio == null) {
+                continue;
+            }
+            final Double allocated = result.metrics.get(ALLOCATION);
+            final Double uncompressed = result.uncompressedBytes();
+            final Double allocationPerMegabyte = allocated == null || uncompressed == null || uncompressed == 0
+                    ? null : allocated * 1e6 / uncompressed;
+            groups.computeIfAbsent(result.method() + " " + result.paramsWithout(CONFIGURATION), key -> new ArrayList<>())
+                    .add(new Point(result, configuration(result), throughput, ratio, allocationPerMegabyte));
+        }
+
+        for (List<Point> points : groups.values()) {
+            for (Point point : points) {
+                for (Point other : points) {
+                    if (other != point && other.dominates(point)) {
+                        point.dominatedBy.add(other.configuration);
+                    }
+                }
+            }
+            points.sort(Comparator.comparingDouble((Point point) -> point.throughput).reversed());
+        }
+        return groups;
+    }
+
+    private static String configuration(JmhResult result) {
+        final StringBuilder configuration = new StringBuilder(result.params.getOrDefault("codec", "-"));
+        final String level = result.params.get("level");
+        if (level != null && !"default".equals(level)) {
+            configuration.append(" level ").append(level);
+        }
+        final String blockSize = result.params.get("blockSize");
+        if (blockSize != null && !"default".equals(blockSize)) {
+            configuration.append(" block ").append(blockSize);
+        }
+        return configuration.toString();
+    }
+
+    private static Comparison compare(List<JmhResult> baseline, List<JmhResult> results, double threshold) {
+        final Map<String, JmhResult> previous = new LinkedHashMap<>();
+        for (JmhResult result : baseline) {
+            previous.put(result.key(), result);
+        }
+
+        final Comparison comparison = new Comparison();
+        for (JmhResult result : results) {
+            final JmhResult before = previous.remove(result.key());
+            if (before == null) {
+                comparison.added.add(result.key());
+                continue;
+            }
+
+            final double worse = result.higherIsBetter() ? before.score - result.score : result.score - before.score;
+            final double noise = before.scoreError + result.scoreError;
+            comparison.add(result, "score " + result.scoreUnit, before.score, result.score, worse,
+                    !Double.isNaN(noise) && Math.abs(worse) <= noise, threshold);
+
+            final Double ratioBefore = before.ratio();
+            final Double ratio = result.ratio();
+            if (ratioBefore != null && ratio != null) {
+                comparison.add(result, "ratio", ratioBefore, ratio, ratioBefore - ratio, false, threshold);
+            }
+
+            final Double allocatedBefore = before.metrics.get(ALLOCATION);
+            final Double allocated = result.metrics.get(ALLOCATION);
+            if (allocatedBefore != null && allocated != null) {
+                comparison.add(result, "B/op allocated", allocatedBefore, allocated, allocated - allocatedBefore, false, threshold);
+            }
+        }
+        comparison.missing.addAll(previous.keySet());
+        return comparison;
+    }
+
+    private static void write(Map<String, List<Point>> frontiers, Path baseline, Comparison comparison, PrintStream out) {
+        out.println("# Pareto frontier of ratio and throughput");
+        out.println();
+        if (frontiers.isEmpty()) {
+            out.println("No results with CodecCounters.");
+            out.println();
+        }
+        for (Map.Entry<String, List<Point>> group : frontiers.entrySet()) {
+            out.println("## " + group.getKey());
+            out.println();
+            out.println("| configuration | MB/s | ratio | bytes/MB allocated | frontier |");
+            out.println("|---|---:|---:|---:|---|");
+            for (Point point : group.getValue()) {
+                out.println(String.format(Locale.ROOT, "| %s | %,.1f | %.3f | %s | %s |", point.configuration, point.throughput,
+                        point.ratio, point.allocationPerMegabyte == null ? "-" : String.format(Locale.ROOT, "%,.0f", point.allocationPerMegabyte),
+                        point.dominatedBy.isEmpty() ? "yes" : "dominated by " + String.join(", ", point.dominatedBy)));
+            }
+            out.println();
+        }
+
+        out.println("# Changes against the baseline");
+        out.println();
+        if (comparison == null) {
+            out.println(baseline == null ? "No baseline configured." : "No baseline at " + baseline + ", store one with jmhSaveBaseline.");
+            return;
+        }
+        out.println(String.format(Locale.ROOT, "Baseline %s: %d comparisons, %d regressions, %d improvements, %d beyond the threshold "
+                        + "but within the score error, %d benchmarks only in the baseline, %d only in these results.",
+                baseline, comparison.changes.size(), comparison.count(Status.REGRESSION), comparison.count(Status.IMPROVEMENT),
+                comparison.count(Status.NOISE), comparison.missing.size(), comparison.added.size()));
+        out.println();
+        for (Status status : new Status[]{Status.REGRESSION, Status.IMPROVEMENT}) {
+            if (comparison.count(status) == 0) {
+                continue;
+            }
+            out.println("## " + (status == Status.REGRESSION ? "Regressions" : "Improvements"));
+            out.println();
+            out.println("| benchmark | parameters | metric | baseline | current | worse by |");
+            out.println("|---|---|---|---:|---:|---:|");
+            for (Change change : comparison.changes) {
+                if (change.status == status) {
+                    out.println(String.format(Locale.ROOT, "| %s | %s | %s | %s | %s | %.1f%% |", change.result.method(),
+                            change.result.params, change.metric, format(change.baseline), format(change.current), change.worsePercent));
+                }
+            }
+            out.println();
+        }
+    }
+
+    private static JsonObject toJson(Map<String, List<Point>> frontiers, Path baseline, double threshold, Comparison comparison) {
+        final JsonObject json = new JsonObject();
+        final JsonArray groups = new JsonArray();
+        for (Map.Entry<String, List<Point>> group : frontiers.entrySet()) {
+            final JsonArray points = new JsonArray();
+            for (Point point : group.getValue()) {
+                final JsonObject object = new JsonObject();
+                object.addProperty("configuration", point.configuration);
+                object.addProperty("mbPerSecond", point.throughput);
+                object.addProperty("ratio", point.ratio);
+                if (point.allocationPerMegabyte != null) {
+                    object.addProperty("allocatedBytesPerMB", point.allocationPerMegabyte);
+                }
+                object.addProperty("dominated", !point.dominatedBy.isEmpty());
+                final JsonArray dominatedBy = new JsonArray();
+                point.dominatedBy.forEach(dominatedBy::add);
+                object.add("dominatedBy", dominatedBy);
+                points.add(object);
+            }
+            final JmhResult result = group.getValue().get(0).result;
+            final JsonObject object = new JsonObject();
+            object.addProperty("benchmark", result.benchmark);
+            object.add("params", toJson(result.paramsWithout(CONFIGURATION)));
+            object.add("configurations", points);
+            groups.add(object);
+        }
+        json.add("frontiers", groups);
+
+        json.addProperty("threshold", threshold);
+        if (comparison != null) {
+            json.addProperty("baseline", baseline.toString());
+            json.addProperty("regressions", comparison.count(Status.REGRESSION));
+            json.addProperty("improvements", comparison.count(Status.IMPROVEMENT));
+            final JsonArray changes = new JsonArray();
+            for (Change change : comparison.changes) {
+                final JsonObject object = new JsonObject();
+                object.addProperty("benchmark", change.result.benchmark);
+                object.add("params", toJson(change.result.params));
+                object.addProperty("metric", change.metric);
+                object.addProperty("baseline", change.baseline);
+                object.addProperty("current", change.current);
+                object.addProperty("worsePercent", change.worsePercent);
+                object.addProperty("status", change.status.name());
+                changes.add(object);
+            }
+            json.add("changes", changes);
+            final JsonArray missing = new JsonArray();
+            comparison.missing.forEach(missing::add);
+            json.add("onlyInBaseline", missing);
+            final JsonArray added = new JsonArray();
+            comparison.added.forEach(added::add);
+            json.add("onlyInResults", added);
+        }
+        return json;
+    }
+
+    private static JsonObject toJson(Map<String, String> params) {
+        final JsonObject json = new JsonObject();
+        params.forEach(json::addProperty);
+        return json;
+    }
+
+    private static String format(double value) {
+        return Math.abs(value) >= 100 ? String.format(Locale.ROOT, "%,.0f", value) : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private enum Status {
+        UNCHANGED, NOISE, REGRESSION, IMPROVEMENT
+    }
+
+    private static class Point {
+        private final JmhResult result;
+        private final String configuration;
+        private final double throughput;
+        private final double ratio;
+        private final Double allocationPerMegabyte;
+        private final Set<String> dominatedBy = new TreeSet<>();
+
+        Point(JmhResult result, String configuration, double throughput, double ratio, Double allocationPerMegabyte) {
+            this.result = result;
+            this.configuration = configuration;
+            this.throughput = throughput;
+            this.ratio = ratio;
+            this.allocationPerMegabyte = allocationPerMegabyte;
+        }
+
+        boolean dominates(Point other) {
+            final boolean compareAllocation = allocationPerMegabyte != null && other.allocationPerMegabyte != null;
+            if (throughput < other.throughput || ratio < other.ratio
+                    || compareAllocation && allocationPerMegabyte > other.allocationPerMegabyte) {
+                return false;
+            }
+            return throughput > other.throughput || ratio > other.ratio
+                    || compareAllocation && allocationPerMegabyte < other.allocationPerMegabyte;
+        }
+    }
+
+    private static class Change {
+        private final JmhResult result;
+        private final String metric;
+        private final double baseline;
+        private final double current;
+        private final double worsePercent;
+        private final Status status;
+
+        Change(JmhResult result, String metric, double baseline, double current, double worsePercent, Status status) {
+            this.result = result;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.worsePercent = worsePercent;
+            this.status = status;
+        }
+    }
+
+    private static class Comparison {
+        private final List<Change> changes = new ArrayList<>();
+        private final List<String> missing = new ArrayList<>();
+        private final List<String> added = new ArrayList<>();
+
+        /**
+         * Records a change, {@code worse} is positive if {@code current} is worse than {@code baseline}.
+         */
+        void add(JmhResult result, String metric, double baseline, double current, double worse, boolean withinError, double threshold) {
+            final double worsePercent = baseline == 0 ? 0 : worse * 100 / Math.abs(baseline);
+            final Status status;
+            if (Math.abs(worsePercent) <= threshold) {
+                status = Status.UNCHANGED;
+            } else if (withinError) {
+                status = Status.NOISE;
+            } else {
+                status = worsePercent > 0 ? Status.REGRESSION : Status.IMPROVEMENT;
+            }
+            changes.add(new Change(result, metric, baseline, current, worsePercent, status));
+        }
+
+        long count(Status status) {
+            return changes.stream().filter(change -> change.status == status).count();
+        }
+    }
+}
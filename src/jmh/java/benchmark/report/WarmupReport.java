@@ -0,0 +1,140 @@
+package benchmark.report;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Shows warm-up curves of results recorded in JMH's single shot mode, within groups of the same benchmark method and
+ * parameters apart from {@code codec}: per codec the median over forks of selected iterations, starting with the
+ * first call in a fresh JVM. Steady state is the median of the last third of the iterations, {@code warm after} is
+ * the first iteration from which the median stays within {@value #WARM_TOLERANCE} times of it. Codecs are ordered
+ * by their first iteration. Results of other modes are skipped.
+ * <p>
+ * Usage: {@code WarmupReport <results.json> <report.md>}
+ */
+public class WarmupReport {
+    private static final String SINGLE_SHOT = "ss";
+    private static final double WARM_TOLERANCE = 1.1;
+    private static final int[] SHOWN_ITERATIONS = {1, 2, 3, 5, 10, 20, 50, 100};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: WarmupReport <results.json> <report.md>");
+        }
+
+        final Map<String, List<Curve>> groups = new TreeMap<>();
+        for (JmhResult result : JmhResult.read(Paths.get(args[0]))) {
+            if (SINGLE_SHOT.equals(result.mode) && !result.iterations.isEmpty()) {
+                groups.computeIfAbsent(result.method() + " " + result.paramsWithout("codec"), key -> new ArrayList<>())
+                        .add(new Curve(result));
+            }
+        }
+
+        final Path report = Paths.get(args[1]);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (final PrintStream out = new PrintStream(Files.newOutputStream(report), false, "UTF-8")) {
+            write(groups, out);
+        }
+        write(groups, System.out);
+    }
+
+    private static void write(Map<String, List<Curve>> groups, PrintStream out) {
+        out.println("# Warm-up curves");
+        out.println();
+        if (groups.isEmpty()) {
+            out.println("No single shot results, run the jmhColdStart task or JMH with -bm ss.");
+            return;
+        }
+
+        for (Map.Entry<String, List<Curve>> group : groups.entrySet()) {
+            final List<Curve> curves = new ArrayList<>(group.getValue());
+            curves.sort(Comparator.comparingDouble(curve -> curve.medians[0]));
+            final int iterations = curves.stream().mapToInt(curve -> curve.medians.length).max().orElse(0);
+            final List<Integer> shown = new ArrayList<>();
+            for (int iteration : SHOWN_ITERATIONS) {
+                if (iteration < iterations) {
+                    shown.add(iteration);
+                }
+            }
+            shown.add(iterations);
+            final String unit = curves.get(0).result.scoreUnit;
+
+            out.println("## " + group.getKey());
+            out.println();
+            final StringBuilder header = new StringBuilder("| codec | forks |");
+            final StringBuilder separator = new StringBuilder("|---|---:|");
+            for (int iteration : shown) {
+                header.append(" #").append(iteration).append(" |");
+                separator.append("---:|");
+            }
+            out.println(header.append(" steady | first / steady | warm after |"));
+            out.println(separator.append("---:|---:|---:|"));
+
+            for (Curve curve : curves) {
+                final StringBuilder row = new StringBuilder("| ").append(curve.codec()).append(" | ")
+                        .append(curve.result.iterations.size()).append(" |");
+                for (int iteration : shown) {
+                    row.append(iteration <= curve.medians.length ? format(curve.medians[iteration - 1]) : "-").append(" |");
+                }
+                row.append(format(curve.steady)).append(" |")
+                        .append(String.format(Locale.ROOT, " %.1fx |", curve.medians[0] / curve.steady))
+                        .append(' ').append(curve.warmAfter()).append(" |");
+                out.println(row);
+            }
+            out.println();
+            out.println("Times in " + unit + ", median over forks.");
+            out.println();
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, value >= 100 ? " %,.0f" : " %.3f", value);
+    }
+
+    private static double median(double[] values) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static class Curve {
+        private final JmhResult result;
+        private final double[] medians;
+        private final double steady;
+
+        Curve(JmhResult result) {
+            this.result = result;
+            final int iterations = result.iterations.stream().mapToInt(List::size).min().orElse(0);
+            medians = new double[iterations];
+            for (int i = 0; i < iterations; i++) {
+                final int iteration = i;
+                medians[i] = median(result.iterations.stream().mapToDouble(fork -> fork.get(iteration)).toArray());
+            }
+            steady = median(Arrays.copyOfRange(medians, iterations - Math.max(1, iterations / 3), iterations));
+        }
+
+        String codec() {
+            final String codec = result.params.get("codec");
+            return codec == null ? "-" : codec;
+        }
+
+        int warmAfter() {
+            int warm = medians.length;
+            while (warm > 1 && medians[warm - 2] <= steady * WARM_TOLERANCE) {
+                warm--;
+            }
+            return warm;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package benchmark.modern;
+
+import benchmark.CodecCounters;
+import benchmark.block.BlockCodecs;
+import benchmark.corpus.Corpus;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates and inflates blocks of {@code blockSize} bytes through the {@link ByteBuffer} methods {@link Deflater} and
+ * {@link Inflater} gained in Java 11, next to the {@code byte[]} methods, which are the only ones on Java 8. With
+ * {@code buffer=direct} plaintext and compressed blocks live off-heap and are passed to zlib in place, the
+ * {@code array} variants have to copy them onto the heap and back, as {@code ByteBufferBenchmark} does for deflate on
+ * Java 8. With {@code buffer=heap} both variants work on heap memory. Blocks are raw deflate streams at the default
+ * level, one reused {@link Deflater} and {@link Inflater} reset per block.
+ */
+@State(Scope.Benchmark)
+public class ByteBufferDeflaterBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"65536"})
+    public int blockSize;
+
+    @Param({"heap", "direct"})
+    public String buffer;
+
+    private boolean direct;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final Inflater inflater = new Inflater(true);
+
+    private byte[][] blocks;
+    private ByteBuffer[] plaintext;
+    private ByteBuffer[] compressed;
+    private int[] compressedLengths;
+    private long totalBytes;
+    private long totalCompressedBytes;
+    private ByteBuffer destination;
+    private ByteBuffer restored;
+    private byte[] heapBlock;
+    private byte[] heapDestination;
+
+    @Setup
+    public void setup() throws IOException, DataFormatException {
+        if (!buffer.equals("heap") && !buffer.equals("direct")) {
+            throw new IllegalArgumentException("Buffer must be heap or direct: " + buffer);
+        }
+        direct = buffer.equals("direct");
+
+        blocks = BlockCodecs.split(Resources.toByteArray(Corpus.plaintext(corpusSize)), blockSize);
+        plaintext = new ByteBuffer[blocks.length];
+        compressed = new ByteBuffer[blocks.length];
+        compressedLengths = new int[blocks.length];
+        final int maxCompressedLength = blockSize + (blockSize >> 3) + 64;
+        destination = allocate(maxCompressedLength, direct);
+        restored = allocate(blockSize, direct);
+        heapBlock = new byte[maxCompressedLength];
+        heapDestination = new byte[maxCompressedLength];
+
+        for (int i = 0; i < blocks.length; i++) {
+            plaintext[i] = allocate(blocks[i].length, direct).put(blocks[i]).flip();
+            final int length = compress(plaintext[i]);
+            compressed[i] = allocate(length, direct).put(destination.flip()).flip();
+            compressedLengths[i] = length;
+            totalBytes += blocks[i].length;
+            totalCompressedBytes += length;
+
+            decompress(compressed[i], blocks[i].length);
+            final byte[] restoredBlock = new byte[blocks[i].length];
+            restored.flip().get(restoredBlock);
+            if (!Arrays.equals(blocks[i], restoredBlock) || decompressViaArrays(i) != blocks[i].length
+                    || !Arrays.equals(blocks[i], Arrays.copyOf(heapDestination, blocks[i].length))) {
+                throw new IllegalStateException("Block " + i + " does not round-trip");
+            }
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deflater.end();
+        inflater.end();
+    }
+
+    private int compress(ByteBuffer block) {
+        deflater.reset();
+        deflater.setInput(block.duplicate());
+        deflater.finish();
+        destination.clear();
+        while (!deflater.finished()) {
+            deflater.deflate(destination);
+        }
+        return destination.position();
+    }
+
+    /**
+     * The Java 8 way: heap blocks are passed as their arrays, direct blocks are copied onto the heap and the result
+     * back into a direct buffer.
+     */
+    private int compressViaArrays(int block) {
+        final byte[] input;
+        if (direct) {
+            plaintext[block].duplicate().get(heapBlock, 0, blocks[block].length);
+            input = heapBlock;
+        } else {
+            input = plaintext[block].array();
+        }
+        deflater.reset();
+        deflater.setInput(input, 0, blocks[block].length);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(heapDestination, length, heapDestination.length - length);
+        }
+        if (direct) {
+            destination.clear();
+            destination.put(heapDestination, 0, length);
+        }
+        return length;
+    }
+
+    private int decompress(ByteBuffer block, int originalLength) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(block.duplicate());
+        restored.clear().limit(originalLength);
+        while (restored.hasRemaining() && !inflater.finished()) {
+            inflater.inflate(restored);
+        }
+        return restored.position();
+    }
+
+    private int decompressViaArrays(int block) throws DataFormatException {
+        final byte[] input;
+        if (direct) {
+            compressed[block].duplicate().get(heapBlock, 0, compressedLengths[block]);
+            input = heapBlock;
+        } else {
+            input = compressed[block].array();
+        }
+        inflater.reset();
+        inflater.setInput(input, 0, compressedLengths[block]);
+        int length = 0;
+        while (length < blocks[block].length && !inflater.finished()) {
+            length += inflater.inflate(heapDestination, length, blocks[block].length - length);
+        }
+        if (direct) {
+            restored.clear();
+            restored.put(heapDestination, 0, length);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public void compress(CodecCounters counters, Blackhole bh) {
+        for (ByteBuffer block : plaintext) {
+            bh.consume(compress(block));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void compressViaArrays(CodecCounters counters, Blackhole bh) {
+        for (int i = 0; i < blocks.length; i++) {
+            bh.consume(compressViaArrays(i));
+        }
+
+        counters.compressed(totalBytes, totalCompressedBytes);
+    }
+
+    @Benchmark
+    public void decompress(CodecCounters counters, Blackhole bh) throws DataFormatException {
+        for (int i = 0; i < blocks.length; i++) {
+            bh.consume(decompress(compressed[i], blocks[i].length));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+
+    @Benchmark
+    public void decompressViaArrays(CodecCounters counters, Blackhole bh) throws DataFormatException {
+        for (int i = 0; i < blocks.length; i++) {
+            bh.consume(decompressViaArrays(i));
+        }
+
+        counters.decompressed(totalCompressedBytes, totalBytes);
+    }
+}
@@ -0,0 +1,73 @@
+package benchmark.modern;
+
+import benchmark.corpus.Corpus;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import net.jpountz.xxhash.XXHashFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Checksums the corpus with the implementations a Java 8 pipeline has to choose from and with
+ * {@link CRC32C}, added in Java 9 and compiled to the CPU's CRC32C instruction where there is one:
+ * <ul>
+ * <li>{@code crc32}: {@link CRC32}, intrinsic on both JVMs</li>
+ * <li>{@code crc32c}: {@link CRC32C}</li>
+ * <li>{@code crc32c-guava}: Guava's table driven CRC32C, what {@code PipelineBenchmark} uses on Java 8</li>
+ * <li>{@code xxhash64}: the fastest XXHash64 of lz4-java</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ChecksumBenchmark {
+    @Param({"1KB", "64KB", "1MB", "16MB"})
+    public String corpusSize;
+
+    @Param({"crc32", "crc32c", "crc32c-guava", "xxhash64"})
+    public String checksum;
+
+    private byte[] corpus;
+    private Checksum implementation;
+
+    @Setup
+    public void setup() throws IOException {
+        corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+        switch (checksum) {
+            case "crc32":
+                implementation = new CRC32();
+                break;
+            case "crc32c":
+                implementation = new CRC32C();
+                implementation.update(corpus, 0, corpus.length);
+                if ((int) implementation.getValue() != Hashing.crc32c().hashBytes(corpus).asInt()) {
+                    throw new IllegalStateException("CRC32C and Guava's crc32c disagree");
+                }
+                break;
+            case "crc32c-guava":
+                implementation = null;
+                break;
+            case "xxhash64":
+                implementation = XXHashFactory.fastestInstance().newStreamingHash64(0).asChecksum();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown checksum " + checksum + ", available: [crc32, crc32c, crc32c-guava, xxhash64]");
+        }
+    }
+
+    @Benchmark
+    public long checksum() {
+        if (implementation == null) {
+            return Hashing.crc32c().hashBytes(corpus).padToLong();
+        }
+        implementation.reset();
+        implementation.update(corpus, 0, corpus.length);
+        return implementation.getValue();
+    }
+}
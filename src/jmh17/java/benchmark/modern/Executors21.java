@@ -0,0 +1,43 @@
+package benchmark.modern;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The executors the modern benchmarks compare, by the name used as the {@code executor} benchmark parameter:
+ * {@code platform} is a fixed pool of one platform thread per core, {@code virtual} starts a virtual thread per task.
+ * Virtual threads are final from Java 21 on, this source set targets Java 17, so they are looked up at run time.
+ */
+class Executors21 {
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = virtualThreadPerTaskExecutor();
+
+    private static MethodHandle virtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static ExecutorService create(String name, int threads) {
+        switch (name) {
+            case "platform":
+                return Executors.newFixedThreadPool(threads);
+            case "virtual":
+                if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+                    throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+                }
+                try {
+                    return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Creating a virtual thread executor failed", e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown executor " + name + ", available: [platform, virtual]");
+        }
+    }
+}
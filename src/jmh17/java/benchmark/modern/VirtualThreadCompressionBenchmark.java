@@ -0,0 +1,130 @@
+package benchmark.modern;
+
+import benchmark.CodecCounters;
+import benchmark.chunked.ChunkedInputStream;
+import benchmark.chunked.ChunkedOutputStream;
+import benchmark.codec.Codec;
+import benchmark.codec.Codecs;
+import benchmark.corpus.Corpus;
+import benchmark.io.ByteArraySink;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Resources;
+import org.anarres.parallelgzip.ParallelGZIPInputStream;
+import org.anarres.parallelgzip.ParallelGZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the parallel compressors of {@code ParallelCompressionBenchmark} on a fixed pool of platform threads and on
+ * virtual threads, one per block:
+ * <ul>
+ * <li>{@code parallelGzip}: {@code ParallelGZIPOutputStream} with the executor, the same number of blocks in flight
+ * as there are cores</li>
+ * <li>{@code chunked}: {@link ChunkedOutputStream} with {@code codec}, {@code chunkSize} bytes per chunk and twice as
+ * many chunks in flight as there are cores</li>
+ * </ul>
+ * Compression is CPU-bound, so virtual threads cannot add parallelism beyond their carrier threads, one per core.
+ * What changes is the cost of handing each block to a thread and back. {@code virtual} needs Java 21.
+ */
+public class VirtualThreadCompressionBenchmark {
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"1KB", "64KB", "1MB", "16MB"})
+        public String corpusSize;
+
+        @Param({"platform", "virtual"})
+        public String executor;
+
+        private byte[] corpus;
+        private ByteArraySink sink;
+        private ExecutorService executorService;
+
+        @Setup
+        public void setup() throws IOException {
+            corpus = Resources.toByteArray(Corpus.plaintext(corpusSize));
+            sink = new ByteArraySink(ByteArraySink.capacityFor(corpus.length));
+            executorService = Executors21.create(executor, CORES);
+
+            parallelGzip();
+            final byte[] restored;
+            try (final InputStream inputStream = new ParallelGZIPInputStream(new ByteArrayInputStream(sink.toByteArray()))) {
+                restored = ByteStreams.toByteArray(inputStream);
+            }
+            if (!Arrays.equals(corpus, restored)) {
+                throw new IllegalStateException("Parallel gzip on " + executor + " threads does not round-trip");
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            executorService.shutdownNow();
+        }
+
+        private void parallelGzip() throws IOException {
+            sink.reset();
+            try (final OutputStream outputStream = new ParallelGZIPOutputStream(sink, executorService, CORES)) {
+                outputStream.write(corpus);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"zstd", "lz4-native", "gzip"})
+        public String codec;
+
+        @Param({"1048576"})
+        public int chunkSize;
+
+        private Codec compressor;
+
+        @Setup
+        public void setup(Input input) throws IOException {
+            compressor = Codecs.get(codec);
+
+            compress(input);
+            final byte[] restored;
+            try (final InputStream inputStream = new ChunkedInputStream(new ByteArrayInputStream(input.sink.toByteArray()), compressor)) {
+                restored = ByteStreams.toByteArray(inputStream);
+            }
+            if (!Arrays.equals(input.corpus, restored)) {
+                throw new IllegalStateException("Chunked " + codec + " on " + input.executor + " threads does not round-trip");
+            }
+        }
+
+        private void compress(Input input) throws IOException {
+            input.sink.reset();
+            try (final OutputStream outputStream = new ChunkedOutputStream(input.sink, compressor, Codec.DEFAULT,
+                    input.executorService, chunkSize, 2 * CORES)) {
+                outputStream.write(input.corpus);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parallelGzip(Input input, CodecCounters counters) throws IOException {
+        input.parallelGzip();
+
+        counters.compressed(input.corpus.length, input.sink.size());
+    }
+
+    @Benchmark
+    public void chunked(Input input, Engine engine, CodecCounters counters) throws IOException {
+        engine.compress(input);
+
+        counters.compressed(input.corpus.length, input.sink.size());
+    }
+}